@@ -0,0 +1,144 @@
+package com.farmatodo.apigetway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.RequiredArgsConstructor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Configuración de los ejecutores dedicados para el trabajo asíncrono de la aplicación.
+ *
+ * Cada carga de trabajo dispone de su propio pool acotado, con una cola de capacidad
+ * fija y una política de rechazo configurable, de modo que una ráfaga en una de ellas
+ * no agote los hilos de las demás. El registro de búsquedas no usa un pool: lo persiste
+ * el hilo dedicado de {@link com.farmatodo.apigetway.service.searchlog.SearchLogWriter}.
+ * Las métricas de cola y de hilos activos se publican vía Actuator/Micrometer con la
+ * etiqueta {@code name} igual al nombre del bean; los rechazos se contabilizan en
+ * {@code executor.rejected}.
+ *
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfig {
+
+    /**
+     * Políticas de rechazo soportadas cuando la cola de un ejecutor está llena.
+     */
+    public enum RejectionPolicy {
+        /** Ejecuta la tarea en el hilo que la envía (contrapresión). */
+        CALLER_RUNS,
+        /** Descarta la tarea nueva. */
+        DISCARD,
+        /** Descarta la tarea más antigua de la cola y reintenta encolar la nueva. */
+        DISCARD_OLDEST,
+        /** Lanza {@link java.util.concurrent.RejectedExecutionException}. */
+        ABORT
+    }
+
+    /** Nombre del ejecutor para el envío de notificaciones. */
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+
+    private final MeterRegistry meterRegistry;
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    /**
+     * Indica si los ejecutores deben crear hilos virtuales en lugar de hilos de plataforma. Es
+     * independiente de {@code spring.threads.virtual.enabled}: el envío SMTP de Jakarta Mail se
+     * ejecuta dentro de bloques {@code synchronized} que, en Java 21, fijan el hilo virtual a su
+     * hilo portador durante toda la conexión con el servidor de correo.
+     */
+    @Value("${async.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Ejecutor dedicado al envío de notificaciones por correo.
+     *
+     * @param corePoolSize Número de hilos base.
+     * @param maxPoolSize Número máximo de hilos.
+     * @param queueCapacity Capacidad máxima de la cola.
+     * @param rejectionPolicy Política aplicada cuando la cola está llena.
+     * @return El ejecutor configurado.
+     */
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${async.notification.core-pool-size:2}") int corePoolSize,
+            @Value("${async.notification.max-pool-size:4}") int maxPoolSize,
+            @Value("${async.notification.queue-capacity:100}") int queueCapacity,
+            @Value("${async.notification.rejection-policy:CALLER_RUNS}") RejectionPolicy rejectionPolicy) {
+        return buildExecutor("notification-", NOTIFICATION_EXECUTOR, corePoolSize, maxPoolSize, queueCapacity, rejectionPolicy);
+    }
+
+    /**
+     * Construye un {@link ThreadPoolTaskExecutor} acotado con la política de rechazo indicada.
+     *
+     * @param threadNamePrefix Prefijo para el nombre de los hilos.
+     * @param name Nombre lógico del ejecutor (usado en métricas y logs).
+     * @param corePoolSize Número de hilos base.
+     * @param maxPoolSize Número máximo de hilos.
+     * @param queueCapacity Capacidad máxima de la cola.
+     * @param rejectionPolicy Política aplicada cuando la cola está llena.
+     * @return El ejecutor configurado (inicializado por el contenedor de Spring).
+     */
+    private ThreadPoolTaskExecutor buildExecutor(String threadNamePrefix, String name, int corePoolSize,
+                                                 int maxPoolSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(countingHandler(name, rejectionPolicy));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        }
+        log.info("⚙️ Ejecutor {} configurado: core={}, max={}, cola={}, rechazo={}, virtual={}",
+                name, corePoolSize, maxPoolSize, queueCapacity, rejectionPolicy, virtualThreads);
+        return executor;
+    }
+
+    /**
+     * Envuelve la política de rechazo para contabilizar cada tarea rechazada. El aviso en el
+     * log se emite en el primer rechazo y luego cada 1000, para no saturarlo durante una ráfaga.
+     *
+     * @param name Nombre lógico del ejecutor.
+     * @param rejectionPolicy Política de rechazo configurada.
+     * @return El {@link RejectedExecutionHandler} instrumentado.
+     */
+    private RejectedExecutionHandler countingHandler(String name, RejectionPolicy rejectionPolicy) {
+        RejectedExecutionHandler delegate = switch (rejectionPolicy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+        };
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tareas rechazadas por cola llena")
+                .tag("name", name)
+                .tag("policy", rejectionPolicy.name())
+                .register(meterRegistry);
+        AtomicLong rejectedTotal = new AtomicLong();
+
+        return (task, executor) -> {
+            rejected.increment();
+            long total = rejectedTotal.incrementAndGet();
+            if (total == 1 || total % 1000 == 0) {
+                log.warn("Cola del ejecutor {} llena ({} tareas); política {} aplicada {} veces.",
+                        name, executor.getQueue().size(), rejectionPolicy, total);
+            }
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+}
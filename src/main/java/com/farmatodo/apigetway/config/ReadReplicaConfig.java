@@ -0,0 +1,117 @@
+package com.farmatodo.apigetway.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Configuración de la réplica de lectura de PostgreSQL.
+ *
+ * Solo se activa si {@code datasource.replica.url} tiene valor; en caso contrario se usa el
+ * {@link DataSource} único de Spring Boot. Define un pool para el primario (configurado con
+ * {@code spring.datasource.*}), otro de solo lectura para la réplica y, como {@link DataSource}
+ * principal, un {@link LazyConnectionDataSourceProxy} sobre un {@link ReadWriteRoutingDataSource}
+ * que reparte las conexiones entre ambos. JPA, Flyway y las plantillas JDBC usan ese proxy, de
+ * modo que las transacciones {@code @Transactional(readOnly = true)} leen de la réplica y todo
+ * lo demás (escrituras, migraciones, advisory locks) se ejecuta en el primario.
+ *
+ */
+@Configuration
+@ConditionalOnExpression("!'${datasource.replica.url:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaConfig.class);
+
+    /**
+     * Pool de conexiones del primario.
+     *
+     * @param properties Propiedades {@code spring.datasource.*}.
+     * @return El pool del primario.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Pool de conexiones de solo lectura de la réplica.
+     *
+     * @param properties Propiedades {@code spring.datasource.*} (para el driver).
+     * @param url URL JDBC de la réplica.
+     * @param username Usuario de la réplica.
+     * @param password Contraseña de la réplica.
+     * @param maximumPoolSize Número máximo de conexiones a la réplica.
+     * @return El pool de la réplica.
+     */
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username}") String username,
+                                              @Value("${datasource.replica.password}") String password,
+                                              @Value("${datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(Math.max(1, maximumPoolSize));
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * {@link DataSource} principal de la aplicación, que enruta cada transacción al primario o a la réplica.
+     *
+     * @param primary Pool del primario.
+     * @param replica Pool de la réplica.
+     * @param readYourWritesMs Tiempo durante el que un cliente lee del primario tras escribir, en milisegundos.
+     * @param readYourWritesSecret Secreto, común a todos los nodos, con el que se firma la marca de lectura de las propias escrituras.
+     * @param meterRegistry Registro de métricas.
+     * @return El proxy de conexiones diferidas sobre el enrutador.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${datasource.replica.read-your-writes-ms:5000}") long readYourWritesMs,
+                                 @Value("${datasource.replica.read-your-writes-secret}") String readYourWritesSecret,
+                                 MeterRegistry meterRegistry) {
+        ReadYourWritesToken readYourWritesToken = new ReadYourWritesToken(
+                readYourWritesSecret, Duration.ofMillis(Math.max(0, readYourWritesMs)), Clock.systemUTC());
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                primary, replica, readYourWritesToken, meterRegistry);
+        routing.afterPropertiesSet();
+
+        // Valores por defecto explícitos para no abrir una conexión al inicializar el proxy
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(routing);
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+
+        log.info("🗄️ Réplica de lectura habilitada: transacciones readOnly a la réplica, lectura de las propias escrituras durante {} ms.",
+                readYourWritesMs);
+        return proxy;
+    }
+}
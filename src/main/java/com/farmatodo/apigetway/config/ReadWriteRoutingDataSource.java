@@ -0,0 +1,92 @@
+package com.farmatodo.apigetway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * {@link DataSource} que dirige las transacciones de solo lectura a la réplica y el resto al primario.
+ *
+ * La decisión se toma al obtener la conexión física, según el indicador {@code readOnly} de la
+ * transacción en curso; por eso debe envolverse en un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, que retrasa la
+ * obtención hasta la primera sentencia, cuando la transacción ya está registrada. Las conexiones
+ * obtenidas fuera de una transacción van al primario.
+ *
+ * Lectura de las propias escrituras: cuando una petición HTTP confirma una transacción de
+ * escritura, su respuesta lleva una {@link ReadYourWritesToken} firmada y las lecturas del
+ * cliente que la reenvíe se sirven desde el primario durante
+ * {@code datasource.replica.read-your-writes-ms}, de modo que el retraso de replicación no le
+ * oculta sus cambios aunque otra instancia atienda la siguiente petición. Las decisiones se
+ * contabilizan en {@code datasource.routing}.
+ *
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /** Destinos de las conexiones. */
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReadYourWritesToken readYourWritesToken;
+    private final Counter readWriteCounter;
+    private final Counter readOnlyCounter;
+    private final Counter readYourWritesCounter;
+
+    /**
+     * Crea el enrutador entre el primario y la réplica.
+     *
+     * @param primary Pool de conexiones del primario.
+     * @param replica Pool de conexiones de la réplica.
+     * @param readYourWritesToken Marca con la que el cliente lee del primario tras escribir.
+     * @param meterRegistry Registro de métricas.
+     */
+    ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesToken readYourWritesToken,
+                               MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.readYourWritesToken = readYourWritesToken;
+        this.readWriteCounter = routingCounter(meterRegistry, "primary", "read-write");
+        this.readOnlyCounter = routingCounter(meterRegistry, "replica", "read-only");
+        this.readYourWritesCounter = routingCounter(meterRegistry, "primary", "read-your-writes");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (readYourWritesToken.hasCurrentRequest() && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // La ventana empieza al confirmar, que es cuando la escritura empieza a replicarse
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWritesToken.writeCommitted();
+                    }
+                });
+            }
+            readWriteCounter.increment();
+            return Target.PRIMARY;
+        }
+        if (readYourWritesToken.isPinnedToPrimary()) {
+            readYourWritesCounter.increment();
+            return Target.PRIMARY;
+        }
+        readOnlyCounter.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing")
+                .description("Conexiones obtenidas por destino")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,173 @@
+package com.farmatodo.apigetway.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Marca de lectura de las propias escrituras que viaja con el cliente.
+ *
+ * Al confirmarse una escritura durante una petición HTTP, la respuesta incluye la cookie
+ * {@value #COOKIE_NAME} y la cabecera {@value #HEADER_NAME} con el instante hasta el que las
+ * lecturas del cliente deben servirse desde el primario, firmado con HMAC-SHA256. Mientras
+ * el cliente la reenvíe (como cookie o como cabecera) y no haya caducado, cualquier nodo que
+ * atienda la petición dirige sus lecturas al primario, sin necesidad de afinidad de sesión.
+ * Una marca alterada o caducada se ignora.
+ *
+ */
+final class ReadYourWritesToken {
+
+    /** Cookie que transporta la marca. */
+    static final String COOKIE_NAME = "primary-read-until";
+
+    /** Cabecera alternativa para clientes sin almacén de cookies. */
+    static final String HEADER_NAME = "X-Primary-Read-Until";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String WROTE_ATTRIBUTE = ReadYourWritesToken.class.getName() + ".wrote";
+
+    private final SecretKeySpec key;
+    private final Duration window;
+    private final Clock clock;
+
+    /**
+     * Crea el emisor y verificador de marcas.
+     *
+     * @param secret Secreto compartido por todos los nodos para firmar las marcas.
+     * @param window Tiempo durante el que las lecturas van al primario tras una escritura.
+     * @param clock Reloj para calcular y comprobar la caducidad.
+     */
+    ReadYourWritesToken(String secret, Duration window, Clock clock) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("Se requiere un secreto propio (DB_REPLICA_READ_YOUR_WRITES_SECRET) para firmar la lectura de las propias escrituras.");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /**
+     * Indica si la petición en curso debe leer del primario: porque ya confirmó una escritura
+     * o porque trae una marca válida y vigente.
+     *
+     * @return {@code true} si las lecturas de la petición deben ir al primario.
+     */
+    boolean isPinnedToPrimary() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        if (request.getAttribute(WROTE_ATTRIBUTE) != null) {
+            return true;
+        }
+        String token = request.getHeader(HEADER_NAME);
+        if (token == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    token = cookie.getValue();
+                    break;
+                }
+            }
+        }
+        return token != null && isValid(token);
+    }
+
+    /**
+     * Indica si hay una petición HTTP en curso en el hilo actual.
+     *
+     * @return {@code true} si las escrituras del hilo pueden emitir una marca.
+     */
+    boolean hasCurrentRequest() {
+        return currentRequest() != null;
+    }
+
+    /**
+     * Registra una escritura confirmada en la petición en curso y emite la marca en su
+     * respuesta, si aún no se ha enviado.
+     */
+    void writeCommitted() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (attributes == null) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        request.setAttribute(WROTE_ATTRIBUTE, Boolean.TRUE);
+        HttpServletResponse response = attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        String token = issue();
+        Cookie cookie = new Cookie(COOKIE_NAME, token);
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds() + 1));
+        cookie.setAttribute("SameSite", "Lax");
+        response.addCookie(cookie);
+        response.setHeader(HEADER_NAME, token);
+    }
+
+    /**
+     * Emite una marca que caduca al terminar la ventana de lectura de las propias escrituras.
+     *
+     * @return La marca firmada.
+     */
+    String issue() {
+        String expiresAt = Long.toHexString(clock.millis() + window.toMillis());
+        return expiresAt + "." + sign(expiresAt);
+    }
+
+    /**
+     * Comprueba la firma y la vigencia de una marca.
+     *
+     * @param token Marca recibida del cliente.
+     * @return {@code true} si la firma es correcta y la marca no ha caducado.
+     */
+    boolean isValid(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return false;
+        }
+        String expiresAt = token.substring(0, separator);
+        byte[] expected = sign(expiresAt).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return false;
+        }
+        try {
+            return clock.millis() < Long.parseUnsignedLong(expiresAt, 16);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private String sign(String value) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(value.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo firmar la lectura de las propias escrituras.", e);
+        }
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes : null;
+    }
+}
@@ -27,8 +27,8 @@ public class WebConfig implements WebMvcConfigurer {
      */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // Registra el SearchLogInterceptor y lo aplica solo a la ruta de búsqueda de productos
+        // Registra el SearchLogInterceptor y lo aplica solo a las rutas de búsqueda de productos
         registry.addInterceptor(searchLogInterceptor)
-                .addPathPatterns("/api/v1/products/search");
+                .addPathPatterns("/api/v1/products/search", "/api/v1/products/search/faceted");
     }
 }
\ No newline at end of file
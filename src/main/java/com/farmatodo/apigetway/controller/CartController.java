@@ -3,6 +3,9 @@ package com.farmatodo.apigetway.controller;
 import com.farmatodo.apigetway.model.dto.ApiResponse;
 import com.farmatodo.apigetway.model.dto.CartAddRequest;
 import com.farmatodo.apigetway.model.dto.CartItemResponse;
+import com.farmatodo.apigetway.model.dto.CartReplaceRequest;
+import com.farmatodo.apigetway.model.dto.CartResponse;
+import com.farmatodo.apigetway.model.dto.CartUpdateQuantityRequest;
 import com.farmatodo.apigetway.service.AuthService;
 import com.farmatodo.apigetway.service.CartService;
 
@@ -18,12 +21,14 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Controlador REST para la gestión del carrito de compras del cliente.
  * <p>
- * Permite a los clientes autenticados añadir productos al carrito.
+ * Permite a los clientes autenticados consultar su carrito, añadir productos, fijar su
+ * cantidad, eliminarlos o reemplazar el carrito completo.
  * </p>
  */
 @RestController
@@ -55,6 +60,51 @@ public class CartController {
         }
     }
 
+    /**
+     * Obtiene el carrito del cliente autenticado con los datos de los productos, los importes
+     * y la disponibilidad de cada línea.
+     *
+     * @param userDetails Los detalles del usuario autenticado vía JWT.
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<CartResponse>).
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<CartResponse>> getCart(@AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            UUID clientId = getAuthenticatedClientId(userDetails);
+
+            CartResponse cart = cartService.getCart(clientId);
+
+            // Retorno exitoso 200 OK
+            return ResponseEntity.ok(
+                    ApiResponse.success(
+                            HttpStatus.OK,
+                            "Carrito obtenido exitosamente.",
+                            cart
+                    )
+            );
+
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(
+                            HttpStatus.FORBIDDEN,
+                            "Acceso denegado: " + e.getMessage()
+                    ));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST,
+                            "Error en el carrito: " + e.getMessage()
+                    ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al obtener el carrito."
+                    ));
+        }
+    }
+
     /**
      * Añade un producto al carrito del cliente autenticado o actualiza su cantidad si ya existe.
      *
@@ -109,4 +159,153 @@ public class CartController {
                     ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Fija la cantidad de un producto en el carrito del cliente autenticado. Una cantidad de 0
+     * elimina el producto.
+     *
+     * @param userDetails Los detalles del usuario autenticado vía JWT.
+     * @param productId ID del producto.
+     * @param request DTO con la nueva cantidad.
+     * @return ResponseEntity con el ítem actualizado, o sin datos si se eliminó.
+     */
+    @PutMapping("/{productId}")
+    public ResponseEntity<ApiResponse<CartItemResponse>> updateItemQuantity(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable UUID productId,
+            @Valid @RequestBody CartUpdateQuantityRequest request) {
+
+        try {
+            UUID clientId = getAuthenticatedClientId(userDetails);
+
+            CartItemResponse item = cartService.setItemQuantity(clientId, productId, request.getQuantity());
+
+            // Retorno exitoso 200 OK
+            return ResponseEntity.ok(
+                    ApiResponse.success(
+                            HttpStatus.OK,
+                            item == null ? "Producto eliminado del carrito." : "Cantidad actualizada en el carrito.",
+                            item
+                    )
+            );
+
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(
+                            HttpStatus.FORBIDDEN,
+                            "Acceso denegado: " + e.getMessage()
+                    ));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST,
+                            "Error en el carrito: " + e.getMessage()
+                    ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al procesar el carrito."
+                    ));
+        }
+    }
+
+    /**
+     * Elimina un producto del carrito del cliente autenticado.
+     *
+     * @param userDetails Los detalles del usuario autenticado vía JWT.
+     * @param productId ID del producto.
+     * @return ResponseEntity con la estructura de respuesta estandarizada (404 si el producto no estaba en el carrito).
+     */
+    @DeleteMapping("/{productId}")
+    public ResponseEntity<ApiResponse<Void>> removeItemFromCart(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable UUID productId) {
+
+        try {
+            UUID clientId = getAuthenticatedClientId(userDetails);
+
+            if (!cartService.removeItemFromCart(clientId, productId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(
+                                HttpStatus.NOT_FOUND,
+                                "El producto no está en el carrito."
+                        ));
+            }
+
+            // Retorno exitoso 200 OK
+            return ResponseEntity.ok(
+                    ApiResponse.success(
+                            HttpStatus.OK,
+                            "Producto eliminado del carrito.",
+                            null
+                    )
+            );
+
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(
+                            HttpStatus.FORBIDDEN,
+                            "Acceso denegado: " + e.getMessage()
+                    ));
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al procesar el carrito."
+                    ));
+        }
+    }
+
+    /**
+     * Reemplaza el carrito completo del cliente autenticado por los ítems recibidos, en una
+     * sola operación (pensado para sincronizar carritos armados sin conexión).
+     *
+     * @param userDetails Los detalles del usuario autenticado vía JWT.
+     * @param request DTO con los ítems del nuevo carrito.
+     * @return ResponseEntity con los ítems resultantes.
+     */
+    @PutMapping
+    public ResponseEntity<ApiResponse<List<CartItemResponse>>> replaceCart(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Valid @RequestBody CartReplaceRequest request) {
+
+        try {
+            UUID clientId = getAuthenticatedClientId(userDetails);
+
+            List<CartItemResponse> items = cartService.replaceCart(clientId, request.getItems());
+
+            // Retorno exitoso 200 OK
+            return ResponseEntity.ok(
+                    ApiResponse.success(
+                            HttpStatus.OK,
+                            "Carrito reemplazado.",
+                            items
+                    )
+            );
+
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error(
+                            HttpStatus.FORBIDDEN,
+                            "Acceso denegado: " + e.getMessage()
+                    ));
+
+        } catch (IllegalArgumentException e) {
+            // Error de negocio (ej. Producto no encontrado o repetido)
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST,
+                            "Error en el carrito: " + e.getMessage()
+                    ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al procesar el carrito."
+                    ));
+        }
+    }
+}
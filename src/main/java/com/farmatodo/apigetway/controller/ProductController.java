@@ -2,15 +2,31 @@ package com.farmatodo.apigetway.controller;
 
 import com.farmatodo.apigetway.model.Product;
 import com.farmatodo.apigetway.model.dto.ApiResponse;
+import com.farmatodo.apigetway.model.dto.FacetedSearchResponse;
+import com.farmatodo.apigetway.model.dto.ProductImportReport;
+import com.farmatodo.apigetway.model.dto.ProductSearchPage;
+import com.farmatodo.apigetway.model.dto.ProductSuggestionResponse;
 import com.farmatodo.apigetway.service.ProductService;
+import com.farmatodo.apigetway.service.productexport.ProductExportFormat;
+import com.farmatodo.apigetway.service.productexport.ProductExportService;
+import com.farmatodo.apigetway.service.productimport.ProductImportFormat;
+import com.farmatodo.apigetway.service.productimport.ProductImportService;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
 
 /**
  * Controlador REST para la gestión de productos y la funcionalidad de búsqueda.
@@ -25,6 +41,14 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+
+    /**
+     * Las respuestas de búsqueda pueden guardarse solo en la caché del cliente y deben
+     * revalidarse con su ETag antes de reutilizarse.
+     */
+    private static final CacheControl SEARCH_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
     /**
      * Crea un nuevo producto en el inventario.
@@ -63,13 +87,24 @@ public class ProductController {
 
     /**
      * Busca productos por palabra clave en el nombre o número de parte,
-     * aplicando filtros de visibilidad basados en el stock mínimo.
+     * aplicando filtros de visibilidad basados en el stock mínimo. Los resultados
+     * se retornan paginados y con un total estimado.
      *
      * @param keyword La palabra clave de búsqueda.
-     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<List<Product>>).
+     * @param fuzzy Si es {@code true}, tolera errores tipográficos y ordena por relevancia (sin cursor).
+     * @param limit Número máximo de productos por página (por defecto 20, máximo 100).
+     * @param cursor Cursor retornado por la página anterior (opcional).
+     * @param webRequest Petición actual, para evaluar la cabecera {@code If-None-Match}.
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<ProductSearchPage>),
+     *         o {@code null} si la respuesta es 304 Not Modified.
      */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<Product>>> searchProducts(@RequestParam String keyword) {
+    public ResponseEntity<ApiResponse<ProductSearchPage>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
 
         // Validar la entrada de la palabra clave
         if (keyword == null || keyword.trim().isEmpty()) {
@@ -80,28 +115,131 @@ public class ProductController {
                     ));
         }
 
+        // Si el catálogo no cambió desde la copia del cliente, se responde 304 sin ejecutar la búsqueda
+        String eTag = productService.getSearchResultsETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
         try {
-            List<Product> products = productService.searchProductsByKeyword(keyword);
+            ProductSearchPage page = fuzzy
+                    ? productService.searchProductsFuzzy(keyword, limit)
+                    : productService.searchProducts(keyword, cursor, limit);
 
-            if (products.isEmpty()) {
+            if (page.getItems().isEmpty()) {
                 // Si la búsqueda no encuentra resultados, retornamos 200 OK con mensaje informativo.
-                return ResponseEntity.ok(
-                        ApiResponse.success(
+                return ResponseEntity.ok()
+                        .eTag(eTag)
+                        .cacheControl(SEARCH_CACHE_CONTROL)
+                        .body(ApiResponse.success(
                                 HttpStatus.OK,
                                 "Búsqueda exitosa. No se encontraron productos que coincidan.",
-                                products // Lista vacía
-                        )
-                );
+                                page // Página vacía
+                        ));
             }
 
+            // Retorno exitoso 200 OK
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(SEARCH_CACHE_CONTROL)
+                    .body(ApiResponse.success(
+                            HttpStatus.OK,
+                            "Búsqueda exitosa. Se retornan " + page.getItems().size() + " de aproximadamente "
+                                    + page.getEstimatedTotal() + " productos.",
+                            page
+                    ));
+        } catch (IllegalArgumentException e) {
+            // Cursor de paginación inválido
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(HttpStatus.BAD_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            // Error interno
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al procesar la búsqueda de productos."
+                    ));
+        }
+    }
+
+    /**
+     * Obtiene sugerencias de autocompletado de productos para un prefijo,
+     * servidas desde el índice en memoria y ordenadas por popularidad de búsqueda.
+     *
+     * @param prefix El texto escrito por el usuario.
+     * @param limit Número máximo de sugerencias (por defecto 10, máximo 20).
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<List<ProductSuggestionResponse>>).
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<ProductSuggestionResponse>>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        // Validar la entrada del prefijo
+        if (prefix == null || prefix.trim().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST,
+                            "El prefijo de búsqueda es obligatorio."
+                    ));
+        }
+
+        try {
+            List<ProductSuggestionResponse> suggestions = productService.suggestProducts(prefix, limit);
+
             // Retorno exitoso 200 OK
             return ResponseEntity.ok(
                     ApiResponse.success(
                             HttpStatus.OK,
-                            "Búsqueda exitosa. Se encontraron " + products.size() + " productos.",
-                            products
+                            "Sugerencias recuperadas exitosamente. Total: " + suggestions.size(),
+                            suggestions
                     )
             );
+        } catch (Exception e) {
+            // Error interno
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al procesar las sugerencias de productos."
+                    ));
+        }
+    }
+
+    /**
+     * Busca productos filtrando por palabra clave (opcional) y categorías, aplicando el filtro
+     * de visibilidad por stock mínimo, y retorna el conteo de resultados por categoría.
+     *
+     * @param keyword La palabra clave de búsqueda (opcional).
+     * @param category Categorías a incluir (parámetro repetible, opcional).
+     * @param limit Número máximo de productos a retornar (por defecto 20, máximo 100).
+     * @param webRequest Petición actual, para evaluar la cabecera {@code If-None-Match}.
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<FacetedSearchResponse>),
+     *         o {@code null} si la respuesta es 304 Not Modified.
+     */
+    @GetMapping("/search/faceted")
+    public ResponseEntity<ApiResponse<FacetedSearchResponse>> searchProductsFaceted(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest webRequest) {
+
+        String eTag = productService.getSearchResultsETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        try {
+            FacetedSearchResponse result = productService.searchProductsFaceted(keyword, category, limit);
+
+            // Retorno exitoso 200 OK
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(SEARCH_CACHE_CONTROL)
+                    .body(ApiResponse.success(
+                            HttpStatus.OK,
+                            "Búsqueda exitosa. Se encontraron " + result.getTotal() + " productos.",
+                            result
+                    ));
         } catch (Exception e) {
             // Error interno
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -111,4 +249,142 @@ public class ProductController {
                     ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Importa productos de forma masiva desde un archivo CSV o NDJSON enviado como cuerpo de la
+     * petición. El archivo se procesa de forma incremental; las filas inválidas, repetidas o con
+     * un número de parte existente se rechazan sin detener la importación.
+     *
+     * @param contentType Tipo de contenido del cuerpo ({@code text/csv} o {@code application/x-ndjson}).
+     * @param body Contenido del archivo.
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<ProductImportReport>).
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<ProductImportReport>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        try {
+            ProductImportReport report = productImportService.importProducts(
+                    ProductImportFormat.fromContentType(contentType), body);
+
+            // Retorno exitoso 200 OK (incluye el detalle de las filas rechazadas)
+            return ResponseEntity.ok(
+                    ApiResponse.success(
+                            HttpStatus.OK,
+                            "Importación completada. Filas: " + report.getProcessedRows()
+                                    + ", creadas: " + report.getInsertedRows()
+                                    + ", rechazadas: " + report.getRejectedRows() + ".",
+                            report
+                    )
+            );
+        } catch (IllegalArgumentException e) {
+            // Formato de archivo inválido (ej. cabecera CSV incompleta)
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST,
+                            "Error al importar productos: " + e.getMessage()
+                    ));
+        } catch (Exception e) {
+            // Error interno
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al procesar la importación de productos."
+                    ));
+        }
+    }
+
+    /**
+     * Obtiene el progreso de las importaciones recientes procesadas por este nodo.
+     *
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<List<ProductImportReport>>).
+     */
+    @GetMapping("/import")
+    public ResponseEntity<ApiResponse<List<ProductImportReport>>> getRecentImports() {
+        List<ProductImportReport> reports = productImportService.getRecentImports();
+
+        // Retorno exitoso 200 OK
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        HttpStatus.OK,
+                        "Importaciones recientes recuperadas exitosamente. Total: " + reports.size(),
+                        reports
+                )
+        );
+    }
+
+    /**
+     * Obtiene el progreso de una importación reciente procesada por este nodo.
+     *
+     * @param importId ID de la importación.
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<ProductImportReport>).
+     */
+    @GetMapping("/import/{importId}")
+    public ResponseEntity<ApiResponse<ProductImportReport>> getImport(@PathVariable UUID importId) {
+        return productImportService.getImport(importId)
+                .map(report -> ResponseEntity.ok(
+                        ApiResponse.success(
+                                HttpStatus.OK,
+                                "Importación recuperada exitosamente.",
+                                report
+                        )
+                ))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(
+                                HttpStatus.NOT_FOUND,
+                                "Importación con ID " + importId + " no encontrada."
+                        )));
+    }
+
+    /**
+     * Exporta el catálogo completo de productos en CSV o NDJSON, escribiendo las filas en la
+     * respuesta a medida que se leen de la base de datos. Si el cliente acepta gzip
+     * ({@code Accept-Encoding: gzip}), la salida se comprime.
+     *
+     * @param format Formato de salida ({@code csv} por defecto, o {@code ndjson}).
+     * @param acceptEncoding Cabecera {@code Accept-Encoding} de la petición.
+     * @param response Respuesta HTTP donde se escribe el archivo.
+     * @return {@code null} si la exportación se escribió en la respuesta, o un ResponseEntity
+     *         con la estructura de respuesta estandarizada en caso de error.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<ApiResponse<Void>> exportProducts(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) {
+
+        ProductExportFormat exportFormat;
+        try {
+            exportFormat = ProductExportFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(HttpStatus.BAD_REQUEST, e.getMessage()));
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        response.setContentType(exportFormat.getMediaType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"products." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        try {
+            productExportService.export(exportFormat, gzip, response.getOutputStream());
+            return null;
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                // La exportación ya comenzó a enviarse: solo puede interrumpirse la respuesta
+                return null;
+            }
+            response.reset();
+            // Error interno
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al procesar la exportación de productos."
+                    ));
+        }
+    }
+}
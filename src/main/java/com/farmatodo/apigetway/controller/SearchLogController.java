@@ -1,8 +1,10 @@
 package com.farmatodo.apigetway.controller;
 
 import com.farmatodo.apigetway.model.dto.ApiResponse;
+import com.farmatodo.apigetway.model.dto.TrendingKeywordResponse;
 import com.farmatodo.apigetway.service.AuthService;
 import com.farmatodo.apigetway.service.SearchLogService;
+import com.farmatodo.apigetway.service.searchlog.TrendWindow;
 
 import lombok.RequiredArgsConstructor;
 
@@ -20,7 +22,8 @@ import java.util.UUID;
 /**
  * Controlador REST para la consulta de registros de búsqueda (SearchLog).
  * <p>
- * Permite a los usuarios autenticados consultar su historial de búsquedas.
+ * Permite a los usuarios autenticados consultar su historial de búsquedas y las
+ * palabras clave más buscadas globalmente.
  * </p>
  */
 @RestController
@@ -53,17 +56,21 @@ public class SearchLogController {
     }
 
     /**
-     * Consulta el historial de palabras clave de búsqueda únicas de un usuario autenticado.
+     * Consulta el historial de palabras clave de búsqueda únicas de un usuario autenticado,
+     * ordenado de la más reciente a la más antigua.
      *
      * @param userDetails Los detalles del usuario autenticado vía JWT.
+     * @param limit Número máximo de palabras clave a retornar (por defecto 50, máximo 200).
      * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<List<String>>).
      */
     @GetMapping("/history")
-    public ResponseEntity<ApiResponse<List<String>>> getSearchHistory(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<ApiResponse<List<String>>> getSearchHistory(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @RequestParam(defaultValue = "50") int limit) {
 
         try {
             UUID clientId = getAuthenticatedClientId(userDetails);
-            List<String> keywords = searchLogService.getUniqueSearchKeywordsByClient(clientId);
+            List<String> keywords = searchLogService.getUniqueSearchKeywordsByClient(clientId, limit);
 
             if (keywords.isEmpty()) {
                 // 200 OK con lista vacía
@@ -109,4 +116,48 @@ public class SearchLogController {
                     ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Consulta las palabras clave más buscadas por todos los usuarios en una ventana de tiempo.
+     *
+     * @param window Ventana de tiempo ("HOUR" o "DAY", por defecto "HOUR").
+     * @param limit Número máximo de palabras clave a retornar (por defecto 10, máximo 100).
+     * @return ResponseEntity con la estructura de respuesta estandarizada (ApiResponse<List<TrendingKeywordResponse>>).
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<TrendingKeywordResponse>>> getTrendingKeywords(
+            @RequestParam(defaultValue = "HOUR") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        TrendWindow trendWindow;
+        try {
+            trendWindow = TrendWindow.valueOf(window.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(
+                            HttpStatus.BAD_REQUEST,
+                            "Ventana de tiempo inválida: " + window + ". Valores permitidos: HOUR, DAY."
+                    ));
+        }
+
+        try {
+            List<TrendingKeywordResponse> trending = searchLogService.getTrendingKeywords(trendWindow, limit);
+
+            // Retorno exitoso 200 OK
+            return ResponseEntity.ok(
+                    ApiResponse.success(
+                            HttpStatus.OK,
+                            "Palabras clave populares recuperadas exitosamente. Total: " + trending.size(),
+                            trending
+                    )
+            );
+        } catch (Exception e) {
+            // Cualquier otro error interno
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(
+                            HttpStatus.INTERNAL_SERVER_ERROR,
+                            "Error interno al consultar las palabras clave populares."
+                    ));
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.ZonedDateTime;
 import java.util.UUID;
 
 /**
@@ -15,6 +18,9 @@ import java.util.UUID;
  *
  * Se asegura la unicidad de la combinación {@code client_id} y {@code product_id}
  * para evitar duplicados del mismo producto en el carrito del mismo cliente.
+ * La restricción única, cuya primera columna es {@code client_id}, sirve también como índice
+ * de las consultas del carrito de un cliente. {@code update_date} registra la última
+ * modificación del ítem y permite eliminar los carritos abandonados.
  *
  */
 @Entity
@@ -30,8 +36,7 @@ public class CartItem {
      * Identificador único (UUID) del ítem del carrito.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -56,4 +61,20 @@ public class CartItem {
      */
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
+
+    /**
+     * Fecha y hora de la última modificación del ítem.
+     */
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "update_date", nullable = false)
+    private ZonedDateTime updateDate = ZonedDateTime.now();
+
+    /**
+     * Método de ciclo de vida de JPA ejecutado antes de cada actualización.
+     * Establece la fecha de actualización automáticamente.
+     */
+    @PreUpdate
+    protected void onUpdate() {
+        this.updateDate = ZonedDateTime.now();
+    }
 }
\ No newline at end of file
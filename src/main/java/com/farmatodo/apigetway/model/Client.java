@@ -1,11 +1,11 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.*;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.time.ZonedDateTime;
 import java.util.Set;
 import java.util.UUID;
@@ -32,8 +32,7 @@ public class Client {
      * Identificador único (UUID) del cliente.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -0,0 +1,115 @@
+package com.farmatodo.apigetway.model;
+
+import com.farmatodo.apigetway.model.id.UuidV7;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad que representa una notificación pendiente de envío (patrón Transactional Outbox).
+ *
+ * Se escribe en la misma transacción que la operación de negocio que la origina y
+ * es despachada posteriormente por un proceso programado. Almacena una copia de los
+ * datos del destinatario para no depender de entidades gestionadas en otro hilo.
+ *
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_creation", columnList = "status, creation_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutbox {
+
+    /** Estado de una notificación aún no enviada. */
+    public static final String STATUS_PENDING = "PENDING";
+    /** Estado de una notificación enviada correctamente. */
+    public static final String STATUS_SENT = "SENT";
+    /** Estado de una notificación descartada tras agotar los reintentos. */
+    public static final String STATUS_FAILED = "FAILED";
+
+    /** Tipo de evento para el correo de rechazo de pago. */
+    public static final String TYPE_PAYMENT_REJECTED = "PAYMENT_REJECTED";
+
+    /**
+     * Identificador único (UUID) de la notificación.
+     */
+    @Id
+    @UuidV7
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    /**
+     * Tipo de evento que originó la notificación (ej. "PAYMENT_REJECTED").
+     */
+    @Column(name = "event_type", length = 50, nullable = false)
+    private String eventType;
+
+    /**
+     * Correo electrónico del destinatario.
+     */
+    @Column(name = "recipient_email", length = 255, nullable = false)
+    private String recipientEmail;
+
+    /**
+     * Nombre completo del destinatario para personalizar el mensaje.
+     */
+    @Column(name = "recipient_name", length = 255, nullable = false)
+    private String recipientName;
+
+    /**
+     * ID del pedido asociado a la notificación.
+     */
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    /**
+     * Monto asociado al evento notificado.
+     */
+    @Column(name = "amount", precision = 10, scale = 2, nullable = false)
+    private BigDecimal amount;
+
+    /**
+     * Mensaje o motivo a incluir en la notificación.
+     */
+    @Column(name = "message", length = 255, nullable = false)
+    private String message;
+
+    /**
+     * Estado de la notificación ("PENDING", "SENT", "FAILED").
+     */
+    @Column(name = "status", length = 20, nullable = false)
+    private String status = STATUS_PENDING;
+
+    /**
+     * Número de intentos de envío realizados.
+     */
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * Último error registrado al intentar el envío.
+     */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Fecha y hora de creación de la notificación.
+     */
+    @Column(name = "creation_date", nullable = false)
+    private ZonedDateTime creationDate = ZonedDateTime.now();
+
+    /**
+     * Fecha y hora en que la notificación fue enviada o descartada.
+     */
+    @Column(name = "processed_date")
+    private ZonedDateTime processedDate;
+}
@@ -1,13 +1,13 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -21,7 +21,10 @@ import java.util.UUID;
  *
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Consulta de los pedidos de un cliente (findByClientId)
+        @Index(name = "idx_orders_client_id", columnList = "client_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -31,8 +34,7 @@ public class Order {
      * Identificador único (UUID) del pedido.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
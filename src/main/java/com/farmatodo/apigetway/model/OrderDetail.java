@@ -1,13 +1,13 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.math.BigDecimal;
 import java.util.UUID;
 
@@ -31,8 +31,7 @@ public class OrderDetail {
      * Identificador único (UUID) del detalle del pedido.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
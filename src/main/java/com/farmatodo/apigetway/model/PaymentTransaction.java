@@ -1,13 +1,13 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.math.BigDecimal;
 import java.time.ZonedDateTime;
 import java.util.UUID;
@@ -16,7 +16,10 @@ import java.util.UUID;
  * Entidad que registra cada intento de transacción de pago asociado a un pedido {@link Order}.
  */
 @Entity
-@Table(name = "payment_transaction")
+@Table(name = "payment_transaction", indexes = {
+        // Resuelve MAX(attempts) por pedido leyendo una sola entrada del índice
+        @Index(name = "idx_payment_transaction_order_attempts", columnList = "order_id, attempts")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,8 +29,7 @@ public class PaymentTransaction {
      * Identificador único (UUID) de la transacción.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -1,13 +1,13 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
@@ -15,7 +15,10 @@ import java.util.UUID;
  * Entidad que representa un producto disponible en el inventario.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Permite recorrer la búsqueda paginada en orden de nombre e ID y detenerse al completar la página
+        @Index(name = "idx_products_name_id", columnList = "name, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,8 +28,7 @@ public class Product {
      * Identificador único (UUID) del producto.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -1,11 +1,11 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.*;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.util.UUID;
 
 /**
@@ -22,8 +22,7 @@ public class Role {
      * Identificador único (UUID) del rol.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
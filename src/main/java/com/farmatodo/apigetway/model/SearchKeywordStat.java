@@ -0,0 +1,69 @@
+package com.farmatodo.apigetway.model;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Entidad que acumula estadísticas por cliente y palabra clave normalizada.
+ *
+ * Se mantiene de forma incremental (upsert) desde el escritor de búsquedas, de modo
+ * que el historial de un cliente se consulta en proporción a sus palabras clave
+ * distintas y no al total de búsquedas registradas en {@code search_log}.
+ *
+ */
+@Entity
+@Table(name = "search_keyword_stat", indexes = {
+        @Index(name = "idx_search_keyword_stat_client_last_seen", columnList = "client_id, last_seen DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchKeywordStat {
+
+    /**
+     * Clave compuesta (cliente, palabra clave normalizada).
+     */
+    @EmbeddedId
+    private SearchKeywordStatId id;
+
+    /**
+     * Número total de veces que el cliente buscó la palabra clave.
+     */
+    @Column(name = "search_count", nullable = false)
+    private Long searchCount;
+
+    /**
+     * Fecha y hora de la búsqueda más reciente de la palabra clave.
+     */
+    @Column(name = "last_seen", nullable = false)
+    private ZonedDateTime lastSeen;
+
+    /**
+     * Clave primaria compuesta de {@link SearchKeywordStat}.
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchKeywordStatId implements Serializable {
+
+        /**
+         * ID del cliente que realizó las búsquedas.
+         */
+        @Column(name = "client_id", nullable = false)
+        private UUID clientId;
+
+        /**
+         * Palabra clave normalizada.
+         */
+        @Column(name = "keyword", length = 255, nullable = false)
+        private String keyword;
+    }
+}
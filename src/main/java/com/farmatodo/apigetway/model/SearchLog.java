@@ -1,22 +1,28 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
 /**
  * Entidad que registra las búsquedas realizadas por los usuarios en el sistema.
  * Esto es útil para análisis de comportamiento y tendencias.
+ *
+ * La tabla está particionada por mes sobre {@code query_date} y su clave primaria física es
+ * {@code (id, query_date)}; la crea la migración {@code V6__search_log_partitioning.sql} y
+ * {@link com.farmatodo.apigetway.service.searchlog.SearchLogPartitionManager} mantiene sus particiones.
  */
 @Entity
-@Table(name = "search_log")
+@Table(name = "search_log", indexes = {
+        @Index(name = "idx_search_log_client_date", columnList = "client_id, query_date DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -26,8 +32,7 @@ public class SearchLog {
      * Identificador único (UUID) del registro de búsqueda.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -48,6 +53,6 @@ public class SearchLog {
      * El cliente que realizó la búsqueda (puede ser nulo si la búsqueda es anónima).
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "client_id")
+    @JoinColumn(name = "client_id", foreignKey = @ForeignKey(name = "fk_search_log_client"))
     private Client client;
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.farmatodo.apigetway.model;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Entidad que almacena el resumen precalculado de las palabras clave más buscadas
+ * por ventana de tiempo (ej. "HOUR", "DAY").
+ *
+ * Se recalcula periódicamente a partir de {@link SearchTrendBucket}, de modo que
+ * la consulta del top-K solo lee K filas mediante el índice por ventana y conteo.
+ *
+ */
+@Entity
+@Table(name = "search_trend", indexes = {
+        @Index(name = "idx_search_trend_window_count", columnList = "window_name, search_count DESC")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchTrend {
+
+    /**
+     * Clave compuesta (ventana, palabra clave normalizada).
+     */
+    @EmbeddedId
+    private SearchTrendId id;
+
+    /**
+     * Conteo estimado de búsquedas de la palabra clave en la ventana.
+     */
+    @Column(name = "search_count", nullable = false)
+    private Long searchCount;
+
+    /**
+     * Fecha y hora en que se calculó el resumen.
+     */
+    @Column(name = "computed_at", nullable = false)
+    private ZonedDateTime computedAt;
+
+    /**
+     * Clave primaria compuesta de {@link SearchTrend}.
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchTrendId implements Serializable {
+
+        /**
+         * Nombre de la ventana de tiempo (ej. "HOUR", "DAY").
+         */
+        @Column(name = "window_name", length = 10, nullable = false)
+        private String windowName;
+
+        /**
+         * Palabra clave normalizada.
+         */
+        @Column(name = "keyword", length = 255, nullable = false)
+        private String keyword;
+    }
+}
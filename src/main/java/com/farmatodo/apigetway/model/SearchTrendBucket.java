@@ -0,0 +1,60 @@
+package com.farmatodo.apigetway.model;
+
+import jakarta.persistence.*;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Entidad que almacena los conteos parciales de búsquedas por intervalo de tiempo.
+ *
+ * Cada nodo vuelca periódicamente su resumen en memoria (Space-Saving) sumando sus
+ * conteos a los del intervalo correspondiente, de modo que la tabla contiene como
+ * máximo las palabras clave más frecuentes de cada intervalo.
+ *
+ */
+@Entity
+@Table(name = "search_trend_bucket")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchTrendBucket {
+
+    /**
+     * Clave compuesta (inicio del intervalo, palabra clave normalizada).
+     */
+    @EmbeddedId
+    private SearchTrendBucketId id;
+
+    /**
+     * Conteo estimado de búsquedas de la palabra clave en el intervalo.
+     */
+    @Column(name = "search_count", nullable = false)
+    private Long searchCount;
+
+    /**
+     * Clave primaria compuesta de {@link SearchTrendBucket}.
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SearchTrendBucketId implements Serializable {
+
+        /**
+         * Fecha y hora de inicio del intervalo.
+         */
+        @Column(name = "bucket_start", nullable = false)
+        private ZonedDateTime bucketStart;
+
+        /**
+         * Palabra clave normalizada.
+         */
+        @Column(name = "keyword", length = 255, nullable = false)
+        private String keyword;
+    }
+}
@@ -1,13 +1,13 @@
 package com.farmatodo.apigetway.model;
 
+import com.farmatodo.apigetway.model.id.UuidV7;
+
 import jakarta.persistence.*;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
-import org.hibernate.annotations.GenericGenerator;
-
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
@@ -20,6 +20,9 @@ import java.util.UUID;
 @Entity
 @Table(name = "tokenized_cards", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"token"})
+}, indexes = {
+        // Consulta de las tarjetas de un cliente (findByClient_Id)
+        @Index(name = "idx_tokenized_cards_client_id", columnList = "client_id")
 })
 @Data
 @NoArgsConstructor
@@ -30,8 +33,7 @@ public class TokenizedCard {
      * Identificador único (UUID) de la tarjeta tokenizada.
      */
     @Id
-    @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @UuidV7
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
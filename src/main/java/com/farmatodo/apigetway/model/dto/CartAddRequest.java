@@ -1,5 +1,6 @@
 package com.farmatodo.apigetway.model.dto;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
@@ -21,9 +22,10 @@ public class CartAddRequest {
     private UUID productId;
 
     /**
-     * La cantidad del producto que se desea añadir. Debe ser al menos 1.
+     * La cantidad del producto que se desea añadir. Debe estar entre 1 y 1000.
      */
     @Min(value = 1, message = "La cantidad debe ser al menos 1.")
+    @Max(value = 1000, message = "La cantidad no puede superar 1000.")
     @NotNull(message = "La cantidad es obligatoria.")
     private Integer quantity;
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta que representa una línea del carrito con los datos del producto,
+ * su importe y su disponibilidad.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineResponse {
+
+    /**
+     * ID único del ítem del carrito.
+     */
+    private UUID cartItemId;
+
+    /**
+     * ID único del producto.
+     */
+    private UUID productId;
+
+    /**
+     * Número de parte o SKU del producto.
+     */
+    private String productPartNumber;
+
+    /**
+     * Nombre del producto.
+     */
+    private String productName;
+
+    /**
+     * Cantidad de este producto en el carrito.
+     */
+    private Integer quantity;
+
+    /**
+     * Stock actual del producto.
+     */
+    private Integer stock;
+
+    /**
+     * Indica si el stock actual cubre la cantidad solicitada.
+     */
+    private boolean available;
+
+    /**
+     * Precio unitario del producto.
+     */
+    private BigDecimal unitPrice;
+
+    /**
+     * Importe de la línea (precio unitario por cantidad).
+     */
+    private BigDecimal lineTotal;
+
+    /**
+     * Constructor usado por la proyección de la consulta del carrito. El precio, el importe y
+     * la disponibilidad se completan en el servicio.
+     *
+     * @param cartItemId ID del ítem del carrito.
+     * @param productId ID del producto.
+     * @param productPartNumber Número de parte del producto.
+     * @param productName Nombre del producto.
+     * @param quantity Cantidad en el carrito.
+     * @param stock Stock actual del producto.
+     */
+    public CartLineResponse(UUID cartItemId, UUID productId, String productPartNumber, String productName,
+                            Integer quantity, Integer stock) {
+        this.cartItemId = cartItemId;
+        this.productId = productId;
+        this.productPartNumber = productPartNumber;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.stock = stock;
+    }
+}
@@ -0,0 +1,23 @@
+package com.farmatodo.apigetway.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO utilizado para reemplazar el contenido completo del carrito de compras del cliente.
+ */
+@Data
+public class CartReplaceRequest {
+
+    /**
+     * Los ítems del nuevo carrito. Una lista vacía vacía el carrito.
+     */
+    @NotNull(message = "La lista de ítems es obligatoria.")
+    @Size(max = 200, message = "El carrito no puede tener más de 200 productos.")
+    private List<@Valid @NotNull(message = "Los ítems no pueden ser nulos.") CartAddRequest> items;
+}
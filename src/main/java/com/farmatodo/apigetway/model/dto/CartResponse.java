@@ -0,0 +1,43 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta con el contenido completo del carrito de un cliente y sus totales.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartResponse {
+
+    /**
+     * ID del cliente propietario del carrito.
+     */
+    private UUID clientId;
+
+    /**
+     * Líneas del carrito, ordenadas por nombre de producto.
+     */
+    private List<CartLineResponse> items;
+
+    /**
+     * Suma de las cantidades de todas las líneas.
+     */
+    private Integer totalQuantity;
+
+    /**
+     * Importe total del carrito.
+     */
+    private BigDecimal totalAmount;
+
+    /**
+     * Indica si todas las líneas tienen stock suficiente.
+     */
+    private boolean allAvailable;
+}
@@ -1,5 +1,6 @@
 package com.farmatodo.apigetway.model.dto;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
@@ -12,9 +13,10 @@ import lombok.Data;
 @Data
 public class CartUpdateQuantityRequest {
     /**
-     * La nueva cantidad deseada para el producto. Un valor de 0 indica eliminación.
+     * La nueva cantidad deseada para el producto, como máximo 1000. Un valor de 0 indica eliminación.
      */
     @Min(value = 0, message = "La cantidad no puede ser negativa.")
+    @Max(value = 1000, message = "La cantidad no puede superar 1000.")
     @NotNull(message = "La cantidad es obligatoria.")
     private Integer quantity;
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO de respuesta para la búsqueda de productos filtrada por categoría, con el conteo
+ * de resultados por categoría (facetas).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchResponse {
+
+    /**
+     * Productos coincidentes, ordenados por nombre.
+     */
+    private List<ProductSummaryResponse> items;
+
+    /**
+     * Número total de productos que cumplen todos los filtros.
+     */
+    private Integer total;
+
+    /**
+     * Número de productos por categoría que cumplen la palabra clave y el stock mínimo,
+     * sin aplicar el filtro de categoría (ordenado de mayor a menor).
+     */
+    private Map<String, Integer> categoryFacets;
+}
@@ -0,0 +1,29 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el detalle de una fila rechazada durante la importación masiva de productos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportError {
+
+    /**
+     * Número de línea del archivo donde comienza la fila (la cabecera CSV es la línea 1).
+     */
+    private Long line;
+
+    /**
+     * Número de parte de la fila, si pudo leerse.
+     */
+    private String partNumber;
+
+    /**
+     * Motivo del rechazo.
+     */
+    private String message;
+}
@@ -0,0 +1,68 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO de respuesta con el progreso o el resultado de una importación masiva de productos.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReport {
+
+    /**
+     * ID de la importación.
+     */
+    private UUID importId;
+
+    /**
+     * Formato del archivo (CSV o NDJSON).
+     */
+    private String format;
+
+    /**
+     * Estado de la importación (RUNNING, COMPLETED o FAILED).
+     */
+    private String status;
+
+    /**
+     * Fecha y hora de inicio.
+     */
+    private ZonedDateTime startedAt;
+
+    /**
+     * Fecha y hora de finalización, o {@code null} si sigue en curso.
+     */
+    private ZonedDateTime finishedAt;
+
+    /**
+     * Número de filas leídas hasta el momento.
+     */
+    private Long processedRows;
+
+    /**
+     * Número de productos creados (se conoce al finalizar).
+     */
+    private Long insertedRows;
+
+    /**
+     * Número de filas rechazadas.
+     */
+    private Long rejectedRows;
+
+    /**
+     * Detalle de las filas rechazadas (limitado a las primeras del archivo).
+     */
+    private List<ProductImportError> errors;
+
+    /**
+     * Motivo del fallo si la importación no pudo completarse.
+     */
+    private String failureMessage;
+}
@@ -0,0 +1,32 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de respuesta para una página de la búsqueda de productos por palabra clave.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchPage {
+
+    /**
+     * Productos de la página.
+     */
+    private List<ProductSummaryResponse> items;
+
+    /**
+     * Cursor para solicitar la página siguiente, o {@code null} si no hay más resultados.
+     */
+    private String nextCursor;
+
+    /**
+     * Número aproximado de productos que coinciden con la búsqueda, calculado sobre el
+     * índice en memoria del catálogo (puede diferir ligeramente del total real).
+     */
+    private Integer estimatedTotal;
+}
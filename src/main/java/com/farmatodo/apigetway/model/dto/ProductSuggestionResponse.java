@@ -0,0 +1,31 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO de respuesta que representa una sugerencia de autocompletado de producto.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionResponse {
+
+    /**
+     * ID único del producto sugerido.
+     */
+    private UUID productId;
+
+    /**
+     * Número de parte o SKU del producto.
+     */
+    private String partNumber;
+
+    /**
+     * Nombre descriptivo del producto.
+     */
+    private String name;
+}
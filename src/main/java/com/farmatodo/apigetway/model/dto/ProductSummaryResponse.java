@@ -0,0 +1,56 @@
+package com.farmatodo.apigetway.model.dto;
+
+import com.farmatodo.apigetway.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO de respuesta con los datos esenciales de un producto para listados de búsqueda.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryResponse {
+
+    /**
+     * ID único del producto.
+     */
+    private UUID productId;
+
+    /**
+     * Número de parte o SKU del producto.
+     */
+    private String partNumber;
+
+    /**
+     * Nombre descriptivo del producto.
+     */
+    private String name;
+
+    /**
+     * Categoría a la que pertenece el producto.
+     */
+    private String category;
+
+    /**
+     * Cantidad actual en inventario.
+     */
+    private Integer stock;
+
+    /**
+     * Constructor que inicializa el DTO a partir de una entidad {@link Product}.
+     *
+     * @param product La entidad del producto de origen.
+     */
+    public ProductSummaryResponse(Product product) {
+        this.productId = product.getId();
+        this.partNumber = product.getPartNumber();
+        this.name = product.getName();
+        this.category = product.getCategory();
+        this.stock = product.getStock();
+    }
+}
@@ -0,0 +1,25 @@
+package com.farmatodo.apigetway.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de respuesta que representa una palabra clave popular y su conteo estimado
+ * de búsquedas dentro de una ventana de tiempo.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingKeywordResponse {
+
+    /**
+     * Palabra clave normalizada.
+     */
+    private String keyword;
+
+    /**
+     * Conteo estimado de búsquedas en la ventana consultada.
+     */
+    private Long searchCount;
+}
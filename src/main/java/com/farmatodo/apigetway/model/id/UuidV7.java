@@ -0,0 +1,20 @@
+package com.farmatodo.apigetway.model.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca el identificador de una entidad para generarse como UUID versión 7 (ordenado por
+ * tiempo) con {@link UuidV7Generator}.
+ *
+ * Reemplaza a {@code @GeneratedValue} + {@code @GenericGenerator}: no debe combinarse con ellos.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -1,8 +1,13 @@
 package com.farmatodo.apigetway.repository;
 
 import com.farmatodo.apigetway.model.CartItem;
+import com.farmatodo.apigetway.model.dto.CartItemResponse;
+import com.farmatodo.apigetway.model.dto.CartLineResponse;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,7 +17,7 @@ import java.util.UUID;
  * Repositorio para la entidad {@link CartItem}.
  * Proporciona métodos para acceder y gestionar los ítems dentro de los carritos de compra.
  */
-public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
+public interface CartItemRepository extends JpaRepository<CartItem, UUID>, CartItemRepositoryCustom {
 
     /**
      * Busca y retorna todos los ítems del carrito asociados a un cliente específico.
@@ -22,6 +27,28 @@ public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
      */
     List<CartItem> findByClient_Id(UUID clientId);
 
+    /**
+     * Obtiene los ítems del carrito de un cliente como DTOs, con el número de parte del
+     * producto resuelto en la misma consulta.
+     *
+     * @param clientId El ID único del cliente.
+     * @return Los ítems del carrito.
+     */
+    @Query("SELECT new com.farmatodo.apigetway.model.dto.CartItemResponse(c.id, c.client.id, p.id, p.partNumber, c.quantity) " +
+            "FROM CartItem c JOIN c.product p WHERE c.client.id = :clientId")
+    List<CartItemResponse> findItemsByClientId(@Param("clientId") UUID clientId);
+
+    /**
+     * Obtiene las líneas del carrito de un cliente con el nombre y el stock de cada producto,
+     * en una sola consulta.
+     *
+     * @param clientId El ID único del cliente.
+     * @return Las líneas del carrito, ordenadas por nombre de producto.
+     */
+    @Query("SELECT new com.farmatodo.apigetway.model.dto.CartLineResponse(c.id, p.id, p.partNumber, p.name, c.quantity, p.stock) " +
+            "FROM CartItem c JOIN c.product p WHERE c.client.id = :clientId ORDER BY p.name, p.id")
+    List<CartLineResponse> findLinesByClientId(@Param("clientId") UUID clientId);
+
     /**
      * Busca un ítem específico en el carrito de un cliente dado el ID del cliente y el ID del producto.
      *
@@ -33,4 +60,25 @@ public interface CartItemRepository extends JpaRepository<CartItem, UUID> {
      * @return Un {@link Optional} que contiene el {@link CartItem} si existe.
      */
     Optional<CartItem> findByClient_IdAndProduct_Id(UUID clientId, UUID productId);
-}
\ No newline at end of file
+
+    /**
+     * Elimina todos los ítems del carrito de un cliente con una sola sentencia.
+     *
+     * @param clientId El ID único del cliente.
+     * @return El número de ítems eliminados.
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.client.id = :clientId")
+    int deleteByClientId(@Param("clientId") UUID clientId);
+
+    /**
+     * Elimina un producto del carrito de un cliente con una sola sentencia.
+     *
+     * @param clientId El ID único del cliente.
+     * @param productId El ID único del producto.
+     * @return El número de ítems eliminados (0 o 1).
+     */
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.client.id = :clientId AND c.product.id = :productId")
+    int deleteByClientIdAndProductId(@Param("clientId") UUID clientId, @Param("productId") UUID productId);
+}
@@ -0,0 +1,51 @@
+package com.farmatodo.apigetway.repository;
+
+import com.farmatodo.apigetway.model.dto.CartItemResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Operaciones del carrito implementadas con SQL nativo, fuera de las consultas derivadas de
+ * Spring Data. Se combinan con {@link CartItemRepository} como fragmento de repositorio.
+ */
+public interface CartItemRepositoryCustom {
+
+    /**
+     * Añade una cantidad a un producto del carrito en una sola sentencia: crea el ítem si no
+     * existe o suma la cantidad si ya existe, sin condiciones de carrera entre peticiones
+     * concurrentes sobre el mismo producto.
+     *
+     * @param clientId ID del cliente propietario del carrito.
+     * @param productId ID del producto.
+     * @param quantity Cantidad a añadir.
+     * @return El ítem resultante, con el número de parte del producto.
+     * @throws org.springframework.dao.DataIntegrityViolationException Si el cliente o el producto no existen.
+     */
+    CartItemResponse upsertQuantity(UUID clientId, UUID productId, int quantity);
+
+    /**
+     * Fija la cantidad de un producto del carrito en una sola sentencia, creando el ítem si no existe.
+     *
+     * @param clientId ID del cliente propietario del carrito.
+     * @param productId ID del producto.
+     * @param quantity Nueva cantidad.
+     * @return El ítem resultante, con el número de parte del producto.
+     * @throws org.springframework.dao.DataIntegrityViolationException Si el cliente o el producto no existen.
+     */
+    CartItemResponse setQuantity(UUID clientId, UUID productId, int quantity);
+
+    /**
+     * Reemplaza el contenido completo del carrito: elimina los productos que no están en
+     * {@code quantities} y crea o actualiza el resto con dos sentencias (un {@code DELETE} y un
+     * {@code INSERT ... SELECT FROM unnest(...) ON CONFLICT DO UPDATE}), sin importar el número
+     * de ítems. Los productos inexistentes se omiten del resultado.
+     *
+     * @param clientId ID del cliente propietario del carrito.
+     * @param quantities Cantidad por ID de producto.
+     * @return Los ítems resultantes, con el número de parte de cada producto.
+     * @throws org.springframework.dao.DataIntegrityViolationException Si el cliente no existe.
+     */
+    List<CartItemResponse> replaceItems(UUID clientId, Map<UUID, Integer> quantities);
+}
@@ -0,0 +1,98 @@
+package com.farmatodo.apigetway.repository;
+
+import com.farmatodo.apigetway.model.dto.CartItemResponse;
+import com.farmatodo.apigetway.model.id.UuidV7Generator;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Implementación de {@link CartItemRepositoryCustom} con {@link JdbcTemplate}.
+ */
+@RequiredArgsConstructor
+public class CartItemRepositoryImpl implements CartItemRepositoryCustom {
+
+    /**
+     * Inserta el ítem o actualiza la cantidad del existente (restricción única {@code (client_id, product_id)})
+     * y retorna la fila resultante junto con el número de parte, en un único viaje a la base de datos.
+     * El marcador {@code %s} es la expresión de la nueva cantidad.
+     */
+    private static final String UPSERT_SQL_TEMPLATE = """
+            WITH upserted AS (
+                INSERT INTO cart_item (id, client_id, product_id, quantity, update_date)
+                VALUES (?, ?, ?, ?, now())
+                ON CONFLICT (client_id, product_id)
+                DO UPDATE SET quantity = %s, update_date = EXCLUDED.update_date
+                RETURNING id, client_id, product_id, quantity
+            )
+            SELECT u.id, u.client_id, u.product_id, p.part_number, u.quantity
+            FROM upserted u
+            JOIN products p ON p.id = u.product_id""";
+
+    private static final String ADD_QUANTITY_SQL = UPSERT_SQL_TEMPLATE.formatted("cart_item.quantity + EXCLUDED.quantity");
+
+    private static final String SET_QUANTITY_SQL = UPSERT_SQL_TEMPLATE.formatted("EXCLUDED.quantity");
+
+    /** Elimina los productos del carrito que no están en el arreglo (todos si está vacío). */
+    private static final String DELETE_OTHERS_SQL =
+            "DELETE FROM cart_item WHERE client_id = ? AND product_id <> ALL (CAST(? AS uuid[]))";
+
+    /** Crea o actualiza todos los ítems a partir de arreglos paralelos, omitiendo los productos inexistentes. */
+    private static final String REPLACE_SQL = """
+            WITH upserted AS (
+                INSERT INTO cart_item (id, client_id, product_id, quantity, update_date)
+                SELECT r.id, ?, r.product_id, r.quantity, now()
+                FROM unnest(CAST(? AS uuid[]), CAST(? AS uuid[]), CAST(? AS int[])) AS r(id, product_id, quantity)
+                JOIN products p ON p.id = r.product_id
+                ON CONFLICT (client_id, product_id)
+                DO UPDATE SET quantity = EXCLUDED.quantity, update_date = EXCLUDED.update_date
+                RETURNING id, client_id, product_id, quantity
+            )
+            SELECT u.id, u.client_id, u.product_id, p.part_number, u.quantity
+            FROM upserted u
+            JOIN products p ON p.id = u.product_id
+            ORDER BY p.part_number""";
+
+    private static final RowMapper<CartItemResponse> ROW_MAPPER = (rs, rowNum) -> new CartItemResponse(
+            rs.getObject("id", UUID.class),
+            rs.getObject("client_id", UUID.class),
+            rs.getObject("product_id", UUID.class),
+            rs.getString("part_number"),
+            rs.getInt("quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public CartItemResponse upsertQuantity(UUID clientId, UUID productId, int quantity) {
+        return jdbcTemplate.queryForObject(ADD_QUANTITY_SQL, ROW_MAPPER, UuidV7Generator.next(), clientId, productId, quantity);
+    }
+
+    @Override
+    public CartItemResponse setQuantity(UUID clientId, UUID productId, int quantity) {
+        return jdbcTemplate.queryForObject(SET_QUANTITY_SQL, ROW_MAPPER, UuidV7Generator.next(), clientId, productId, quantity);
+    }
+
+    @Override
+    public List<CartItemResponse> replaceItems(UUID clientId, Map<UUID, Integer> quantities) {
+        String[] ids = new String[quantities.size()];
+        String[] productIds = new String[quantities.size()];
+        int[] amounts = new int[quantities.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+            ids[i] = UuidV7Generator.next().toString();
+            productIds[i] = entry.getKey().toString();
+            amounts[i++] = entry.getValue();
+        }
+        jdbcTemplate.update(DELETE_OTHERS_SQL, clientId, productIds);
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(REPLACE_SQL, ROW_MAPPER, clientId, ids, productIds, amounts);
+    }
+}
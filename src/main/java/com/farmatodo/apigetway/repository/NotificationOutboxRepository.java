@@ -0,0 +1,31 @@
+package com.farmatodo.apigetway.repository;
+
+import com.farmatodo.apigetway.model.NotificationOutbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad {@link NotificationOutbox}.
+ * Permite reclamar lotes de notificaciones pendientes de forma segura entre varios nodos.
+ */
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, UUID> {
+
+    /**
+     * Reclama un lote de notificaciones pendientes, ordenadas por antigüedad.
+     *
+     * Utiliza {@code FOR UPDATE SKIP LOCKED}, por lo que las filas ya bloqueadas por otro
+     * nodo se omiten en lugar de esperar. Debe invocarse dentro de una transacción, que
+     * mantiene el bloqueo hasta que las notificaciones se marcan como procesadas.
+     *
+     * @param batchSize Número máximo de notificaciones a reclamar.
+     * @return Lista de {@link NotificationOutbox} bloqueadas para la transacción actual.
+     */
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = 'PENDING' " +
+            "ORDER BY creation_date LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> claimPendingBatch(@Param("batchSize") int batchSize);
+}
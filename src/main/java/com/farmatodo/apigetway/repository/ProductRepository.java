@@ -1,10 +1,14 @@
 package com.farmatodo.apigetway.repository;
 
 import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.model.dto.ProductSummaryResponse;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,14 +28,77 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     Optional<Product> findByPartNumber(String partNumber);
 
     /**
-     * Realiza una búsqueda de productos por palabra clave, comparando el término
-     * tanto en el número de parte como en el nombre del producto (case-insensitive).
+     * Obtiene la primera página de una búsqueda de productos por palabra clave, comparando el
+     * término en el número de parte y en el nombre (case-insensitive) y aplicando el stock mínimo.
+     * Proyecta directamente el DTO resumido, ordenado por nombre e ID.
      *
      * @param keyword La palabra clave de búsqueda.
-     * @return Una lista de {@link Product} que coinciden con la palabra clave.
+     * @param minStock Stock mínimo para que un producto sea visible.
+     * @param limit Número máximo de filas a leer.
+     * @return Los {@link ProductSummaryResponse} de la página.
      */
-    @Query("SELECT p FROM Product p WHERE " +
+    @Query("SELECT new com.farmatodo.apigetway.model.dto.ProductSummaryResponse(p.id, p.partNumber, p.name, p.category, p.stock) " +
+            "FROM Product p WHERE p.stock >= :minStock AND (" +
             "LOWER(p.partNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Product> findByKeyword(@Param("keyword") String keyword);
-}
\ No newline at end of file
+            "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+            "ORDER BY p.name, p.id")
+    List<ProductSummaryResponse> findPageByKeyword(@Param("keyword") String keyword,
+                                                   @Param("minStock") int minStock,
+                                                   Limit limit);
+
+    /**
+     * Obtiene la página de una búsqueda por palabra clave que sigue a la posición {@code (afterName, afterId)}
+     * en el orden por nombre e ID (paginación por conjunto de claves, sin OFFSET).
+     *
+     * @param keyword La palabra clave de búsqueda.
+     * @param minStock Stock mínimo para que un producto sea visible.
+     * @param afterName Nombre del último producto de la página anterior.
+     * @param afterId ID del último producto de la página anterior.
+     * @param limit Número máximo de filas a leer.
+     * @return Los {@link ProductSummaryResponse} de la página.
+     */
+    @Query("SELECT new com.farmatodo.apigetway.model.dto.ProductSummaryResponse(p.id, p.partNumber, p.name, p.category, p.stock) " +
+            "FROM Product p WHERE p.stock >= :minStock AND (" +
+            "LOWER(p.partNumber) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
+            "AND (p.name > :afterName OR (p.name = :afterName AND p.id > :afterId)) " +
+            "ORDER BY p.name, p.id")
+    List<ProductSummaryResponse> findPageByKeywordAfter(@Param("keyword") String keyword,
+                                                        @Param("minStock") int minStock,
+                                                        @Param("afterName") String afterName,
+                                                        @Param("afterId") UUID afterId,
+                                                        Limit limit);
+
+    /**
+     * Obtiene la instantánea de transacciones de la consulta en curso, en su forma textual
+     * ({@code xmin:xmax:xip}), para leer después los cambios confirmados tras ella.
+     *
+     * @return La instantánea actual.
+     */
+    @Query(value = "SELECT CAST(pg_current_snapshot() AS text)", nativeQuery = true)
+    String findCurrentSnapshot();
+
+    /**
+     * Obtiene los IDs de los productos creados, modificados o eliminados por las transacciones
+     * que no eran visibles en la instantánea indicada, según el registro {@code catalog_change}.
+     * Un {@code null} en la lista indica que se vació la tabla ({@code TRUNCATE}).
+     *
+     * @param snapshot Instantánea obtenida con {@link #findCurrentSnapshot()}.
+     * @return Los IDs afectados, sin repetir.
+     */
+    @Query(value = "SELECT DISTINCT u.product_id FROM catalog_change c " +
+            "LEFT JOIN LATERAL unnest(c.product_ids) AS u(product_id) ON true " +
+            "WHERE c.xid >= pg_snapshot_xmin(CAST(:snapshot AS pg_snapshot)) " +
+            "AND NOT pg_visible_in_snapshot(c.xid, CAST(:snapshot AS pg_snapshot))", nativeQuery = true)
+    List<UUID> findProductIdsChangedAfter(@Param("snapshot") String snapshot);
+
+    /**
+     * Elimina del registro {@code catalog_change} las filas anteriores a la fecha indicada.
+     *
+     * @param before Fecha límite (exclusiva).
+     * @return Número de filas eliminadas.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM catalog_change WHERE change_date < :before", nativeQuery = true)
+    int deleteCatalogChangesBefore(@Param("before") ZonedDateTime before);
+}
@@ -0,0 +1,46 @@
+package com.farmatodo.apigetway.repository;
+
+import com.farmatodo.apigetway.model.SearchKeywordStat;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositorio para la entidad {@link SearchKeywordStat}.
+ * Proporciona el historial de palabras clave de un cliente ordenado por recencia.
+ */
+public interface SearchKeywordStatRepository extends JpaRepository<SearchKeywordStat, SearchKeywordStat.SearchKeywordStatId> {
+
+    /**
+     * Recupera las palabras clave de un cliente, de la más reciente a la más antigua.
+     *
+     * @param clientId El ID único del cliente.
+     * @param pageable Límite de resultados a retornar.
+     * @return Una lista de palabras clave normalizadas.
+     */
+    @Query("SELECT s.id.keyword FROM SearchKeywordStat s WHERE s.id.clientId = :clientId ORDER BY s.lastSeen DESC")
+    List<String> findRecentKeywordsByClientId(@Param("clientId") UUID clientId, Pageable pageable);
+
+    /**
+     * Proyección con la popularidad global de una palabra clave.
+     */
+    interface KeywordPopularity {
+        String getKeyword();
+        Long getSearchCount();
+    }
+
+    /**
+     * Recupera las palabras clave más buscadas entre todos los clientes.
+     *
+     * @param limit Número máximo de palabras clave a retornar.
+     * @return Una lista de {@link KeywordPopularity} ordenada de mayor a menor conteo.
+     */
+    @Query(value = "SELECT keyword AS keyword, SUM(search_count) AS \"searchCount\" FROM search_keyword_stat " +
+            "GROUP BY keyword ORDER BY SUM(search_count) DESC LIMIT :limit", nativeQuery = true)
+    List<KeywordPopularity> findMostSearchedKeywords(@Param("limit") int limit);
+}
@@ -0,0 +1,29 @@
+package com.farmatodo.apigetway.repository;
+
+import com.farmatodo.apigetway.model.SearchTrend;
+import com.farmatodo.apigetway.model.dto.TrendingKeywordResponse;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Repositorio para la entidad {@link SearchTrend}.
+ * Permite consultar el top-K precalculado de palabras clave por ventana de tiempo.
+ */
+public interface SearchTrendRepository extends JpaRepository<SearchTrend, SearchTrend.SearchTrendId> {
+
+    /**
+     * Recupera las palabras clave más buscadas de una ventana, de mayor a menor conteo.
+     *
+     * @param windowName Nombre de la ventana (ej. "HOUR", "DAY").
+     * @param pageable Límite de resultados (K).
+     * @return Lista de {@link TrendingKeywordResponse}.
+     */
+    @Query("SELECT new com.farmatodo.apigetway.model.dto.TrendingKeywordResponse(t.id.keyword, t.searchCount) " +
+            "FROM SearchTrend t WHERE t.id.windowName = :windowName ORDER BY t.searchCount DESC")
+    List<TrendingKeywordResponse> findTopByWindow(@Param("windowName") String windowName, Pageable pageable);
+}
@@ -1,32 +1,35 @@
 package com.farmatodo.apigetway.service;
 
-import com.farmatodo.apigetway.model.CartItem;
 import com.farmatodo.apigetway.model.Client;
-import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.model.dto.CartAddRequest;
 import com.farmatodo.apigetway.model.dto.CartItemResponse;
-import com.farmatodo.apigetway.repository.CartItemRepository;
+import com.farmatodo.apigetway.model.dto.CartLineResponse;
+import com.farmatodo.apigetway.model.dto.CartResponse;
 import com.farmatodo.apigetway.repository.ClientRepository;
-import com.farmatodo.apigetway.repository.ProductRepository;
+import com.farmatodo.apigetway.service.cart.CartStore;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Servicio central para la gestión de la lógica de negocio del carrito de compras.
+ *
+ * El almacenamiento se delega en el {@link CartStore} configurado ({@code cart.store.mode}).
  */
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
-    private final CartItemRepository cartItemRepository;
+    private final CartStore cartStore;
     private final ClientRepository clientRepository;
-    private final ProductRepository productRepository;
 
     /**
      * Busca una entidad {@link Client} por su ID o lanza una excepción.
@@ -41,72 +44,133 @@ public class CartService {
     }
 
     /**
-     * Busca una entidad {@link Product} por su ID o lanza una excepción.
+     * Obtiene todos los ítems del carrito para un cliente específico.
      *
-     * @param productId ID del producto.
-     * @return La entidad {@link Product}.
-     * @throws IllegalArgumentException Si el producto no existe.
+     * @param clientId ID del cliente.
+     * @return Una lista de DTOs {@link CartItemResponse}.
      */
-    private Product findProductById(UUID productId) {
-        return productRepository.findById(productId)
-                .orElseThrow(() -> new IllegalArgumentException("Producto con ID " + productId + " no encontrado."));
-    }
+    @Transactional(readOnly = true)
+    public List<CartItemResponse> getCartItemsByClient(UUID clientId) {
+        findClientById(clientId); // Asegura que el cliente exista
 
-    /**
-     * Convierte una entidad {@link CartItem} a su DTO de respuesta.
-     *
-     * @param item La entidad de origen.
-     * @return El DTO {@link CartItemResponse}.
-     */
-    private CartItemResponse convertToResponse(CartItem item) {
-        return new CartItemResponse(item);
+        return cartStore.getItems(clientId);
     }
 
     /**
-     * Obtiene todos los ítems del carrito para un cliente específico.
+     * Obtiene el carrito completo del cliente con los datos de cada producto, los importes por
+     * línea y totales, y la disponibilidad según el stock actual.
+     *
+     * Las líneas se obtienen con una única consulta que une los ítems con sus productos; la
+     * existencia del cliente solo se verifica aparte cuando el carrito está vacío.
      *
      * @param clientId ID del cliente.
-     * @return Una lista de DTOs {@link CartItemResponse}.
+     * @return El DTO {@link CartResponse}.
+     * @throws IllegalArgumentException Si el cliente no existe.
      */
     @Transactional(readOnly = true)
-    public List<CartItemResponse> getCartItemsByClient(UUID clientId) {
-        findClientById(clientId); // Asegura que el cliente exista
+    public CartResponse getCart(UUID clientId) {
+        List<CartLineResponse> lines = cartStore.getLines(clientId);
+        if (lines.isEmpty() && !clientRepository.existsById(clientId)) {
+            throw new IllegalArgumentException("Cliente con ID " + clientId + " no encontrado.");
+        }
 
-        List<CartItem> cartItems = cartItemRepository.findByClient_Id(clientId);
+        int totalQuantity = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        boolean allAvailable = true;
+        for (CartLineResponse line : lines) {
+            line.setUnitPrice(ProductService.UNIT_PRICE);
+            line.setLineTotal(ProductService.UNIT_PRICE.multiply(BigDecimal.valueOf(line.getQuantity())));
+            line.setAvailable(line.getStock() >= line.getQuantity());
 
-        return cartItems.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+            totalQuantity += line.getQuantity();
+            totalAmount = totalAmount.add(line.getLineTotal());
+            allAvailable &= line.isAvailable();
+        }
+        return new CartResponse(clientId, lines, totalQuantity, totalAmount, allAvailable);
     }
 
     /**
      * Añade un producto al carrito o actualiza la cantidad si ya existe.
      *
+     * Con el almacenamiento {@code jdbc} se resuelve con una única sentencia
+     * {@code INSERT ... ON CONFLICT DO UPDATE}, por lo que dos peticiones concurrentes sobre el
+     * mismo producto suman ambas cantidades en lugar de chocar con la restricción única
+     * {@code (client_id, product_id)}.
+     *
      * @param clientId ID del cliente propietario del carrito.
      * @param productId ID del producto.
      * @param quantity Cantidad a añadir. Si el ítem ya existe, se suma a la cantidad actual.
      * @return El DTO del ítem del carrito guardado/actualizado.
+     * @throws IllegalArgumentException Si el cliente o el producto no existen.
      */
     @Transactional
     public CartItemResponse addOrUpdateItemInCart(UUID clientId, UUID productId, int quantity) {
-        CartItem savedItem = cartItemRepository.findByClient_IdAndProduct_Id(clientId, productId)
-                .map(existingItem -> {
-                    // Si ya existe, actualiza la cantidad
-                    existingItem.setQuantity(existingItem.getQuantity() + quantity);
-                    return cartItemRepository.save(existingItem);
-                })
-                .orElseGet(() -> {
-                    // Si no existe, crea un nuevo ítem
-                    Client client = findClientById(clientId);
-                    Product product = findProductById(productId);
-
-                    CartItem newItem = new CartItem();
-                    newItem.setClient(client);
-                    newItem.setProduct(product);
-                    newItem.setQuantity(quantity);
-                    return cartItemRepository.save(newItem);
-                });
-
-        return convertToResponse(savedItem);
+        return cartStore.addQuantity(clientId, productId, quantity);
+    }
+
+    /**
+     * Fija la cantidad de un producto del carrito, creándolo si no existe. Una cantidad de 0
+     * elimina el producto del carrito.
+     *
+     * @param clientId ID del cliente propietario del carrito.
+     * @param productId ID del producto.
+     * @param quantity Nueva cantidad (0 para eliminar).
+     * @return El DTO del ítem actualizado, o {@code null} si se eliminó.
+     * @throws IllegalArgumentException Si el cliente o el producto no existen.
+     */
+    @Transactional
+    public CartItemResponse setItemQuantity(UUID clientId, UUID productId, int quantity) {
+        if (quantity == 0) {
+            cartStore.remove(clientId, productId);
+            return null;
+        }
+        return cartStore.setQuantity(clientId, productId, quantity);
+    }
+
+    /**
+     * Elimina un producto del carrito.
+     *
+     * @param clientId ID del cliente propietario del carrito.
+     * @param productId ID del producto.
+     * @return {@code true} si el producto estaba en el carrito.
+     */
+    @Transactional
+    public boolean removeItemFromCart(UUID clientId, UUID productId) {
+        return cartStore.remove(clientId, productId);
+    }
+
+    /**
+     * Reemplaza el contenido completo del carrito por los ítems recibidos (por ejemplo, al
+     * sincronizar un carrito armado sin conexión). Los productos que no figuran en la lista se
+     * eliminan; el cambio se aplica con un conjunto fijo de sentencias en una transacción,
+     * independientemente del número de ítems.
+     *
+     * @param clientId ID del cliente propietario del carrito.
+     * @param items Ítems del nuevo carrito (una lista vacía lo vacía).
+     * @return Los DTOs de los ítems resultantes.
+     * @throws IllegalArgumentException Si el cliente o algún producto no existen, o si un producto está repetido.
+     */
+    @Transactional
+    public List<CartItemResponse> replaceCart(UUID clientId, List<CartAddRequest> items) {
+        findClientById(clientId); // Asegura que el cliente exista
+
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (CartAddRequest item : items) {
+            if (quantities.put(item.getProductId(), item.getQuantity()) != null) {
+                throw new IllegalArgumentException("El producto con ID " + item.getProductId() + " está repetido.");
+            }
+        }
+        return cartStore.replace(clientId, quantities);
+    }
+
+    /**
+     * Vacía el carrito de un cliente. Debe invocarse dentro de la transacción que consume el
+     * carrito (por ejemplo, la creación del pedido) para que ambos cambios sean atómicos.
+     *
+     * @param clientId ID del cliente.
+     */
+    @Transactional
+    public void clearCart(UUID clientId) {
+        cartStore.clear(clientId);
     }
-}
\ No newline at end of file
+}
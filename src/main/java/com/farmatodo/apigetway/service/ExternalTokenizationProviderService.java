@@ -1,6 +1,5 @@
 package com.farmatodo.apigetway.service;
 
-import com.farmatodo.apigetway.config.InitialDataLoader;
 import com.farmatodo.apigetway.model.dto.CardDataRequest;
 import com.farmatodo.apigetway.model.dto.TokenizationResult;
 
@@ -28,7 +27,7 @@ public class ExternalTokenizationProviderService {
     private final EncryptionService encryptionService;
     private final PreferenceService preferenceService;
 
-    private static final String TOKEN_REJECTION_RATE_KEY = InitialDataLoader.TOKEN_REJECTION_RATE;
+    private static final String TOKEN_REJECTION_RATE_KEY = PreferenceService.TOKEN_REJECTION_RATE;
 
     /**
      * Procesa la solicitud de tokenización, incluyendo validación, simulación de rechazo,
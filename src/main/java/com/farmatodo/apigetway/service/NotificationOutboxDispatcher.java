@@ -0,0 +1,224 @@
+package com.farmatodo.apigetway.service;
+
+import com.farmatodo.apigetway.config.AsyncConfig;
+import com.farmatodo.apigetway.model.NotificationOutbox;
+import com.farmatodo.apigetway.repository.NotificationOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Proceso programado que despacha las notificaciones pendientes del outbox.
+ *
+ * Cada ejecución reclama un lote con {@code FOR UPDATE SKIP LOCKED}, de modo que
+ * varios nodos pueden ejecutar el despachador en paralelo sin enviar dos veces la
+ * misma notificación. Los correos del lote se envían en paralelo sobre el ejecutor
+ * acotado {@code notificationExecutor}; las tareas solo devuelven el resultado del envío
+ * y el estado de cada notificación se actualiza en el hilo de la transacción. Los envíos
+ * fallidos se reintentan en ejecuciones posteriores hasta alcanzar el número máximo de
+ * intentos configurado.
+ *
+ * Una tarea que el ejecutor rechaza o descarta (según su política de rechazo), o que no
+ * empieza antes de {@code notification.outbox.queue-timeout-ms}, se considera no intentada:
+ * se anula para que ya no pueda enviarse y la notificación queda pendiente, sin consumir
+ * un intento, para la siguiente ejecución.
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationOutboxDispatcher {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationService notificationService;
+    @Qualifier(AsyncConfig.NOTIFICATION_EXECUTOR)
+    private final ThreadPoolTaskExecutor notificationExecutor;
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    @Value("${notification.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${notification.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    /** Tiempo máximo de espera para que el ejecutor empiece los envíos del lote. */
+    @Value("${notification.outbox.queue-timeout-ms:30000}")
+    private long queueTimeoutMs;
+
+    /**
+     * Reclama y envía un lote de notificaciones pendientes.
+     *
+     * El bloqueo de las filas se mantiene durante toda la transacción, por lo que el
+     * tamaño de lote debe ser acotado para no retener conexiones por tiempo prolongado.
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:5000}")
+    @Transactional
+    public void dispatchPending() {
+        List<NotificationOutbox> batch = outboxRepository.claimPendingBatch(batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Delivery> deliveries = batch.stream().map(this::submit).toList();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMs));
+        long sent = 0;
+        long skipped = 0;
+        for (Delivery delivery : deliveries) {
+            DeliveryResult result = delivery.await(deadline);
+            if (result == null) {
+                skipped++;
+            } else if (apply(delivery.notification(), result)) {
+                sent++;
+            }
+        }
+        log.info("📨 Outbox: {} de {} notificaciones enviadas en el lote ({} no intentadas).", sent, batch.size(), skipped);
+    }
+
+    /**
+     * Envía la notificación al ejecutor. La tarea solo realiza el envío si consigue
+     * reclamarlo antes de que el despachador lo anule.
+     *
+     * @param notification La notificación reclamada.
+     * @return El envío en curso.
+     */
+    private Delivery submit(NotificationOutbox notification) {
+        Delivery delivery = new Delivery(notification, new AtomicBoolean(), new CompletableFuture<>());
+        try {
+            notificationExecutor.execute(() -> {
+                if (delivery.started().compareAndSet(false, true)) {
+                    try {
+                        delivery.result().complete(send(notification));
+                    } catch (Error e) {
+                        // El despachador no debe quedar esperando un resultado que nunca llegará
+                        delivery.result().completeExceptionally(e);
+                        throw e;
+                    }
+                }
+            });
+        } catch (TaskRejectedException e) {
+            delivery.started().set(true);
+            delivery.result().complete(null);
+        }
+        return delivery;
+    }
+
+    /**
+     * Realiza el envío sin modificar la entidad (se ejecuta fuera del hilo de la transacción).
+     *
+     * @param notification La notificación reclamada.
+     * @return El resultado del envío.
+     */
+    private DeliveryResult send(NotificationOutbox notification) {
+        try {
+            if (NotificationOutbox.TYPE_PAYMENT_REJECTED.equals(notification.getEventType())) {
+                notificationService.sendPaymentRejectionEmail(notification);
+            } else {
+                throw new IllegalStateException("Tipo de notificación no soportado: " + notification.getEventType());
+            }
+            return DeliveryResult.SENT;
+        } catch (Exception e) {
+            return DeliveryResult.failed(e);
+        }
+    }
+
+    /**
+     * Actualiza el estado de una notificación según el resultado de su envío.
+     *
+     * @param notification La notificación reclamada.
+     * @param result El resultado del envío.
+     * @return {@code true} si la notificación fue enviada.
+     */
+    private boolean apply(NotificationOutbox notification, DeliveryResult result) {
+        notification.setAttempts(notification.getAttempts() + 1);
+        if (result.sent()) {
+            notification.setStatus(NotificationOutbox.STATUS_SENT);
+            notification.setLastError(null);
+            notification.setProcessedDate(ZonedDateTime.now());
+            return true;
+        }
+
+        String error = result.error();
+        notification.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (notification.getAttempts() >= maxAttempts) {
+            notification.setStatus(NotificationOutbox.STATUS_FAILED);
+            notification.setProcessedDate(ZonedDateTime.now());
+            log.error("Notificación {} descartada tras {} intentos: {}", notification.getId(), notification.getAttempts(), error, result.cause());
+        } else {
+            log.warn("Error al enviar la notificación {} (intento {}): {}", notification.getId(), notification.getAttempts(), error);
+        }
+        return false;
+    }
+
+    /**
+     * Resultado de un envío.
+     *
+     * @param sent Indica si el correo fue enviado.
+     * @param error Motivo del fallo, si no fue enviado.
+     * @param cause Excepción del fallo, si no fue enviado.
+     */
+    private record DeliveryResult(boolean sent, String error, Throwable cause) {
+        static final DeliveryResult SENT = new DeliveryResult(true, null, null);
+
+        static DeliveryResult failed(Throwable cause) {
+            return new DeliveryResult(false, cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Envío de una notificación en el ejecutor.
+     *
+     * @param notification La notificación reclamada.
+     * @param started Se marca cuando el envío empieza o se anula (lo que ocurra primero).
+     * @param result Resultado del envío; {@code null} si no se intentó.
+     */
+    private record Delivery(NotificationOutbox notification, AtomicBoolean started,
+                            CompletableFuture<DeliveryResult> result) {
+
+        /**
+         * Espera el resultado. Si el envío no ha empezado al llegar el plazo (tarea encolada,
+         * descartada o rechazada), se anula y se considera no intentado; si ya empezó, se espera
+         * a que termine (acotado por los tiempos de espera SMTP).
+         *
+         * @param deadline Plazo en {@link System#nanoTime()}.
+         * @return El resultado, o {@code null} si el envío no se intentó.
+         */
+        DeliveryResult await(long deadline) {
+            try {
+                return result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return started.compareAndSet(false, true) ? null : awaitStarted();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return started.compareAndSet(false, true) ? null : awaitStarted();
+            } catch (ExecutionException e) {
+                return DeliveryResult.failed(e.getCause());
+            }
+        }
+
+        private DeliveryResult awaitStarted() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                return DeliveryResult.failed(e.getCause());
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.farmatodo.apigetway.service;
 
 import com.farmatodo.apigetway.model.Client;
+import com.farmatodo.apigetway.model.NotificationOutbox;
+import com.farmatodo.apigetway.repository.NotificationOutboxRepository;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -13,8 +15,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -22,8 +24,9 @@ import java.util.UUID;
 /**
  * Servicio encargado de la gestión de notificaciones por correo electrónico.
  *
- * Utiliza la anotación {@code @Async} para ejecutar el envío de correos en un
- * hilo separado, evitando bloquear el hilo de la solicitud HTTP.
+ * Las notificaciones no se envían dentro de la solicitud HTTP: se registran en la
+ * tabla {@code notification_outbox} dentro de la transacción de negocio y son
+ * despachadas posteriormente por {@link NotificationOutboxDispatcher}.
  *
  */
 @Service
@@ -31,52 +34,71 @@ import java.util.UUID;
 public class NotificationService {
 
     private final JavaMailSender mailSender;
+    private final NotificationOutboxRepository outboxRepository;
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
     @Value("${spring.mail.username}")
     private String mailUsername;
 
     /**
-     * Envía un correo electrónico asíncrono notificando al cliente sobre el rechazo de un pago.
+     * Registra en el outbox un correo de rechazo de pago para el cliente.
      *
-     * @param client El cliente al que se le envía el correo.
+     * Se une a la transacción en curso, por lo que la notificación solo queda pendiente
+     * si la transacción que la origina confirma sus cambios.
+     *
+     * @param client El cliente al que se le enviará el correo.
      * @param orderId El ID del pedido afectado.
      * @param amount El monto del pago rechazado.
      * @param rejectionMessage El motivo del rechazo.
+     * @return La entidad {@link NotificationOutbox} registrada.
+     */
+    @Transactional
+    public NotificationOutbox queuePaymentRejectionEmail(Client client, UUID orderId, BigDecimal amount, String rejectionMessage) {
+        NotificationOutbox notification = new NotificationOutbox();
+        notification.setEventType(NotificationOutbox.TYPE_PAYMENT_REJECTED);
+        notification.setRecipientEmail(client.getEmail());
+        notification.setRecipientName(client.getFirstName() + " " + client.getFirstSurname());
+        notification.setOrderId(orderId);
+        notification.setAmount(amount);
+        notification.setMessage(rejectionMessage);
+
+        NotificationOutbox saved = outboxRepository.save(notification);
+        log.info("📬 Notificación de rechazo registrada en el outbox para el pedido {}", orderId);
+        return saved;
+    }
+
+    /**
+     * Envía de forma síncrona el correo de rechazo de pago descrito por una notificación del outbox.
+     *
+     * @param notification La notificación a enviar.
+     * @throws MessagingException Si ocurre un error al construir el mensaje MIME.
+     * @throws org.springframework.mail.MailException Si ocurre un error al enviar el correo.
      */
-    @Async
-    public void sendPaymentRejectionEmail(Client client, UUID orderId, BigDecimal amount, String rejectionMessage) {
-
-        try {
-            log.info("📧 Iniciando envío asíncrono de correo a: {}", client.getEmail());
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
-
-            String subject = "❌ Pago Rechazado para el Pedido #" + orderId.toString().substring(0, 8);
-            String body = String.format(
-                    "<!DOCTYPE html><html><body>" +
-                            "<h4>Estimado(a) %s %s,</h4>" +
-                            "<p>Su intento de pago para el **Pedido #%s** por un monto de <b>%s$</b> ha sido **RECHAZADO**.</p>" +
-                            "<p style='color: red;'>Motivo del rechazo: %s</p>" +
-                            "<p>Por favor, intente con otro método de pago o contacte a soporte.</p>" +
-                            "</body></html>",
-                    client.getFirstName(), client.getFirstSurname(), orderId, amount.toString(), rejectionMessage
-            );
-
-            helper.setFrom(mailUsername);
-            helper.setTo(client.getEmail());
-            helper.setSubject(subject);
-            helper.setText(body, true);
-
-            mailSender.send(message);
-
-            log.warn("🚨 EMAIL ENVIADO REALMENTE a {} con asunto: {}", client.getEmail(), subject);
-
-        } catch (MessagingException e) {
-            log.error("Error al crear el mensaje MIME para el pedido {}: {}", orderId, e.getMessage(), e);
-        } catch (Exception e) {
-            log.error("Error al enviar la notificación de rechazo de pago para el pedido {}: {}", orderId, e.getMessage(), e);
-        }
+    public void sendPaymentRejectionEmail(NotificationOutbox notification) throws MessagingException {
+        UUID orderId = notification.getOrderId();
+        log.info("📧 Iniciando envío de correo a: {}", notification.getRecipientEmail());
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+
+        String subject = "❌ Pago Rechazado para el Pedido #" + orderId.toString().substring(0, 8);
+        String body = String.format(
+                "<!DOCTYPE html><html><body>" +
+                        "<h4>Estimado(a) %s,</h4>" +
+                        "<p>Su intento de pago para el **Pedido #%s** por un monto de <b>%s$</b> ha sido **RECHAZADO**.</p>" +
+                        "<p style='color: red;'>Motivo del rechazo: %s</p>" +
+                        "<p>Por favor, intente con otro método de pago o contacte a soporte.</p>" +
+                        "</body></html>",
+                notification.getRecipientName(), orderId, notification.getAmount().toString(), notification.getMessage()
+        );
+
+        helper.setFrom(mailUsername);
+        helper.setTo(notification.getRecipientEmail());
+        helper.setSubject(subject);
+        helper.setText(body, true);
+
+        mailSender.send(message);
+
+        log.warn("🚨 EMAIL ENVIADO REALMENTE a {} con asunto: {}", notification.getRecipientEmail(), subject);
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,14 @@
 package com.farmatodo.apigetway.service;
 
-import com.farmatodo.apigetway.config.InitialDataLoader;
 import com.farmatodo.apigetway.model.*;
 import com.farmatodo.apigetway.model.dto.*;
 import com.farmatodo.apigetway.repository.PaymentTransactionRepository;
-import com.farmatodo.apigetway.repository.CartItemRepository;
 import com.farmatodo.apigetway.repository.ClientRepository;
 import com.farmatodo.apigetway.repository.OrderRepository;
 import com.farmatodo.apigetway.repository.TokenizedCardRepository;
 import com.farmatodo.apigetway.service.exception.PaymentRejectionException;
+import com.farmatodo.apigetway.service.payment.PaymentProcessor;
+import com.farmatodo.apigetway.service.payment.PaymentResult;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,7 +17,6 @@ import java.time.ZonedDateTime;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,7 +29,6 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final CartItemRepository cartItemRepository;
     private final ClientRepository clientRepository;
     private final TokenizedCardRepository tokenizedCardRepository;
     private final PaymentTransactionRepository paymentTransactionRepository;
@@ -38,9 +36,9 @@ public class OrderService {
     private final ProductService productService;
     private final PreferenceService preferenceService;
     private final NotificationService notificationService;
+    private final PaymentProcessor paymentProcessor;
 
-    private static final String PAYMENT_REJECTION_RATE_KEY = InitialDataLoader.PAYMENT_REJECTION_RATE;
-    private static final String PAYMENT_MAX_ATTEMPTS_KEY = InitialDataLoader.PAYMENT_MAX_ATTEMPTS;
+    private static final String PAYMENT_MAX_ATTEMPTS_KEY = PreferenceService.PAYMENT_MAX_ATTEMPTS;
 
     /**
      * Busca un cliente por ID o lanza una excepción.
@@ -106,8 +104,9 @@ public class OrderService {
     /**
      * Procesa el pago de un pedido existente.
      *
-     * Incluye chequeos de intentos máximos, simulación de rechazo (basado en preferencia)
-     * y, en caso de rechazo, notifica al cliente y bloquea el pedido si se supera el límite.
+     * Incluye chequeos de intentos máximos, la autorización a través del {@link PaymentProcessor}
+     * configurado y, en caso de rechazo o tiempo de espera agotado, notifica al cliente
+     * y bloquea el pedido si se supera el límite.
      *
      * @param orderId ID del pedido a pagar.
      * @param clientId ID del cliente que intenta pagar.
@@ -140,23 +139,25 @@ public class OrderService {
             throw new IllegalStateException("El pedido ha sido bloqueado por sobrepasar la cantidad de intentos de pago.");
         }
 
-        // 2. Simulación de pago
+        // 2. Autorización con el procesador de pagos
         String transactionStatus;
         UUID transactionUuid = UUID.randomUUID();
-        Integer rejectionRate = preferenceService.getPreferenceValueAsInteger(PAYMENT_REJECTION_RATE_KEY);
-        int randomNumber = new Random().nextInt(100) + 1;
+        PaymentResult paymentResult = paymentProcessor.authorize(
+                order.getId(), order.getTokenizedCard().getId(), order.getTotalAmount());
 
-        if (randomNumber <= rejectionRate) {
-            // RECHAZO
-            transactionStatus = "REJECTED";
-            final String rejectionMessage = "El servicio de pago ha rechazado su transaccion, valide los datos ingresados.";
+        if (!paymentResult.isApproved()) {
+            // RECHAZO (o tiempo de espera agotado)
+            transactionStatus = paymentResult.getOutcome() == PaymentResult.Outcome.TIMEOUT ? "TIMEOUT" : "REJECTED";
+            final String rejectionMessage = paymentResult.getOutcome() == PaymentResult.Outcome.TIMEOUT
+                    ? "El servicio de pago no respondió a tiempo, intente nuevamente más tarde."
+                    : "El servicio de pago ha rechazado su transaccion, valide los datos ingresados.";
 
             PaymentTransaction rejectedTransaction = createPaymentTransaction(order, transactionStatus, transactionUuid, currentAttempt);
             paymentTransactionRepository.save(rejectedTransaction);
 
-            // 3. Notificación y bloqueo final
+            // 3. Notificación (vía outbox, en esta misma transacción) y bloqueo final
             Client clientForEmail = findClientById(clientId);
-            notificationService.sendPaymentRejectionEmail(clientForEmail, orderId, order.getTotalAmount(), rejectionMessage);
+            notificationService.queuePaymentRejectionEmail(clientForEmail, orderId, order.getTotalAmount(), rejectionMessage);
 
             if (currentAttempt == maxAllowedAttempts) {
                 order.setIsBlockedForPayment(true);
@@ -222,12 +223,11 @@ public class OrderService {
         Client client = findClientById(clientId);
 
         BigDecimal totalAmount = BigDecimal.ZERO;
-        List<CartItem> itemsToDelete = cartItemRepository.findByClient_Id(clientId); // Para borrado posterior
 
         List<OrderDetail> orderDetails = cartItemsResponse.stream()
                 .map(itemResponse -> {
                     Product product = findProductById(itemResponse.getProductId());
-                    BigDecimal unitPrice = BigDecimal.valueOf(10.00); // Precio fijo/simulado
+                    BigDecimal unitPrice = ProductService.UNIT_PRICE;
 
                     OrderDetail detail = new OrderDetail();
                     detail.setProduct(product);
@@ -258,7 +258,7 @@ public class OrderService {
         savedOrder = orderRepository.save(savedOrder);
 
         // 3. Vaciar el carrito
-        cartItemRepository.deleteAll(itemsToDelete);
+        cartService.clearCart(clientId);
 
         // 4. Mapear respuesta
         List<OrderResponse.OrderItemSummary> itemSummaries = savedOrder.getDetails().stream()
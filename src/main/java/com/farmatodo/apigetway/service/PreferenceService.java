@@ -6,21 +6,53 @@ import com.farmatodo.apigetway.repository.SystemPreferenceRepository;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Servicio encargado de la gestión de las preferencias de configuración dinámica
  * del sistema.
+ *
+ * Los valores iniciales de las preferencias se crean con las migraciones de esquema
+ * ({@code db/migration}).
  */
 @Service
 @RequiredArgsConstructor
 public class PreferenceService {
 
+    /** Clave de preferencia para la tasa de rechazo simulada de pagos. */
+    public static final String PAYMENT_REJECTION_RATE = "payment.rejection_rate";
+    /** Clave de preferencia para el stock mínimo requerido para la visibilidad de productos. */
+    public static final String PRODUCT_MIN_STOCK = "product.min_stock_visibility";
+    /** Clave de preferencia para el número máximo de reintentos de pago fallido. */
+    public static final String PAYMENT_MAX_ATTEMPTS = "payment.max_attempts";
+    /** Clave de preferencia para la tasa de rechazo simulada de tokenización de tarjetas. */
+    public static final String TOKEN_REJECTION_RATE = "tokencard.rejection_rate";
+    /** Clave de preferencia para los meses de retención de las particiones de {@code search_log}. */
+    public static final String SEARCH_LOG_RETENTION_MONTHS = "searchlog.retention_months";
+
     private final SystemPreferenceRepository preferenceRepository;
 
+    /** Valores enteros leídos recientemente, para las rutas de lectura muy frecuentes. */
+    private final Map<String, CachedInteger> integerCache = new ConcurrentHashMap<>();
+
+    @Value("${preference.cache.ttl-ms:5000}")
+    private long cacheTtlMs;
+
+    /**
+     * Valor entero en caché junto con su instante de expiración.
+     *
+     * @param value Valor de la preferencia.
+     * @param expiresAtMs Instante de expiración en milisegundos.
+     */
+    private record CachedInteger(int value, long expiresAtMs) {
+    }
+
     /**
      * Busca una preferencia por su clave.
      *
@@ -71,6 +103,7 @@ public class PreferenceService {
         existingPref.setPrefValue(request.getPrefValue());
         existingPref.setDataType(request.getDataType());
         existingPref.setUpdateDate(ZonedDateTime.now());
+        integerCache.remove(key);
 
         return preferenceRepository.save(existingPref);
     }
@@ -93,4 +126,23 @@ public class PreferenceService {
             );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene el valor entero de una preferencia desde una caché local de vida corta
+     * ({@code preference.cache.ttl-ms}). Pensado para rutas de lectura muy frecuentes
+     * (por ejemplo, el autocompletado) que toleran unos segundos de retraso tras un cambio.
+     *
+     * @param key Clave de la preferencia.
+     * @return El valor de la preferencia como entero.
+     * @throws IllegalArgumentException Si la preferencia no existe o su valor no es un entero válido.
+     */
+    public int getCachedPreferenceValueAsInteger(String key) {
+        long now = System.currentTimeMillis();
+        CachedInteger cached = integerCache.get(key);
+        if (cached == null || cached.expiresAtMs() <= now) {
+            cached = new CachedInteger(getPreferenceValueAsInteger(key), now + cacheTtlMs);
+            integerCache.put(key, cached);
+        }
+        return cached.value();
+    }
+}
@@ -1,16 +1,33 @@
 package com.farmatodo.apigetway.service;
 
-import com.farmatodo.apigetway.config.InitialDataLoader;
 import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.model.dto.FacetedSearchResponse;
+import com.farmatodo.apigetway.model.dto.ProductSearchPage;
+import com.farmatodo.apigetway.model.dto.ProductSuggestionResponse;
+import com.farmatodo.apigetway.model.dto.ProductSummaryResponse;
 import com.farmatodo.apigetway.repository.ProductRepository;
+import com.farmatodo.apigetway.service.catalog.ProductChangedEvent;
+import com.farmatodo.apigetway.service.catalog.ProductColumnarStore;
+import com.farmatodo.apigetway.service.catalog.ProductFuzzyIndex;
+import com.farmatodo.apigetway.service.catalog.ProductIndexRefresher;
+import com.farmatodo.apigetway.service.catalog.ProductSearchCache;
+import com.farmatodo.apigetway.service.catalog.ProductSearchCursor;
+import com.farmatodo.apigetway.service.catalog.ProductSuggestIndex;
+import com.farmatodo.apigetway.service.searchlog.KeywordNormalizer;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,7 +40,22 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final PreferenceService preferenceService;
-    private static final String PRODUCT_MIN_STOCK_KEY = InitialDataLoader.PRODUCT_MIN_STOCK;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductFuzzyIndex productFuzzyIndex;
+    private final ProductColumnarStore productColumnarStore;
+    private final ProductIndexRefresher productIndexRefresher;
+    private final ProductSearchCache productSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private static final String PRODUCT_MIN_STOCK_KEY = PreferenceService.PRODUCT_MIN_STOCK;
+
+    /** Número máximo de productos por página de la búsqueda por palabra clave. */
+    public static final int MAX_SEARCH_RESULTS = 100;
+    /** Número máximo de sugerencias retornadas por el autocompletado. */
+    public static final int MAX_SUGGESTIONS = 20;
+    /** Número máximo de productos retornados por la búsqueda con facetas. */
+    public static final int MAX_FACETED_RESULTS = 100;
+    /** Precio unitario fijo/simulado de los productos (el catálogo aún no registra precios). */
+    public static final BigDecimal UNIT_PRICE = new BigDecimal("10.00");
 
     /**
      * Busca un producto por su ID.
@@ -39,21 +71,114 @@ public class ProductService {
     }
 
     /**
-     * Realiza una búsqueda de productos por palabra clave, aplicando un filtro
+     * Obtiene la ETag de las respuestas de búsqueda de productos.
+     *
+     * Combina la etiqueta del catálogo indexado (el resumen de su contenido) con el stock
+     * mínimo de visibilidad, de modo que cambia cuando los índices incorporan un cambio en los
+     * datos de búsqueda de algún producto, sea cual sea su fecha, o al modificarse la preferencia. Como la respuesta de una misma URL es idéntica byte a byte
+     * mientras ninguno de los dos cambie, la ETag es fuerte.
+     *
+     * @return La ETag entre comillas.
+     */
+    public String getSearchResultsETag() {
+        int minStock = preferenceService.getCachedPreferenceValueAsInteger(PRODUCT_MIN_STOCK_KEY);
+        return "\"" + productIndexRefresher.getCatalogTag() + "-" + minStock + "\"";
+    }
+
+    /**
+     * Realiza una búsqueda paginada de productos por palabra clave, aplicando un filtro
      * de visibilidad basado en el stock mínimo configurado en las preferencias del sistema.
      *
+     * Las páginas se recorren por conjunto de claves sobre {@code (nombre, id)}, de modo que
+     * cada página lee como máximo {@code limit + 1} filas. El total se estima sobre la
+     * instantánea en memoria {@link ProductColumnarStore} en lugar de ejecutar un {@code COUNT(*)}.
+     * La palabra clave se normaliza antes de consultar, y la primera página se obtiene de
+     * {@link ProductSearchCache}, compartida por todos los clientes que repiten la búsqueda.
+     *
      * @param keyword Palabra clave de búsqueda.
-     * @return Lista de productos que coinciden y cumplen con el stock mínimo.
+     * @param cursor Cursor de la página anterior, o {@code null} para la primera página.
+     * @param limit Número máximo de productos por página (entre 1 y {@value #MAX_SEARCH_RESULTS}).
+     * @return El {@link ProductSearchPage} con los productos, el cursor siguiente y el total estimado.
+     * @throws IllegalArgumentException Si el cursor no es válido.
      */
     @Transactional(readOnly = true)
-    public List<Product> searchProductsByKeyword(String keyword) {
-        Integer minStock = preferenceService.getPreferenceValueAsInteger(PRODUCT_MIN_STOCK_KEY);
-        List<Product> matchedProducts = productRepository.findByKeyword(keyword);
+    public ProductSearchPage searchProducts(String keyword, String cursor, int limit) {
+        int minStock = preferenceService.getCachedPreferenceValueAsInteger(PRODUCT_MIN_STOCK_KEY);
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+        String normalized = KeywordNormalizer.normalize(keyword);
+
+        // Se lee una fila adicional para saber si existe una página siguiente
+        List<ProductSummaryResponse> rows;
+        if (cursor == null || cursor.isBlank()) {
+            // La primera página se sirve desde la caché, que guarda las filas para el límite máximo
+            rows = productSearchCache.getOrLoad(normalized, minStock,
+                    () -> productRepository.findPageByKeyword(normalized, minStock, Limit.of(MAX_SEARCH_RESULTS + 1)));
+            rows = rows.subList(0, Math.min(rows.size(), boundedLimit + 1));
+        } else {
+            ProductSearchCursor after = ProductSearchCursor.decode(cursor);
+            rows = productRepository.findPageByKeywordAfter(normalized, minStock, after.name(), after.id(), Limit.of(boundedLimit + 1));
+        }
+
+        String nextCursor = null;
+        if (rows.size() > boundedLimit) {
+            rows = rows.subList(0, boundedLimit);
+            ProductSummaryResponse last = rows.get(boundedLimit - 1);
+            nextCursor = new ProductSearchCursor(last.getName(), last.getProductId()).encode();
+        }
+        int estimatedTotal = productColumnarStore.countMatches(normalized, minStock);
+        return new ProductSearchPage(new ArrayList<>(rows), nextCursor, estimatedTotal);
+    }
+
+    /**
+     * Realiza una búsqueda de productos tolerante a errores tipográficos, aplicando el mismo
+     * filtro de visibilidad por stock mínimo que la búsqueda exacta.
+     *
+     * Se resuelve sobre el índice en memoria {@link ProductFuzzyIndex}: cada palabra de la
+     * consulta coincide con las palabras del nombre o el número de parte a una distancia de
+     * edición acotada, y los resultados se ordenan por relevancia. Al no seguir el orden por
+     * nombre, retorna una única página sin cursor.
+     *
+     * @param keyword Palabra clave de búsqueda.
+     * @param limit Número máximo de productos a retornar (entre 1 y {@value #MAX_SEARCH_RESULTS}).
+     * @return El {@link ProductSearchPage} con los productos, del más al menos relevante.
+     */
+    public ProductSearchPage searchProductsFuzzy(String keyword, int limit) {
+        int minStock = preferenceService.getCachedPreferenceValueAsInteger(PRODUCT_MIN_STOCK_KEY);
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+        ProductFuzzyIndex.SearchResult result = productFuzzyIndex.search(keyword, minStock, boundedLimit);
+        List<ProductSummaryResponse> items = result.products().stream()
+                .map(ProductSummaryResponse::new)
+                .collect(Collectors.toList());
+        return new ProductSearchPage(items, null, result.total());
+    }
+
+    /**
+     * Busca productos por palabra clave (opcional) y categorías, aplicando el filtro de visibilidad
+     * por stock mínimo, y calcula el número de coincidencias por categoría.
+     *
+     * Se resuelve sobre la instantánea columnar {@link ProductColumnarStore} mediante
+     * intersecciones de bitsets, sin consultar la base de datos.
+     *
+     * @param keyword Palabra clave de búsqueda (puede ser {@code null} para listar por categoría).
+     * @param categories Categorías a incluir (vacío o {@code null} para no filtrar).
+     * @param limit Número máximo de productos a retornar (entre 1 y {@value #MAX_FACETED_RESULTS}).
+     * @return El {@link FacetedSearchResponse} con los productos, el total y las facetas.
+     */
+    public FacetedSearchResponse searchProductsFaceted(String keyword, List<String> categories, int limit) {
+        int minStock = preferenceService.getCachedPreferenceValueAsInteger(PRODUCT_MIN_STOCK_KEY);
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_FACETED_RESULTS);
 
-        // Filtrar productos cuya cantidad de stock sea igual o mayor al mínimo configurado
-        return matchedProducts.stream()
-                .filter(p -> p.getStock() >= minStock)
+        ProductColumnarStore.QueryResult result = productColumnarStore.query(keyword, categories, minStock, boundedLimit);
+
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        result.categoryCounts().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> facets.put(entry.getKey(), entry.getValue()));
+
+        List<ProductSummaryResponse> items = result.products().stream()
+                .map(ProductSummaryResponse::new)
                 .collect(Collectors.toList());
+        return new FacetedSearchResponse(items, result.total(), facets);
     }
 
     /**
@@ -69,6 +194,24 @@ public class ProductService {
             throw new IllegalArgumentException("El número de parte " + product.getPartNumber() + " ya existe.");
         }
         product.setCreationDate(ZonedDateTime.now());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Obtiene sugerencias de autocompletado para un prefijo sobre el nombre y el número de parte.
+     *
+     * Se resuelve sobre el índice en memoria {@link ProductSuggestIndex}, sin consultar la base
+     * de datos: el stock mínimo de visibilidad se lee de la caché de preferencias.
+     *
+     * @param prefix Texto escrito por el usuario.
+     * @param limit Número máximo de sugerencias (entre 1 y {@value #MAX_SUGGESTIONS}).
+     * @return Lista de {@link ProductSuggestionResponse} ordenada por popularidad de búsqueda.
+     */
+    public List<ProductSuggestionResponse> suggestProducts(String prefix, int limit) {
+        int minStock = preferenceService.getCachedPreferenceValueAsInteger(PRODUCT_MIN_STOCK_KEY);
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_SUGGESTIONS);
+        return productSuggestIndex.suggest(prefix, minStock, boundedLimit);
     }
 }
\ No newline at end of file
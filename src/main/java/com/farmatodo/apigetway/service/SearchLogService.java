@@ -1,81 +1,95 @@
 package com.farmatodo.apigetway.service;
 
-import com.farmatodo.apigetway.model.Client;
-import com.farmatodo.apigetway.model.SearchLog;
+import com.farmatodo.apigetway.model.dto.TrendingKeywordResponse;
 import com.farmatodo.apigetway.repository.ClientRepository;
-import com.farmatodo.apigetway.repository.SearchLogRepository;
+import com.farmatodo.apigetway.repository.SearchKeywordStatRepository;
+import com.farmatodo.apigetway.repository.SearchTrendRepository;
+import com.farmatodo.apigetway.service.searchlog.SearchLogWriter;
+import com.farmatodo.apigetway.service.searchlog.TrendWindow;
+import com.farmatodo.apigetway.service.searchlog.TrendingKeywordTracker;
 
 import lombok.RequiredArgsConstructor;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.ZonedDateTime;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
 
 
 /**
- * Servicio encargado del registro asíncrono de las búsquedas realizadas por los usuarios.
+ * Servicio encargado del registro de las búsquedas realizadas por los usuarios.
  *
- * Utiliza {@code @Async} para garantizar que el registro de búsqueda no ralentice
- * la respuesta principal de la API.
+ * El registro no accede a la base de datos en el hilo de la solicitud: los eventos se
+ * publican en el búfer en memoria de {@link SearchLogWriter}, que los persiste por lotes,
+ * y alimentan el resumen de palabras clave populares de {@link TrendingKeywordTracker}.
  *
  */
 @Service
 @RequiredArgsConstructor
 public class SearchLogService {
 
-    private final SearchLogRepository searchLogRepository;
+    private final SearchKeywordStatRepository searchKeywordStatRepository;
     private final ClientRepository clientRepository;
-    private static final Logger log = LoggerFactory.getLogger(SearchLogService.class);
+    private final SearchLogWriter searchLogWriter;
+    private final TrendingKeywordTracker trendingKeywordTracker;
+    private final SearchTrendRepository searchTrendRepository;
 
     /**
-     * Registra una búsqueda de manera asíncrona.
+     * Registra una búsqueda publicándola en el búfer del escritor por lotes.
+     *
+     * Nunca bloquea: si el búfer está saturado, el evento se descarta y se contabiliza.
      *
      * @param clientId ID del cliente que realizó la búsqueda (puede ser {@code null} si es anónimo).
      * @param keyword La palabra clave que se buscó.
      */
-    @Async
-    @Transactional
     public void logSearch(UUID clientId, String keyword) {
-        try {
-            SearchLog searchLog = new SearchLog();
-            searchLog.setSearchKeyword(keyword);
-            searchLog.setQueryDate(ZonedDateTime.now());
-
-            if (clientId != null) {
-                // Se busca al cliente para establecer la relación, si existe
-                Optional<Client> clientOpt = clientRepository.findById(clientId);
-                clientOpt.ifPresent(searchLog::setClient);
-            }
-
-            searchLogRepository.save(searchLog);
-            log.info("📝 Log de búsqueda asíncrono guardado para keyword: {}", keyword);
-        } catch (Exception e) {
-            log.error("Error al guardar el log de búsqueda de manera asíncrona: {}", e.getMessage(), e);
-            // La excepción es loggeada, pero no relanzada debido a la naturaleza asíncrona.
-        }
+        searchLogWriter.append(clientId, keyword);
+        trendingKeywordTracker.record(keyword);
     }
 
+    /** Número máximo de palabras clave retornadas en el historial. */
+    public static final int MAX_HISTORY_LIMIT = 200;
+    /** Número máximo de palabras clave populares retornadas por ventana. */
+    public static final int MAX_TRENDING_LIMIT = 100;
+
     /**
-     * Obtiene una lista de todas las palabras clave de búsqueda únicas que ha utilizado un cliente.
+     * Obtiene las palabras clave de búsqueda únicas (normalizadas) de un cliente, de la más
+     * reciente a la más antigua.
+     *
+     * Se consulta la tabla agregada {@code search_keyword_stat}, por lo que el costo es
+     * proporcional al número de palabras clave distintas y no al total de búsquedas.
      *
      * @param clientId ID del cliente.
+     * @param limit Número máximo de palabras clave a retornar (entre 1 y {@value #MAX_HISTORY_LIMIT}).
      * @return Lista de strings con las palabras clave únicas.
      * @throws IllegalArgumentException Si el cliente no existe.
      */
     @Transactional(readOnly = true)
-    public List<String> getUniqueSearchKeywordsByClient(UUID clientId) {
+    public List<String> getUniqueSearchKeywordsByClient(UUID clientId, int limit) {
         // Validación: Asegurar que el cliente existe antes de consultar
         if (!clientRepository.existsById(clientId)) {
             throw new IllegalArgumentException("Cliente con ID " + clientId + " no encontrado.");
         }
-        return searchLogRepository.findUniqueKeywordsByClientId(clientId);
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_HISTORY_LIMIT);
+        return searchKeywordStatRepository.findRecentKeywordsByClientId(clientId, PageRequest.of(0, boundedLimit));
+    }
+
+    /**
+     * Obtiene las palabras clave más buscadas por todos los usuarios en una ventana de tiempo.
+     *
+     * Lee el resumen precalculado {@code search_trend}, por lo que solo se recorren
+     * {@code limit} filas. Los conteos son estimaciones (cotas superiores) y se actualizan
+     * con la frecuencia del volcado periódico.
+     *
+     * @param window Ventana de tiempo a consultar.
+     * @param limit Número máximo de palabras clave a retornar (entre 1 y {@value #MAX_TRENDING_LIMIT}).
+     * @return Lista de {@link TrendingKeywordResponse} ordenada de mayor a menor conteo.
+     */
+    @Transactional(readOnly = true)
+    public List<TrendingKeywordResponse> getTrendingKeywords(TrendWindow window, int limit) {
+        int boundedLimit = Math.min(Math.max(limit, 1), MAX_TRENDING_LIMIT);
+        return searchTrendRepository.findTopByWindow(window.name(), PageRequest.of(0, boundedLimit));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package com.farmatodo.apigetway.service.cart;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Proceso programado que elimina los carritos abandonados.
+ *
+ * Un carrito se considera abandonado cuando ninguno de sus ítems se modificó durante
+ * {@code cart.sweeper.ttl-days}. Los carritos se recorren por conjunto de claves
+ * ({@code client_id > último procesado}) en lotes de {@code cart.sweeper.batch-size} clientes;
+ * cada lote se elimina en su propia transacción corta (autocommit) y entre lotes se espera
+ * {@code cart.sweeper.batch-pause-ms}, de modo que no se mantienen bloqueos largos ni se
+ * genera un volumen de WAL que retrase a las réplicas. El borrado vuelve a comprobar la fecha
+ * de cada fila, por lo que un ítem modificado mientras tanto se conserva.
+ *
+ * Solo un nodo ejecuta la limpieza a la vez (advisory lock de sesión de PostgreSQL). Cada
+ * ejecución registra en el log los carritos y filas eliminados y acumula las filas en la
+ * métrica {@code cart.sweeper.removed}.
+ *
+ */
+@Component
+public class AbandonedCartSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    /** Clave del advisory lock que evita ejecuciones simultáneas en varios nodos. */
+    private static final long SWEEPER_LOCK_KEY = 32_045L;
+
+    /** Siguiente lote de clientes cuyo carrito completo está inactivo desde antes del umbral. */
+    private static final String FIND_IDLE_CLIENTS_SQL = """
+            SELECT client_id
+            FROM cart_item
+            WHERE client_id > ?
+            GROUP BY client_id
+            HAVING max(update_date) < ?
+            ORDER BY client_id
+            LIMIT ?""";
+
+    private static final String DELETE_IDLE_ITEMS_SQL =
+            "DELETE FROM cart_item WHERE client_id = ANY (?) AND update_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final Counter removedCounter;
+
+    /**
+     * Crea el proceso de limpieza con la configuración indicada.
+     *
+     * @param jdbcTemplate Plantilla JDBC.
+     * @param ttlDays Días sin modificaciones tras los cuales un carrito se elimina.
+     * @param batchSize Número de carritos eliminados por lote.
+     * @param batchPauseMs Pausa entre lotes, en milisegundos.
+     * @param meterRegistry Registro de métricas.
+     */
+    public AbandonedCartSweeper(JdbcTemplate jdbcTemplate,
+                                @Value("${cart.sweeper.ttl-days:30}") int ttlDays,
+                                @Value("${cart.sweeper.batch-size:500}") int batchSize,
+                                @Value("${cart.sweeper.batch-pause-ms:200}") long batchPauseMs,
+                                MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = Duration.ofDays(Math.max(1, ttlDays));
+        this.batchSize = Math.max(1, batchSize);
+        this.batchPauseMs = Math.max(0, batchPauseMs);
+        this.removedCounter = Counter.builder("cart.sweeper.removed")
+                .description("Ítems de carritos abandonados eliminados")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Elimina los carritos abandonados por lotes.
+     */
+    @Scheduled(cron = "${cart.sweeper.cron:0 45 3 * * *}", zone = "UTC")
+    public void sweep() {
+        try {
+            SweepResult result = jdbcTemplate.execute((ConnectionCallback<SweepResult>) this::sweep);
+            if (result != null) {
+                log.info("🛒 Limpieza de carritos abandonados: {} carritos y {} ítems eliminados en {} lotes ({} ms).",
+                        result.carts(), result.rows(), result.batches(), result.elapsedMs());
+            }
+        } catch (Exception e) {
+            log.error("Error en la limpieza de carritos abandonados: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ejecuta la limpieza sobre una conexión dedicada en modo autocommit, que mantiene el
+     * advisory lock de sesión durante toda la ejecución.
+     *
+     * @return El resultado, o {@code null} si otro nodo ya está ejecutando la limpieza.
+     */
+    private SweepResult sweep(Connection connection) throws SQLException {
+        if (!tryLock(connection)) {
+            return null;
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        long started = System.nanoTime();
+        long carts = 0;
+        long rows = 0;
+        int batches = 0;
+        try {
+            connection.setAutoCommit(true);
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(ttl));
+            // PostgreSQL ordena los UUID byte a byte: el UUID nulo es el menor posible
+            UUID after = new UUID(0L, 0L);
+            while (true) {
+                List<UUID> clientIds = findIdleClients(connection, after, cutoff);
+                if (clientIds.isEmpty()) {
+                    break;
+                }
+                int deleted = deleteItems(connection, clientIds, cutoff);
+                carts += clientIds.size();
+                rows += deleted;
+                batches++;
+                removedCounter.increment(deleted);
+                after = clientIds.get(clientIds.size() - 1);
+
+                if (clientIds.size() < batchSize) {
+                    break;
+                }
+                if (!pause()) {
+                    log.warn("Limpieza de carritos abandonados interrumpida tras {} lotes.", batches);
+                    break;
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+            unlock(connection);
+        }
+        return new SweepResult(carts, rows, batches, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private List<UUID> findIdleClients(Connection connection, UUID after, Timestamp cutoff) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(FIND_IDLE_CLIENTS_SQL)) {
+            statement.setObject(1, after);
+            statement.setTimestamp(2, cutoff);
+            statement.setInt(3, batchSize);
+            List<UUID> clientIds = new ArrayList<>(batchSize);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    clientIds.add(rs.getObject(1, UUID.class));
+                }
+            }
+            return clientIds;
+        }
+    }
+
+    private int deleteItems(Connection connection, List<UUID> clientIds, Timestamp cutoff) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_IDLE_ITEMS_SQL)) {
+            statement.setArray(1, connection.createArrayOf("uuid", clientIds.toArray()));
+            statement.setTimestamp(2, cutoff);
+            return statement.executeUpdate();
+        }
+    }
+
+    private boolean pause() {
+        if (batchPauseMs == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, SWEEPER_LOCK_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private static void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, SWEEPER_LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    /**
+     * Resultado de una ejecución de la limpieza.
+     *
+     * @param carts Carritos eliminados.
+     * @param rows Ítems eliminados.
+     * @param batches Lotes ejecutados.
+     * @param elapsedMs Duración, en milisegundos.
+     */
+    private record SweepResult(long carts, long rows, int batches, long elapsedMs) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.farmatodo.apigetway.service.cart;
+
+import com.farmatodo.apigetway.model.dto.CartItemResponse;
+import com.farmatodo.apigetway.model.dto.CartLineResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Contrato (SPI) para el almacenamiento de los carritos de compra.
+ *
+ * La implementación se elige con la propiedad {@code cart.store.mode}: {@code jdbc}
+ * ({@link JdbcCartStore}, por defecto) escribe cada cambio en la base de datos antes de
+ * responder; {@code write-behind} ({@link WriteBehindCartStore}) mantiene los carritos activos
+ * en memoria y los persiste por lotes. {@link com.farmatodo.apigetway.service.CartService}
+ * conserva la misma API con cualquiera de las dos.
+ *
+ */
+public interface CartStore {
+
+    /** Cantidad máxima de un producto en el carrito (restricción {@code ck_cart_item_quantity}). */
+    int MAX_LINE_QUANTITY = 1000;
+
+    /**
+     * Obtiene los ítems del carrito de un cliente.
+     *
+     * @param clientId ID del cliente.
+     * @return Los ítems del carrito (vacío si no tiene).
+     */
+    List<CartItemResponse> getItems(UUID clientId);
+
+    /**
+     * Obtiene las líneas del carrito de un cliente con el nombre y el stock actual de cada
+     * producto. El precio, el importe y la disponibilidad no se completan.
+     *
+     * @param clientId ID del cliente.
+     * @return Las líneas del carrito, ordenadas por nombre de producto (vacío si no tiene).
+     */
+    List<CartLineResponse> getLines(UUID clientId);
+
+    /**
+     * Añade una cantidad a un producto del carrito, creando el ítem si no existe.
+     *
+     * @param clientId ID del cliente.
+     * @param productId ID del producto.
+     * @param quantity Cantidad a añadir.
+     * @return El ítem resultante.
+     * @throws IllegalArgumentException Si el cliente o el producto no existen.
+     */
+    CartItemResponse addQuantity(UUID clientId, UUID productId, int quantity);
+
+    /**
+     * Fija la cantidad de un producto del carrito, creando el ítem si no existe.
+     *
+     * @param clientId ID del cliente.
+     * @param productId ID del producto.
+     * @param quantity Nueva cantidad (mayor que cero).
+     * @return El ítem resultante.
+     * @throws IllegalArgumentException Si el cliente o el producto no existen.
+     */
+    CartItemResponse setQuantity(UUID clientId, UUID productId, int quantity);
+
+    /**
+     * Elimina un producto del carrito.
+     *
+     * @param clientId ID del cliente.
+     * @param productId ID del producto.
+     * @return {@code true} si el producto estaba en el carrito.
+     */
+    boolean remove(UUID clientId, UUID productId);
+
+    /**
+     * Reemplaza el contenido completo del carrito. Debe invocarse dentro de una transacción:
+     * si algún producto no existe, se lanza la excepción y el carrito queda como estaba.
+     *
+     * @param clientId ID del cliente.
+     * @param quantities Cantidad (mayor que cero) por ID de producto; vacío para vaciar el carrito.
+     * @return Los ítems resultantes.
+     * @throws IllegalArgumentException Si el cliente o alguno de los productos no existen.
+     */
+    List<CartItemResponse> replace(UUID clientId, Map<UUID, Integer> quantities);
+
+    /**
+     * Vacía el carrito de un cliente (por ejemplo, al convertirlo en pedido). Si hay una
+     * transacción activa, el borrado forma parte de ella.
+     *
+     * @param clientId ID del cliente.
+     */
+    void clear(UUID clientId);
+}
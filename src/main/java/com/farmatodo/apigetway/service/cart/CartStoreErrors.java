@@ -0,0 +1,73 @@
+package com.farmatodo.apigetway.service.cart;
+
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.PSQLState;
+import org.postgresql.util.ServerErrorMessage;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Traducción de los errores de integridad del carrito a errores de negocio.
+ */
+final class CartStoreErrors {
+
+    private CartStoreErrors() {
+    }
+
+    /**
+     * Convierte una violación de integridad de {@code cart_item} en el error de negocio
+     * correspondiente, según la restricción violada: la clave foránea indica cuál de las dos
+     * referencias no existe y {@code ck_cart_item_quantity} (o un desbordamiento numérico),
+     * que la cantidad supera el máximo. Cualquier otra violación se devuelve sin traducir.
+     *
+     * @param e Error de integridad.
+     * @param clientId ID del cliente.
+     * @param productId ID del producto.
+     * @return El {@link IllegalArgumentException} correspondiente, o {@code e} si no es una violación conocida.
+     */
+    static RuntimeException translate(DataIntegrityViolationException e, UUID clientId, UUID productId) {
+        if (!(e.getMostSpecificCause() instanceof PSQLException cause)) {
+            return e;
+        }
+        if (PSQLState.NUMERIC_VALUE_OUT_OF_RANGE.getState().equals(cause.getSQLState())) {
+            return quantityExceeded();
+        }
+        ServerErrorMessage message = cause.getServerErrorMessage();
+        String constraint = message == null ? null : message.getConstraint();
+        if (constraint == null) {
+            return e;
+        }
+        return switch (constraint) {
+            case "fk_cart_item_product" -> new IllegalArgumentException("Producto con ID " + productId + " no encontrado.");
+            case "fk_cart_item_client" -> new IllegalArgumentException("Cliente con ID " + clientId + " no encontrado.");
+            case "ck_cart_item_quantity" -> quantityExceeded();
+            default -> e;
+        };
+    }
+
+    /**
+     * Construye el error de una cantidad que supera {@link CartStore#MAX_LINE_QUANTITY}.
+     *
+     * @return El {@link IllegalArgumentException} correspondiente.
+     */
+    static IllegalArgumentException quantityExceeded() {
+        return new IllegalArgumentException(
+                "La cantidad de un producto en el carrito no puede superar " + CartStore.MAX_LINE_QUANTITY + ".");
+    }
+
+    /**
+     * Construye el error de los productos solicitados que no existen.
+     *
+     * @param productIds IDs de los productos inexistentes.
+     * @return El {@link IllegalArgumentException} correspondiente.
+     */
+    static IllegalArgumentException missingProducts(Collection<UUID> productIds) {
+        if (productIds.size() == 1) {
+            return new IllegalArgumentException("Producto con ID " + productIds.iterator().next() + " no encontrado.");
+        }
+        return new IllegalArgumentException("Productos con ID " + productIds + " no encontrados.");
+    }
+}
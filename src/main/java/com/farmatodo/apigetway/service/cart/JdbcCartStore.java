@@ -0,0 +1,85 @@
+package com.farmatodo.apigetway.service.cart;
+
+import com.farmatodo.apigetway.model.dto.CartItemResponse;
+import com.farmatodo.apigetway.model.dto.CartLineResponse;
+import com.farmatodo.apigetway.repository.CartItemRepository;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * {@link CartStore} que lee y escribe directamente en la tabla {@code cart_item}. Cada cambio
+ * queda persistido al confirmarse la transacción de la petición.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JdbcCartStore implements CartStore {
+
+    private final CartItemRepository cartItemRepository;
+
+    @Override
+    public List<CartItemResponse> getItems(UUID clientId) {
+        return cartItemRepository.findItemsByClientId(clientId);
+    }
+
+    @Override
+    public List<CartLineResponse> getLines(UUID clientId) {
+        return cartItemRepository.findLinesByClientId(clientId);
+    }
+
+    @Override
+    public CartItemResponse addQuantity(UUID clientId, UUID productId, int quantity) {
+        try {
+            return cartItemRepository.upsertQuantity(clientId, productId, quantity);
+        } catch (DataIntegrityViolationException e) {
+            throw CartStoreErrors.translate(e, clientId, productId);
+        }
+    }
+
+    @Override
+    public CartItemResponse setQuantity(UUID clientId, UUID productId, int quantity) {
+        try {
+            return cartItemRepository.setQuantity(clientId, productId, quantity);
+        } catch (DataIntegrityViolationException e) {
+            throw CartStoreErrors.translate(e, clientId, productId);
+        }
+    }
+
+    @Override
+    public boolean remove(UUID clientId, UUID productId) {
+        return cartItemRepository.deleteByClientIdAndProductId(clientId, productId) > 0;
+    }
+
+    @Override
+    public List<CartItemResponse> replace(UUID clientId, Map<UUID, Integer> quantities) {
+        List<CartItemResponse> items;
+        try {
+            items = cartItemRepository.replaceItems(clientId, quantities);
+        } catch (DataIntegrityViolationException e) {
+            // Los productos inexistentes no llegan a insertarse; solo puede faltar el cliente
+            throw CartStoreErrors.translate(e, clientId, null);
+        }
+        if (items.size() < quantities.size()) {
+            // Los productos inexistentes se omiten en la inserción; la transacción se revierte
+            Set<UUID> missing = new LinkedHashSet<>(quantities.keySet());
+            items.forEach(item -> missing.remove(item.getProductId()));
+            throw CartStoreErrors.missingProducts(missing);
+        }
+        return items;
+    }
+
+    @Override
+    public void clear(UUID clientId) {
+        cartItemRepository.deleteByClientId(clientId);
+    }
+}
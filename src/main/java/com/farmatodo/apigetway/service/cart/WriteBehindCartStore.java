@@ -0,0 +1,583 @@
+package com.farmatodo.apigetway.service.cart;
+
+import com.farmatodo.apigetway.model.dto.CartItemResponse;
+import com.farmatodo.apigetway.model.dto.CartLineResponse;
+import com.farmatodo.apigetway.model.id.UuidV7Generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link CartStore} de escritura diferida (write-behind).
+ *
+ * Los carritos activos se mantienen en un mapa concurrente en memoria; las operaciones de un
+ * mismo cliente se serializan con un bloqueo de un conjunto fijo de bloqueos (striping), sin
+ * bloquear a los demás clientes. Un carrito se carga desde la base de datos la primera vez que
+ * se usa, y cada cambio lo marca como pendiente. Periódicamente ({@code cart.store.flush-interval-ms})
+ * los carritos pendientes se escriben en lote: un {@code INSERT ... ON CONFLICT DO UPDATE} por
+ * ítem y un {@code DELETE} de los productos que ya no están, ambos en modo batch y en una sola
+ * transacción. Los carritos sin cambios e inactivos durante {@code cart.store.idle-eviction-ms}
+ * se descartan de la memoria.
+ *
+ * Durabilidad: un cambio se confirma al cliente antes de persistirse, por lo que una caída del
+ * proceso pierde como máximo los cambios del último intervalo de escritura; al detener la
+ * aplicación de forma ordenada se escriben todos los pendientes, después de que el servidor web
+ * termine las peticiones en curso. Un ítem que ya no puede persistirse (producto eliminado o
+ * cantidad fuera de rango) se descarta sin perder el resto del carrito. Al convertir el
+ * carrito en pedido, el borrado se realiza en la transacción del pedido. Como el estado vive en
+ * la memoria de cada nodo, este modo requiere que las peticiones de un cliente lleguen siempre al mismo
+ * nodo (afinidad de sesión) o un único nodo.
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store.mode", havingValue = "write-behind")
+public class WriteBehindCartStore implements CartStore, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindCartStore.class);
+
+    /** Número de bloqueos entre los que se reparten los clientes. */
+    private static final int LOCK_STRIPES = 64;
+
+    /** Fase del ciclo de vida, por debajo de las del servidor web (que se detiene antes). */
+    private static final int SHUTDOWN_PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String LOAD_CART_SQL = """
+            SELECT ci.id, ci.product_id, p.part_number, ci.quantity
+            FROM cart_item ci
+            JOIN products p ON p.id = ci.product_id
+            WHERE ci.client_id = ?""";
+
+    private static final String CLIENT_EXISTS_SQL = "SELECT EXISTS (SELECT 1 FROM clients WHERE id = ?)";
+
+    private static final String FIND_PART_NUMBER_SQL = "SELECT part_number FROM products WHERE id = ?";
+
+    private static final String FIND_PART_NUMBERS_SQL =
+            "SELECT id, part_number FROM products WHERE id = ANY (CAST(? AS uuid[]))";
+
+    private static final String FIND_PRODUCTS_SQL =
+            "SELECT id, name, stock FROM products WHERE id = ANY (CAST(? AS uuid[]))";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO cart_item (id, client_id, product_id, quantity, update_date)
+            VALUES (?, ?, ?, ?, now())
+            ON CONFLICT (client_id, product_id)
+            DO UPDATE SET quantity = EXCLUDED.quantity, update_date = EXCLUDED.update_date""";
+
+    /** Elimina los productos del carrito que ya no están en memoria (todos si el arreglo está vacío). */
+    private static final String DELETE_MISSING_SQL =
+            "DELETE FROM cart_item WHERE client_id = ? AND product_id <> ALL (CAST(? AS uuid[]))";
+
+    private static final String DELETE_CART_SQL = "DELETE FROM cart_item WHERE client_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long idleEvictionMs;
+
+    private final Map<UUID, Cart> carts = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile boolean running;
+
+    /**
+     * Crea el almacén de escritura diferida.
+     *
+     * @param jdbcTemplate Plantilla JDBC.
+     * @param transactionTemplate Plantilla transaccional para cada escritura por lotes.
+     * @param idleEvictionMs Tiempo sin uso tras el cual un carrito sin cambios sale de la memoria.
+     */
+    public WriteBehindCartStore(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${cart.store.idle-eviction-ms:1800000}") long idleEvictionMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.idleEvictionMs = Math.max(0, idleEvictionMs);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public List<CartItemResponse> getItems(UUID clientId) {
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            Cart cart = load(clientId);
+            List<CartItemResponse> items = new ArrayList<>(cart.lines.size());
+            for (Map.Entry<UUID, Line> entry : cart.lines.entrySet()) {
+                items.add(toResponse(clientId, entry.getKey(), entry.getValue()));
+            }
+            return items;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene las líneas del carrito en memoria, completadas con el nombre y el stock actuales
+     * de los productos en una sola consulta.
+     */
+    @Override
+    public List<CartLineResponse> getLines(UUID clientId) {
+        Map<UUID, Line> lines;
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            lines = new LinkedHashMap<>(load(clientId).lines);
+        } finally {
+            lock.unlock();
+        }
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+
+        String[] productIds = lines.keySet().stream().map(UUID::toString).toArray(String[]::new);
+        List<CartLineResponse> result = new ArrayList<>(lines.size());
+        jdbcTemplate.query(FIND_PRODUCTS_SQL, rs -> {
+            UUID productId = rs.getObject("id", UUID.class);
+            Line line = lines.get(productId);
+            result.add(new CartLineResponse(line.id(), productId, line.partNumber(), rs.getString("name"),
+                    line.quantity(), rs.getInt("stock")));
+        }, (Object) productIds);
+        result.sort(Comparator.comparing(CartLineResponse::getProductName).thenComparing(CartLineResponse::getProductId));
+        return result;
+    }
+
+    @Override
+    public CartItemResponse addQuantity(UUID clientId, UUID productId, int quantity) {
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            Cart cart = load(clientId);
+            Line current = cart.lines.get(productId);
+            if (current != null && (long) current.quantity() + quantity > MAX_LINE_QUANTITY) {
+                throw CartStoreErrors.quantityExceeded();
+            }
+            Line updated = current == null
+                    ? new Line(UuidV7Generator.next(), findPartNumber(productId), quantity)
+                    : current.withQuantity(current.quantity() + quantity);
+            cart.lines.put(productId, updated);
+            dirty.add(clientId);
+            return toResponse(clientId, productId, updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CartItemResponse setQuantity(UUID clientId, UUID productId, int quantity) {
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            Cart cart = load(clientId);
+            Line current = cart.lines.get(productId);
+            Line updated = current == null
+                    ? new Line(UuidV7Generator.next(), findPartNumber(productId), quantity)
+                    : current.withQuantity(quantity);
+            cart.lines.put(productId, updated);
+            dirty.add(clientId);
+            return toResponse(clientId, productId, updated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(UUID clientId, UUID productId) {
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            boolean removed = load(clientId).lines.remove(productId) != null;
+            if (removed) {
+                dirty.add(clientId);
+            }
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<CartItemResponse> replace(UUID clientId, Map<UUID, Integer> quantities) {
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            Cart cart = load(clientId);
+            // Los números de parte de los productos nuevos se resuelven en una sola consulta
+            List<String> newProductIds = quantities.keySet().stream()
+                    .filter(productId -> !cart.lines.containsKey(productId))
+                    .map(UUID::toString)
+                    .toList();
+            Map<UUID, String> partNumbers = new HashMap<>();
+            if (!newProductIds.isEmpty()) {
+                jdbcTemplate.query(FIND_PART_NUMBERS_SQL,
+                        rs -> {
+                            partNumbers.put(rs.getObject("id", UUID.class), rs.getString("part_number"));
+                        },
+                        (Object) newProductIds.toArray(new String[0]));
+            }
+            if (partNumbers.size() < newProductIds.size()) {
+                Set<UUID> missing = new LinkedHashSet<>();
+                newProductIds.forEach(id -> missing.add(UUID.fromString(id)));
+                missing.removeAll(partNumbers.keySet());
+                throw CartStoreErrors.missingProducts(missing);
+            }
+
+            Map<UUID, Line> lines = new LinkedHashMap<>();
+            List<CartItemResponse> items = new ArrayList<>(quantities.size());
+            for (Map.Entry<UUID, Integer> entry : quantities.entrySet()) {
+                Line current = cart.lines.get(entry.getKey());
+                Line line = current == null
+                        ? new Line(UuidV7Generator.next(), partNumbers.get(entry.getKey()), entry.getValue())
+                        : current.withQuantity(entry.getValue());
+                lines.put(entry.getKey(), line);
+                items.add(toResponse(clientId, entry.getKey(), line));
+            }
+            cart.lines.clear();
+            cart.lines.putAll(lines);
+            dirty.add(clientId);
+            return items;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void clear(UUID clientId) {
+        ReentrantLock lock = lockFor(clientId);
+        Map<UUID, Line> previous;
+        lock.lock();
+        try {
+            Cart cart = load(clientId);
+            previous = new LinkedHashMap<>(cart.lines);
+            cart.lines.clear();
+            // Una escritura en curso podría reinsertar los ítems: la siguiente vuelve a vaciarlo
+            dirty.add(clientId);
+        } finally {
+            lock.unlock();
+        }
+
+        jdbcTemplate.update(DELETE_CART_SQL, clientId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        restore(clientId, previous);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Escribe en la base de datos los carritos con cambios pendientes y descarta de la memoria
+     * los carritos inactivos.
+     */
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<CartSnapshot> batch = new ArrayList<>();
+            for (UUID clientId : dirty) {
+                ReentrantLock lock = lockFor(clientId);
+                lock.lock();
+                try {
+                    Cart cart = carts.get(clientId);
+                    if (dirty.remove(clientId) && cart != null) {
+                        batch.add(new CartSnapshot(clientId, new LinkedHashMap<>(cart.lines)));
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+            evictIdle();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Escribe todos los cambios pendientes antes de detener la aplicación.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+        if (!dirty.isEmpty()) {
+            log.error("🛒 {} carritos con cambios pendientes no pudieron persistirse al detener la aplicación.", dirty.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Fase anterior a la del servidor web, de modo que este almacén se detiene después de él:
+     * la escritura final incluye los cambios de las peticiones que terminan durante el apagado
+     * ordenado.
+     */
+    @Override
+    public int getPhase() {
+        return SHUTDOWN_PHASE;
+    }
+
+    /**
+     * Escribe el lote en una transacción. Si falla, reintenta cada carrito por separado para
+     * aislar el que lo provoca. Un carrito con referencias o cantidades inválidas se repara
+     * descartando solo los ítems afectados (productos eliminados o cantidades fuera de rango) y
+     * se vuelve a escribir; solo se descarta entero si su cliente ya no existe o si sigue
+     * fallando. Los demás errores lo dejan pendiente.
+     */
+    private void write(List<CartSnapshot> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(batch));
+            log.debug("🛒 {} carritos persistidos.", batch.size());
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Error al persistir {} carritos en lote, se reintentan por separado: {}", batch.size(), e.getMessage());
+        }
+        for (CartSnapshot snapshot : batch) {
+            try {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeBatch(List.of(snapshot)));
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("Carrito del cliente {} con datos inválidos, se reparan sus ítems: {}", snapshot.clientId(), e.getMessage());
+                    CartSnapshot repaired = repair(snapshot);
+                    if (repaired == null) {
+                        log.error("Carrito del cliente {} descartado: el cliente ya no existe.", snapshot.clientId());
+                        discard(snapshot.clientId());
+                        continue;
+                    }
+                    transactionTemplate.executeWithoutResult(status -> writeBatch(List.of(repaired)));
+                }
+            } catch (DataIntegrityViolationException e) {
+                log.error("Carrito del cliente {} descartado por referencias inválidas: {}", snapshot.clientId(), e.getMessage());
+                discard(snapshot.clientId());
+            } catch (DataAccessException e) {
+                log.warn("Error al persistir el carrito del cliente {}, se reintentará: {}", snapshot.clientId(), e.getMessage());
+                dirty.add(snapshot.clientId());
+            }
+        }
+    }
+
+    /**
+     * Revalida un carrito contra la base de datos y quita, de la copia y del carrito en
+     * memoria, los ítems cuyo producto ya no existe o cuya cantidad está fuera de rango.
+     *
+     * @param snapshot Copia del carrito que no pudo escribirse.
+     * @return La copia sin los ítems inválidos, o {@code null} si el cliente ya no existe.
+     */
+    private CartSnapshot repair(CartSnapshot snapshot) {
+        UUID clientId = snapshot.clientId();
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(CLIENT_EXISTS_SQL, Boolean.class, clientId))) {
+            return null;
+        }
+        Set<UUID> existing = new HashSet<>();
+        String[] productIds = snapshot.lines().keySet().stream().map(UUID::toString).toArray(String[]::new);
+        jdbcTemplate.query(FIND_PART_NUMBERS_SQL, rs -> {
+            existing.add(rs.getObject("id", UUID.class));
+        }, (Object) productIds);
+
+        Map<UUID, Line> lines = new LinkedHashMap<>(snapshot.lines());
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            Cart cart = carts.get(clientId);
+            for (Iterator<Map.Entry<UUID, Line>> it = lines.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<UUID, Line> entry = it.next();
+                UUID productId = entry.getKey();
+                if (!existing.contains(productId)) {
+                    log.error("Ítem {} del carrito del cliente {} descartado: el producto ya no existe.", productId, clientId);
+                } else if (!isValidQuantity(entry.getValue().quantity())) {
+                    log.error("Ítem {} del carrito del cliente {} descartado: cantidad {} fuera de rango.",
+                            productId, clientId, entry.getValue().quantity());
+                } else {
+                    continue;
+                }
+                it.remove();
+                // El carrito pudo cambiar desde la copia: solo se quita el ítem si sigue siendo inválido
+                Line current = cart != null ? cart.lines.get(productId) : null;
+                if (current != null && (!existing.contains(productId) || !isValidQuantity(current.quantity()))) {
+                    cart.lines.remove(productId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new CartSnapshot(clientId, lines);
+    }
+
+    private static boolean isValidQuantity(int quantity) {
+        return quantity >= 1 && quantity <= MAX_LINE_QUANTITY;
+    }
+
+    private void writeBatch(List<CartSnapshot> batch) {
+        List<Object[]> upserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>(batch.size());
+        for (CartSnapshot snapshot : batch) {
+            String[] productIds = new String[snapshot.lines().size()];
+            int i = 0;
+            for (Map.Entry<UUID, Line> entry : snapshot.lines().entrySet()) {
+                Line line = entry.getValue();
+                upserts.add(new Object[]{line.id(), snapshot.clientId(), entry.getKey(), line.quantity()});
+                productIds[i++] = entry.getKey().toString();
+            }
+            deletes.add(new Object[]{snapshot.clientId(), productIds});
+        }
+        jdbcTemplate.batchUpdate(DELETE_MISSING_SQL, deletes);
+        if (!upserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+        }
+    }
+
+    private void evictIdle() {
+        long threshold = System.currentTimeMillis() - idleEvictionMs;
+        for (Map.Entry<UUID, Cart> entry : carts.entrySet()) {
+            if (entry.getValue().lastAccess >= threshold || dirty.contains(entry.getKey())) {
+                continue;
+            }
+            ReentrantLock lock = lockFor(entry.getKey());
+            lock.lock();
+            try {
+                Cart cart = carts.get(entry.getKey());
+                if (cart != null && cart.lastAccess < threshold && !dirty.contains(entry.getKey())) {
+                    carts.remove(entry.getKey());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void restore(UUID clientId, Map<UUID, Line> lines) {
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            Cart cart = load(clientId);
+            cart.lines.clear();
+            cart.lines.putAll(lines);
+            dirty.add(clientId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void discard(UUID clientId) {
+        ReentrantLock lock = lockFor(clientId);
+        lock.lock();
+        try {
+            carts.remove(clientId);
+            dirty.remove(clientId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el carrito en memoria o lo carga desde la base de datos. Debe invocarse con el
+     * bloqueo del cliente adquirido.
+     *
+     * @throws IllegalArgumentException Si el carrito no existe y el cliente tampoco.
+     */
+    private Cart load(UUID clientId) {
+        Cart cart = carts.get(clientId);
+        if (cart == null) {
+            cart = new Cart();
+            Cart loaded = cart;
+            jdbcTemplate.query(LOAD_CART_SQL, rs -> {
+                loaded.lines.put(rs.getObject("product_id", UUID.class),
+                        new Line(rs.getObject("id", UUID.class), rs.getString("part_number"), rs.getInt("quantity")));
+            }, clientId);
+            if (cart.lines.isEmpty() && !Boolean.TRUE.equals(jdbcTemplate.queryForObject(CLIENT_EXISTS_SQL, Boolean.class, clientId))) {
+                throw new IllegalArgumentException("Cliente con ID " + clientId + " no encontrado.");
+            }
+            carts.put(clientId, cart);
+        }
+        cart.lastAccess = System.currentTimeMillis();
+        return cart;
+    }
+
+    private String findPartNumber(UUID productId) {
+        List<String> partNumbers = jdbcTemplate.queryForList(FIND_PART_NUMBER_SQL, String.class, productId);
+        if (partNumbers.isEmpty()) {
+            throw new IllegalArgumentException("Producto con ID " + productId + " no encontrado.");
+        }
+        return partNumbers.get(0);
+    }
+
+    private ReentrantLock lockFor(UUID clientId) {
+        return locks[Math.floorMod(clientId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static CartItemResponse toResponse(UUID clientId, UUID productId, Line line) {
+        return new CartItemResponse(line.id(), clientId, productId, line.partNumber(), line.quantity());
+    }
+
+    /**
+     * Carrito de un cliente en memoria. Se accede con el bloqueo del cliente adquirido.
+     */
+    private static final class Cart {
+        private final Map<UUID, Line> lines = new LinkedHashMap<>();
+        private volatile long lastAccess;
+    }
+
+    /**
+     * Ítem del carrito en memoria.
+     *
+     * @param id ID del ítem (se conserva al persistirlo).
+     * @param partNumber Número de parte del producto.
+     * @param quantity Cantidad.
+     */
+    private record Line(UUID id, String partNumber, int quantity) {
+
+        private Line withQuantity(int newQuantity) {
+            return new Line(id, partNumber, newQuantity);
+        }
+    }
+
+    /**
+     * Copia del estado de un carrito tomada para escribirlo.
+     *
+     * @param clientId ID del cliente.
+     * @param lines Ítems por ID de producto.
+     */
+    private record CartSnapshot(UUID clientId, Map<UUID, Line> lines) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import java.util.UUID;
+
+/**
+ * Evento local publicado cuando un producto es creado o modificado.
+ *
+ * {@link ProductIndexRefresher} lo escucha tras la confirmación de la transacción para
+ * refrescar los índices en memoria sin esperar al siguiente sondeo.
+ *
+ * @param productId ID del producto afectado, o {@code null} si cambiaron muchos productos a la vez
+ *                  (por ejemplo, en una importación masiva).
+ */
+public record ProductChangedEvent(UUID productId) {
+}
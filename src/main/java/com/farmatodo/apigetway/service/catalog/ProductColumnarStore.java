@@ -0,0 +1,344 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.service.searchlog.KeywordNormalizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instantánea columnar en memoria del catálogo para búsquedas filtradas con facetas.
+ *
+ * Cada producto ocupa un ordinal, asignado en orden de nombre (e ID como desempate), de modo
+ * que recorrer un {@link BitSet} de resultados en orden ascendente los entrega ya ordenados.
+ * El stock se guarda en un {@code int[]}, la categoría se codifica con un diccionario y cada
+ * categoría tiene un {@link BitSet} con sus productos. Una consulta combina el conjunto de
+ * productos visibles por stock (cacheado por valor de stock mínimo), el filtro por palabra
+ * clave y la unión de las categorías seleccionadas; los conteos por categoría se obtienen
+ * intersectando bitsets.
+ *
+ * Los cambios de stock o categoría se aplican copiando solo las columnas afectadas; la
+ * creación de productos o el cambio de nombre reordenan los ordinales y reconstruyen la
+ * instantánea.
+ *
+ */
+@Component
+public class ProductColumnarStore implements ProductIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductColumnarStore.class);
+
+    /** Orden de los ordinales: por nombre y, a igualdad, por ID. */
+    static final Comparator<Product> NAME_ORDER = Comparator
+            .comparing(Product::getName)
+            .thenComparing(product -> product.getId().toString());
+
+    /** Número máximo de conteos por palabra clave cacheados por instantánea. */
+    private static final int COUNT_CACHE_SIZE = 1024;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    /**
+     * Resultado de una consulta filtrada.
+     *
+     * @param products Productos coincidentes, ordenados por nombre (como máximo {@code limit}).
+     * @param total Número total de productos coincidentes.
+     * @param categoryCounts Conteo de productos por categoría, sin aplicar el filtro de categoría.
+     */
+    public record QueryResult(List<Product> products, int total, Map<String, Integer> categoryCounts) {
+    }
+
+    /**
+     * Reconstruye la instantánea completa.
+     *
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void rebuild(List<Product> products) {
+        snapshot = Snapshot.build(products);
+        log.debug("Almacén columnar construido: {} productos, {} categorías.", products.size(), snapshot.categories().length);
+    }
+
+    /**
+     * Aplica los cambios copiando solo las columnas afectadas cuando ningún producto es nuevo ni
+     * cambia de nombre; en caso contrario reconstruye la instantánea.
+     *
+     * @param changed Productos creados o modificados.
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void apply(List<Product> changed, List<Product> products) {
+        Snapshot current = snapshot;
+        Snapshot updated = current.withUpdates(changed);
+        snapshot = updated != null ? updated : Snapshot.build(products);
+    }
+
+    /**
+     * Busca productos por palabra clave, categorías y stock mínimo, con conteos por categoría.
+     *
+     * @param keyword Palabra clave (coincidencia por subcadena en nombre o número de parte), o {@code null}.
+     * @param categories Categorías seleccionadas (vacío para no filtrar).
+     * @param minStock Stock mínimo para que un producto sea visible.
+     * @param limit Número máximo de productos a retornar.
+     * @return El {@link QueryResult} de la consulta.
+     */
+    public QueryResult query(String keyword, Collection<String> categories, int minStock, int limit) {
+        Snapshot current = snapshot;
+        BitSet matches = current.matching(keyword, minStock);
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        long[] matchWords = matches.toLongArray();
+        for (int code = 0; code < current.categories().length; code++) {
+            int count = intersectionCount(matchWords, current.categoryWords()[code]);
+            if (count > 0) {
+                counts.put(current.categories()[code], count);
+            }
+        }
+
+        if (categories != null && !categories.isEmpty()) {
+            BitSet selected = new BitSet(current.products().length);
+            for (String category : categories) {
+                Integer code = current.categoryCodes().get(category);
+                if (code != null) {
+                    selected.or(current.categoryBits()[code]);
+                }
+            }
+            matches.and(selected);
+        }
+
+        List<Product> page = new ArrayList<>(Math.min(limit, 64));
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && page.size() < limit; ordinal = matches.nextSetBit(ordinal + 1)) {
+            page.add(current.products()[ordinal]);
+        }
+        return new QueryResult(page, matches.cardinality(), counts);
+    }
+
+    /**
+     * Cuenta los productos visibles que coinciden con la palabra clave, sin materializarlos.
+     *
+     * El conteo se cachea en la instantánea actual, por lo que las páginas sucesivas de una
+     * misma búsqueda no vuelven a recorrer el catálogo; al publicarse una nueva instantánea
+     * el caché se descarta con ella. Como la instantánea se refresca de forma asíncrona, el
+     * valor es una estimación del total que retornaría la base de datos.
+     *
+     * @param keyword Palabra clave (coincidencia por subcadena en nombre o número de parte).
+     * @param minStock Stock mínimo para que un producto sea visible.
+     * @return El número de productos coincidentes en la instantánea.
+     */
+    public int countMatches(String keyword, int minStock) {
+        Snapshot current = snapshot;
+        String key = minStock + ":" + KeywordNormalizer.normalize(keyword);
+        Integer cached = current.countCache().get(key);
+        if (cached != null) {
+            return cached;
+        }
+        int count = current.matching(keyword, minStock).cardinality();
+        if (current.countCache().size() >= COUNT_CACHE_SIZE) {
+            current.countCache().clear();
+        }
+        current.countCache().put(key, count);
+        return count;
+    }
+
+    private static int intersectionCount(long[] a, long[] b) {
+        int count = 0;
+        for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+            count += Long.bitCount(a[i] & b[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Estado inmutable del almacén columnar.
+     *
+     * @param products Productos por ordinal.
+     * @param ordinals Ordinal de cada ID de producto.
+     * @param stock Columna de stock.
+     * @param searchText Columna de texto normalizado para la coincidencia por palabra clave.
+     * @param categoryOf Código de categoría de cada producto.
+     * @param categories Diccionario de categorías por código.
+     * @param categoryCodes Código de cada categoría.
+     * @param categoryBits Productos de cada categoría.
+     * @param categoryWords Palabras de 64 bits de cada bitset de categoría, para contar intersecciones sin copiar.
+     * @param visibleCache Último conjunto de productos visibles calculado, por stock mínimo.
+     * @param countCache Conteos de coincidencias ya calculados, por stock mínimo y palabra clave.
+     */
+    private record Snapshot(Product[] products, Map<UUID, Integer> ordinals, int[] stock, String[] searchText,
+                            int[] categoryOf, String[] categories, Map<String, Integer> categoryCodes,
+                            BitSet[] categoryBits, long[][] categoryWords, VisibleCache[] visibleCache,
+                            Map<String, Integer> countCache) {
+
+        private static Snapshot build(List<Product> source) {
+            Product[] products = source.toArray(new Product[0]);
+            Arrays.sort(products, NAME_ORDER);
+
+            int n = products.length;
+            Map<UUID, Integer> ordinals = new HashMap<>(n * 2);
+            int[] stock = new int[n];
+            String[] searchText = new String[n];
+            int[] categoryOf = new int[n];
+            Map<String, Integer> categoryCodes = new HashMap<>();
+            List<String> categories = new ArrayList<>();
+            List<BitSet> categoryBits = new ArrayList<>();
+
+            for (int ordinal = 0; ordinal < n; ordinal++) {
+                Product product = products[ordinal];
+                ordinals.put(product.getId(), ordinal);
+                stock[ordinal] = product.getStock() == null ? 0 : product.getStock();
+                searchText[ordinal] = searchText(product);
+                Integer code = categoryCodes.get(product.getCategory());
+                if (code == null) {
+                    code = categories.size();
+                    categoryCodes.put(product.getCategory(), code);
+                    categories.add(product.getCategory());
+                    categoryBits.add(new BitSet(n));
+                }
+                categoryOf[ordinal] = code;
+                categoryBits.get(code).set(ordinal);
+            }
+            BitSet[] bits = categoryBits.toArray(new BitSet[0]);
+            return new Snapshot(products, ordinals, stock, searchText, categoryOf, categories.toArray(new String[0]),
+                    categoryCodes, bits, words(bits, null, null), new VisibleCache[1],
+                    new ConcurrentHashMap<>());
+        }
+
+        /**
+         * Crea una copia con los cambios de stock y categoría aplicados.
+         *
+         * @param changed Productos modificados.
+         * @return La nueva instantánea, o {@code null} si algún producto es nuevo o cambió de nombre.
+         */
+        private Snapshot withUpdates(List<Product> changed) {
+            for (Product product : changed) {
+                Integer ordinal = ordinals.get(product.getId());
+                if (ordinal == null || !Objects.equals(products[ordinal].getName(), product.getName())) {
+                    return null;
+                }
+            }
+
+            Product[] newProducts = products.clone();
+            int[] newStock = stock.clone();
+            String[] newSearchText = searchText.clone();
+            int[] newCategoryOf = categoryOf.clone();
+            Map<String, Integer> newCategoryCodes = new HashMap<>(categoryCodes);
+            List<String> newCategories = new ArrayList<>(List.of(categories));
+            List<BitSet> newCategoryBits = new ArrayList<>(List.of(categoryBits));
+            boolean[] copied = new boolean[categories.length];
+
+            for (Product product : changed) {
+                int ordinal = ordinals.get(product.getId());
+                newProducts[ordinal] = product;
+                newStock[ordinal] = product.getStock() == null ? 0 : product.getStock();
+                newSearchText[ordinal] = searchText(product);
+
+                Integer code = newCategoryCodes.get(product.getCategory());
+                if (code == null) {
+                    code = newCategories.size();
+                    newCategoryCodes.put(product.getCategory(), code);
+                    newCategories.add(product.getCategory());
+                    newCategoryBits.add(new BitSet(products.length));
+                }
+                int previousCode = newCategoryOf[ordinal];
+                if (previousCode != code) {
+                    // Los bitsets se copian solo la primera vez que una categoría cambia
+                    if (previousCode < copied.length && !copied[previousCode]) {
+                        newCategoryBits.set(previousCode, (BitSet) newCategoryBits.get(previousCode).clone());
+                        copied[previousCode] = true;
+                    }
+                    if (code < copied.length && !copied[code]) {
+                        newCategoryBits.set(code, (BitSet) newCategoryBits.get(code).clone());
+                        copied[code] = true;
+                    }
+                    newCategoryBits.get(previousCode).clear(ordinal);
+                    newCategoryBits.get(code).set(ordinal);
+                    newCategoryOf[ordinal] = code;
+                }
+            }
+            BitSet[] bits = newCategoryBits.toArray(new BitSet[0]);
+            return new Snapshot(newProducts, ordinals, newStock, newSearchText, newCategoryOf,
+                    newCategories.toArray(new String[0]), newCategoryCodes, bits, words(bits, categoryWords, copied),
+                    new VisibleCache[1], new ConcurrentHashMap<>());
+        }
+
+        /**
+         * Obtiene las palabras de 64 bits de cada bitset, reutilizando las de la instantánea
+         * anterior para las categorías que no cambiaron.
+         *
+         * @param bits Bitsets de las categorías.
+         * @param previous Palabras de la instantánea anterior, o {@code null}.
+         * @param changed Categorías modificadas respecto a la instantánea anterior, o {@code null}.
+         * @return Las palabras de cada categoría.
+         */
+        private static long[][] words(BitSet[] bits, long[][] previous, boolean[] changed) {
+            long[][] words = new long[bits.length][];
+            for (int code = 0; code < bits.length; code++) {
+                boolean reusable = previous != null && code < previous.length && !changed[code];
+                words[code] = reusable ? previous[code] : bits[code].toLongArray();
+            }
+            return words;
+        }
+
+        /**
+         * Calcula los productos visibles que coinciden con la palabra clave.
+         *
+         * @param keyword Palabra clave, o {@code null} para no filtrar.
+         * @param minStock Stock mínimo de visibilidad.
+         * @return Un {@link BitSet} nuevo con los ordinales coincidentes.
+         */
+        private BitSet matching(String keyword, int minStock) {
+            BitSet matches = (BitSet) visible(minStock).clone();
+            String normalized = KeywordNormalizer.normalize(keyword);
+            if (!normalized.isEmpty()) {
+                for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                    if (!searchText[ordinal].contains(normalized)) {
+                        matches.clear(ordinal);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        private BitSet visible(int minStock) {
+            VisibleCache cached = visibleCache[0];
+            if (cached != null && cached.minStock() == minStock) {
+                return cached.bits();
+            }
+            BitSet bits = new BitSet(stock.length);
+            for (int ordinal = 0; ordinal < stock.length; ordinal++) {
+                if (stock[ordinal] >= minStock) {
+                    bits.set(ordinal);
+                }
+            }
+            visibleCache[0] = new VisibleCache(minStock, bits);
+            return bits;
+        }
+
+        private static String searchText(Product product) {
+            // Separador que no aparece en textos normalizados para no coincidir entre columnas
+            return KeywordNormalizer.normalize(product.getName()) + '\n' + KeywordNormalizer.normalize(product.getPartNumber());
+        }
+    }
+
+    /**
+     * Conjunto de productos visibles para un valor de stock mínimo.
+     *
+     * @param minStock Stock mínimo con el que se calculó.
+     * @param bits Ordinales visibles.
+     */
+    private record VisibleCache(int minStock, BitSet bits) {
+    }
+}
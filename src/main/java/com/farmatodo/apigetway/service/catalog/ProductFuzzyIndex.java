@@ -0,0 +1,264 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.service.searchlog.KeywordNormalizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de búsqueda tolerante a errores tipográficos sobre el nombre y el número de parte.
+ *
+ * El vocabulario (palabras normalizadas de los nombres) se organiza en un {@link VocabularyTrie}, y
+ * cada palabra tiene la lista de productos que la contienen. Una consulta busca, para cada
+ * palabra escrita, las palabras del vocabulario dentro de una distancia de edición acotada
+ * por su longitud, o un número de parte idéntico; un producto coincide si todas las palabras
+ * de la consulta encuentran alguna equivalente en él. Los números de parte se indexan solo
+ * para coincidencia exacta: son únicos por producto y multiplicarían el tamaño del vocabulario. La relevancia es la suma, por palabra de la consulta,
+ * de la mejor similitud {@code 1 - distancia / longitud}. Las palabras se procesan de la más
+ * selectiva a la menos, de modo que los candidatos se acotan con la primera.
+ *
+ */
+@Component
+public class ProductFuzzyIndex implements ProductIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFuzzyIndex.class);
+
+    /** Ordena por relevancia descendente y, a igualdad, por nombre. */
+    private static final Comparator<ScoredProduct> RELEVANCE = Comparator
+            .comparingDouble(ScoredProduct::score).reversed()
+            .thenComparing(scored -> scored.product().getName());
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    /**
+     * Reconstruye el vocabulario, el trie del vocabulario y las listas de productos.
+     *
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void rebuild(List<Product> products) {
+        snapshot = Snapshot.build(products, null);
+        log.debug("Índice difuso construido: {} productos, {} palabras.", products.size(), snapshot.tree().size());
+    }
+
+    /**
+     * Si los productos modificados no introducen palabras nuevas, reutiliza el trie del vocabulario y solo
+     * recalcula las listas de productos; en caso contrario reconstruye el índice completo.
+     *
+     * @param changed Productos creados o modificados.
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void apply(List<Product> changed, List<Product> products) {
+        Snapshot current = snapshot;
+        boolean knownWords = changed.stream()
+                .flatMap(product -> tokens(product).stream())
+                .allMatch(current.vocabulary()::containsKey);
+        snapshot = Snapshot.build(products, knownWords ? current : null);
+    }
+
+    /**
+     * Busca productos cuyas palabras coinciden de forma aproximada con la consulta.
+     *
+     * @param keyword Texto de búsqueda (se normaliza internamente).
+     * @param minStock Stock mínimo para que un producto sea visible.
+     * @param limit Número máximo de productos a retornar.
+     * @return Los productos más relevantes y el número total de coincidencias visibles.
+     */
+    public SearchResult search(String keyword, int minStock, int limit) {
+        Snapshot current = snapshot;
+        Set<String> queryWords = new LinkedHashSet<>(List.of(KeywordNormalizer.normalize(keyword).split(" ")));
+        queryWords.remove("");
+        if (queryWords.isEmpty()) {
+            return SearchResult.EMPTY;
+        }
+
+        // Palabras equivalentes de cada palabra de la consulta, con su costo en número de productos
+        List<List<VocabularyTrie.Match>> matchesPerWord = new ArrayList<>();
+        List<String> words = new ArrayList<>(queryWords);
+        List<Integer> partNumberMatches = new ArrayList<>();
+        List<Integer> costs = new ArrayList<>();
+        for (String word : words) {
+            List<VocabularyTrie.Match> matches = current.tree().search(word, maxDistance(word));
+            Integer partNumberMatch = current.partNumbers().get(word);
+            if (matches.isEmpty() && partNumberMatch == null) {
+                return SearchResult.EMPTY;
+            }
+            int cost = partNumberMatch == null ? 0 : 1;
+            for (VocabularyTrie.Match match : matches) {
+                cost += current.postings()[match.wordId()].length;
+            }
+            matchesPerWord.add(matches);
+            partNumberMatches.add(partNumberMatch);
+            costs.add(cost);
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(costs::get));
+
+        Map<Integer, Double> scores = null;
+        for (int i : order) {
+            String word = words.get(i);
+            Map<Integer, Double> best = new HashMap<>();
+            for (VocabularyTrie.Match match : matchesPerWord.get(i)) {
+                String candidate = current.tree().word(match.wordId());
+                double similarity = 1.0 - (double) match.distance() / Math.max(word.length(), candidate.length());
+                for (int productOrdinal : current.postings()[match.wordId()]) {
+                    if (scores == null || scores.containsKey(productOrdinal)) {
+                        best.merge(productOrdinal, similarity, Math::max);
+                    }
+                }
+            }
+            Integer partNumberMatch = partNumberMatches.get(i);
+            if (partNumberMatch != null && (scores == null || scores.containsKey(partNumberMatch))) {
+                best.merge(partNumberMatch, 1.0, Math::max);
+            }
+            if (scores != null) {
+                Map<Integer, Double> previous = scores;
+                best.replaceAll((productOrdinal, score) -> score + previous.get(productOrdinal));
+            }
+            if (best.isEmpty()) {
+                return SearchResult.EMPTY;
+            }
+            scores = best;
+        }
+
+        List<ScoredProduct> ranked = new ArrayList<>();
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            Product product = current.products()[entry.getKey()];
+            if (product.getStock() != null && product.getStock() >= minStock) {
+                ranked.add(new ScoredProduct(product, entry.getValue()));
+            }
+        }
+        ranked.sort(RELEVANCE);
+        List<Product> top = ranked.stream()
+                .limit(Math.max(0, limit))
+                .map(ScoredProduct::product)
+                .toList();
+        return new SearchResult(top, ranked.size());
+    }
+
+    /**
+     * Distancia de edición tolerada según la longitud de la palabra: ninguna hasta 3
+     * caracteres, una hasta 7 y dos a partir de 8.
+     *
+     * @param word Palabra de la consulta.
+     * @return La distancia máxima permitida.
+     */
+    static int maxDistance(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        return word.length() <= 7 ? 1 : 2;
+    }
+
+    /**
+     * Palabras indexadas de un producto en el trie del vocabulario: las de su nombre.
+     *
+     * @param product El producto.
+     * @return Las palabras normalizadas, sin duplicados.
+     */
+    private static Set<String> tokens(Product product) {
+        Set<String> tokens = new LinkedHashSet<>(List.of(KeywordNormalizer.normalize(product.getName()).split(" ")));
+        tokens.remove("");
+        return tokens;
+    }
+
+    /**
+     * Resultado de una búsqueda.
+     *
+     * @param products Productos más relevantes, hasta el límite solicitado.
+     * @param total Número total de productos visibles que coinciden.
+     */
+    public record SearchResult(List<Product> products, int total) {
+
+        static final SearchResult EMPTY = new SearchResult(List.of(), 0);
+    }
+
+    private record ScoredProduct(Product product, double score) {
+    }
+
+    /**
+     * Estado inmutable del índice.
+     *
+     * @param products Productos indexados; su posición es el ordinal usado en las listas.
+     * @param vocabulary ID de cada palabra del vocabulario.
+     * @param tree Trie del vocabulario.
+     * @param postings Ordinales de los productos que contienen cada palabra.
+     * @param partNumbers Ordinal del producto de cada número de parte normalizado.
+     */
+    private record Snapshot(Product[] products, Map<String, Integer> vocabulary, VocabularyTrie tree, int[][] postings,
+                            Map<String, Integer> partNumbers) {
+
+        private static final Snapshot EMPTY = build(List.of(), null);
+
+        /**
+         * Construye el estado para los productos indicados.
+         *
+         * @param source Productos a indexar.
+         * @param reuse Estado cuyo vocabulario y trie se reutilizan, o {@code null} para recalcularlos.
+         * @return El nuevo estado.
+         */
+        private static Snapshot build(List<Product> source, Snapshot reuse) {
+            Product[] products = source.toArray(new Product[0]);
+            Map<String, Integer> vocabulary = reuse != null ? reuse.vocabulary() : new HashMap<>();
+            List<String> newWords = new ArrayList<>();
+            Map<String, Integer> partNumbers = new HashMap<>(products.length * 2);
+
+            int[][] productWords = new int[products.length][];
+            for (int ordinal = 0; ordinal < products.length; ordinal++) {
+                partNumbers.put(KeywordNormalizer.normalize(products[ordinal].getPartNumber()), ordinal);
+                Set<String> tokens = tokens(products[ordinal]);
+                int[] ids = new int[tokens.size()];
+                int k = 0;
+                for (String token : tokens) {
+                    Integer id = vocabulary.get(token);
+                    if (id == null) {
+                        if (reuse != null) {
+                            // El vocabulario compartido no se modifica: palabra nueva, reconstrucción completa
+                            return build(source, null);
+                        }
+                        id = vocabulary.size();
+                        vocabulary.put(token, id);
+                        newWords.add(token);
+                    }
+                    ids[k++] = id;
+                }
+                productWords[ordinal] = ids;
+            }
+
+            VocabularyTrie tree = reuse != null ? reuse.tree() : VocabularyTrie.build(newWords.toArray(new String[0]));
+
+            int[] counts = new int[vocabulary.size()];
+            for (int[] ids : productWords) {
+                for (int id : ids) {
+                    counts[id]++;
+                }
+            }
+            int[][] postings = new int[vocabulary.size()][];
+            for (int id = 0; id < postings.length; id++) {
+                postings[id] = new int[counts[id]];
+                counts[id] = 0;
+            }
+            for (int ordinal = 0; ordinal < productWords.length; ordinal++) {
+                for (int id : productWords[ordinal]) {
+                    postings[id][counts[id]++] = ordinal;
+                }
+            }
+            return new Snapshot(products, vocabulary, tree, postings, partNumbers);
+        }
+    }
+}
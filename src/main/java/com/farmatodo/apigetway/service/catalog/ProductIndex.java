@@ -0,0 +1,35 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import com.farmatodo.apigetway.model.Product;
+
+import java.util.List;
+
+/**
+ * Índice en memoria sobre el catálogo de productos.
+ *
+ * Las implementaciones son mantenidas por {@link ProductIndexRefresher}, que les entrega el
+ * catálogo completo al arrancar (y periódicamente) y los productos modificados desde el
+ * último sondeo. Deben publicar sus estructuras como instantáneas inmutables, de modo que
+ * las consultas concurrentes nunca observen un índice a medio construir.
+ *
+ */
+public interface ProductIndex {
+
+    /**
+     * Reconstruye el índice completo a partir del catálogo.
+     *
+     * @param products Todos los productos del catálogo.
+     */
+    void rebuild(List<Product> products);
+
+    /**
+     * Incorpora los productos creados o modificados. Por defecto reconstruye el índice con el
+     * catálogo completo; las implementaciones que admiten actualizaciones parciales lo sobrescriben.
+     *
+     * @param changed Productos creados o modificados desde el último sondeo.
+     * @param products Todos los productos del catálogo (ya incluyen los cambios).
+     */
+    default void apply(List<Product> changed, List<Product> products) {
+        rebuild(products);
+    }
+}
@@ -0,0 +1,311 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.repository.ProductRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantiene sincronizados los {@link ProductIndex} en memoria con la tabla {@code products}.
+ *
+ * Al arrancar (y periódicamente) carga el catálogo completo y reconstruye todos los índices.
+ * Entre reconstrucciones sondea el registro {@code catalog_change}, que los disparadores de
+ * {@code products} llenan con los IDs afectados por cada sentencia: se leen las filas de las
+ * transacciones que no eran visibles en la instantánea ({@code pg_current_snapshot}) del
+ * sondeo anterior, es decir, en orden de confirmación y sin depender de las fechas de los
+ * productos, de modo que una importación larga o una fecha asignada mucho antes de confirmar
+ * no se pierden. Las eliminaciones, los vaciados y los lotes grandes se aplican recargando el
+ * catálogo completo. Los cambios de este nodo se aplican al recibir un
+ * {@link ProductChangedEvent}, en un hilo del planificador para no retener la petición que los
+ * originó (varios eventos seguidos se agrupan en un único sondeo); los de otros nodos, en el
+ * siguiente sondeo periódico. Cada aplicación de cambios incrementa la versión local del
+ * catálogo.
+ *
+ * La etiqueta del catálogo es un resumen (suma de hashes por producto, independiente del
+ * orden) de los campos de búsqueda de los productos indexados, mantenido de forma
+ * incremental. Cambia siempre que cambia el contenido indexado, también en una reconstrucción
+ * completa, y es igual en todos los nodos que indexaron el mismo contenido.
+ *
+ * Las lecturas se hacen en transacciones de solo lectura, por lo que con una réplica
+ * configurada se sirven desde ella, igual que la búsqueda por palabra clave que llena
+ * {@link ProductSearchCache}. Así la invalidación de la caché y la etiqueta avanzan cuando
+ * la réplica ya tiene el cambio, y una búsqueda posterior no puede leer (ni guardar en la
+ * caché, ni servir con la etiqueta nueva) las filas anteriores.
+ *
+ */
+@Component
+public class ProductIndexRefresher implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndexRefresher.class);
+
+    /** Cambios a partir de los cuales un sondeo recarga el catálogo completo en lugar de buscarlos por ID. */
+    private static final int MAX_INCREMENTAL_CHANGES = 1000;
+
+    private final ProductRepository productRepository;
+    private final List<ProductIndex> indexes;
+    private final Duration changeRetention;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Product> catalog = new HashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private String syncedSnapshot;
+    private Instant syncedAt;
+    private long contentHash;
+    private volatile String catalogTag = "0";
+
+    /**
+     * Crea el refrescador para los índices registrados en el contexto.
+     *
+     * @param productRepository Repositorio de productos.
+     * @param indexes Índices a mantener.
+     * @param changeRetentionMs Antigüedad a partir de la que se purga el registro de cambios, en milisegundos.
+     * @param taskScheduler Planificador en el que se aplican los cambios de este nodo.
+     * @param transactionManager Gestor de transacciones; las lecturas usan transacciones de solo lectura.
+     */
+    public ProductIndexRefresher(ProductRepository productRepository,
+                                 List<ProductIndex> indexes,
+                                 @Value("${catalog.index.change-retention-ms:3600000}") long changeRetentionMs,
+                                 TaskScheduler taskScheduler,
+                                 PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.indexes = indexes;
+        this.changeRetention = Duration.ofMillis(Math.max(1, changeRetentionMs));
+        this.taskScheduler = taskScheduler;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Realiza la carga inicial de los índices una vez creados todos los singletons.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuildAll();
+    }
+
+    /**
+     * Versión del catálogo indexado. Cambia cada vez que los índices incorporan productos
+     * nuevos o modificados.
+     *
+     * @return La versión actual del catálogo.
+     */
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /**
+     * Etiqueta del catálogo indexado, formada por el resumen de su contenido. No depende del
+     * nodo, por lo que sirve como base de las ETag HTTP de las respuestas derivadas del catálogo.
+     *
+     * @return La etiqueta actual del catálogo.
+     */
+    public String getCatalogTag() {
+        return catalogTag;
+    }
+
+    /**
+     * Recarga el catálogo completo y reconstruye todos los índices. Además de la carga inicial,
+     * se ejecuta periódicamente para reflejar eliminaciones y recalcular datos derivados
+     * (por ejemplo, la popularidad de búsqueda).
+     */
+    @Scheduled(initialDelayString = "${catalog.index.full-rebuild-interval-ms:600000}",
+            fixedDelayString = "${catalog.index.full-rebuild-interval-ms:600000}")
+    public void rebuildAll() {
+        lock.lock();
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> reloadAll());
+        } catch (Exception e) {
+            log.error("Error al reconstruir los índices del catálogo: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Incorpora a los índices los productos modificados desde el último sondeo.
+     */
+    @Scheduled(fixedDelayString = "${catalog.index.poll-interval-ms:2000}")
+    public void poll() {
+        lock.lock();
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> pollChanges());
+        } catch (Exception e) {
+            log.error("Error al refrescar los índices del catálogo: {}", e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Purga del registro de cambios las filas que ya superan la retención. Un nodo que no haya
+     * sincronizado durante la mitad de ese tiempo recarga el catálogo completo en su siguiente
+     * sondeo, por lo que nunca depende de filas purgadas.
+     */
+    @Scheduled(initialDelayString = "${catalog.index.full-rebuild-interval-ms:600000}",
+            fixedDelayString = "${catalog.index.full-rebuild-interval-ms:600000}")
+    public void purgeChangeLog() {
+        try {
+            ZonedDateTime before = ZonedDateTime.now(ZoneOffset.UTC).minus(changeRetention);
+            Integer deleted = transactionTemplate.execute(status -> productRepository.deleteCatalogChangesBefore(before));
+            log.debug("Registro de cambios del catálogo purgado: {} filas.", deleted);
+        } catch (Exception e) {
+            log.error("Error al purgar el registro de cambios del catálogo: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recarga el catálogo completo. Debe invocarse con el bloqueo adquirido y dentro de una
+     * transacción de solo lectura.
+     */
+    private void reloadAll() {
+        // La instantánea se toma antes de leer los productos: todo lo visible en ella queda incluido
+        String snapshot = productRepository.findCurrentSnapshot();
+        List<Product> products = productRepository.findAll();
+        catalog.clear();
+        long hash = 0;
+        for (Product product : products) {
+            catalog.put(product.getId(), product);
+            hash += contentHash(product);
+        }
+        for (ProductIndex index : indexes) {
+            index.rebuild(products);
+        }
+        catalogVersion.incrementAndGet();
+        markSynced(snapshot, hash);
+        log.info("🔎 Índices del catálogo reconstruidos: {} productos, {} índices.", products.size(), indexes.size());
+    }
+
+    private void pollChanges() {
+        if (syncedSnapshot == null || syncedAt.plus(changeRetention.dividedBy(2)).isBefore(Instant.now())) {
+            // Sin sincronización reciente el registro de cambios puede estar purgado
+            reloadAll();
+            return;
+        }
+
+        String snapshot = productRepository.findCurrentSnapshot();
+        List<UUID> ids = productRepository.findProductIdsChangedAfter(syncedSnapshot);
+        if (ids.isEmpty()) {
+            markSynced(snapshot, contentHash);
+            return;
+        }
+        if (ids.size() > MAX_INCREMENTAL_CHANGES || ids.contains(null)) {
+            reloadAll();
+            return;
+        }
+
+        List<Product> found = productRepository.findAllById(ids);
+        if (found.size() < ids.size()) {
+            // Algún producto se eliminó: los índices solo admiten altas y modificaciones
+            reloadAll();
+            return;
+        }
+        List<Product> changed = new ArrayList<>();
+        for (Product product : found) {
+            // Un producto puede figurar en el registro sin cambios en sus datos indexados
+            if (!product.equals(catalog.get(product.getId()))) {
+                changed.add(product);
+            }
+        }
+        if (!changed.isEmpty()) {
+            applyChanges(changed);
+        }
+        markSynced(snapshot, contentHash);
+    }
+
+    /**
+     * Programa el refresco de los índices tras confirmarse la creación o modificación de un
+     * producto en este nodo. Si ya hay un refresco pendiente, el cambio se incorpora en él.
+     *
+     * @param event Evento del producto modificado.
+     */
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            try {
+                taskScheduler.schedule(() -> {
+                    // Se libera antes del sondeo para que un cambio confirmado durante él programe otro
+                    refreshScheduled.set(false);
+                    poll();
+                }, Instant.now());
+            } catch (TaskRejectedException e) {
+                // El sondeo periódico incorporará el cambio
+                refreshScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Actualiza el catálogo en memoria y propaga los cambios a los índices. Debe invocarse
+     * con el bloqueo adquirido.
+     *
+     * @param changed Productos creados o modificados.
+     */
+    private void applyChanges(List<Product> changed) {
+        for (Product product : changed) {
+            Product previous = catalog.put(product.getId(), product);
+            if (previous != null) {
+                contentHash -= contentHash(previous);
+            }
+            contentHash += contentHash(product);
+        }
+        List<Product> products = List.copyOf(catalog.values());
+        for (ProductIndex index : indexes) {
+            index.apply(changed, products);
+        }
+        catalogVersion.incrementAndGet();
+        log.debug("Índices del catálogo actualizados con {} productos modificados.", changed.size());
+    }
+
+    private void markSynced(String snapshot, long hash) {
+        syncedSnapshot = snapshot;
+        syncedAt = Instant.now();
+        contentHash = hash;
+        catalogTag = Long.toHexString(hash);
+    }
+
+    /**
+     * Hash de los campos de un producto que muestran las búsquedas, igual en todos los nodos
+     * (no depende de la identidad del objeto ni de la JVM).
+     */
+    private static long contentHash(Product product) {
+        long hash = product.getId().getMostSignificantBits() * 31 + product.getId().getLeastSignificantBits();
+        hash = hash * 31 + Objects.hashCode(product.getPartNumber());
+        hash = hash * 31 + Objects.hashCode(product.getName());
+        hash = hash * 31 + Objects.hashCode(product.getCategory());
+        hash = hash * 31 + Objects.hashCode(product.getStock());
+        // Mezcla final (SplitMix64) para que la suma de productos parecidos no colisione
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,137 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.model.dto.ProductSummaryResponse;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caché de resultados de la búsqueda de productos por palabra clave.
+ *
+ * Cada entrada guarda, como arreglo inmutable, las primeras filas de la búsqueda para una
+ * palabra clave normalizada y un stock mínimo de visibilidad. Se apoya en Caffeine, cuya
+ * política de tamaño (W-TinyLFU) retiene las búsquedas frecuentes frente a las que aparecen
+ * una sola vez. Registra sus estadísticas (aciertos, fallos, desalojos) en Micrometer con el
+ * nombre {@code productSearch}.
+ *
+ * Se mantiene como un {@link ProductIndex} más: al aplicarse cambios del catálogo se
+ * invalidan solo las entradas afectadas, es decir, las que contienen alguno de los productos
+ * modificados o cuya palabra clave coincide con su nuevo nombre o número de parte. Una
+ * reconstrucción completa vacía la caché.
+ *
+ */
+@Component
+public class ProductSearchCache implements ProductIndex {
+
+    private final Cache<Key, ProductSummaryResponse[]> cache;
+    /** Se incrementa con cada invalidación para descartar resultados leídos antes de ella. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Crea la caché con el tamaño y la expiración configurados.
+     *
+     * @param maximumSize Número máximo de búsquedas cacheadas.
+     * @param expireAfterWriteMs Tiempo máximo de vida de una entrada, en milisegundos.
+     * @param meterRegistry Registro de métricas.
+     */
+    public ProductSearchCache(@Value("${catalog.search-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${catalog.search-cache.expire-after-write-ms:600000}") long expireAfterWriteMs,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maximumSize))
+                .expireAfterWrite(Duration.ofMillis(Math.max(1, expireAfterWriteMs)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "productSearch");
+    }
+
+    /**
+     * Obtiene las filas cacheadas de una búsqueda o las carga y las guarda.
+     *
+     * @param keyword Palabra clave normalizada.
+     * @param minStock Stock mínimo de visibilidad con el que se filtró.
+     * @param loader Consulta a ejecutar en caso de fallo.
+     * @return Las filas de la búsqueda (lista inmutable).
+     */
+    public List<ProductSummaryResponse> getOrLoad(String keyword, int minStock, Supplier<List<ProductSummaryResponse>> loader) {
+        Key key = new Key(keyword, minStock);
+        ProductSummaryResponse[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Collections.unmodifiableList(Arrays.asList(cached));
+        }
+        long loadedAt = generation.get();
+        ProductSummaryResponse[] rows = loader.get().toArray(new ProductSummaryResponse[0]);
+        // Si el catálogo cambió durante la consulta, el resultado puede no reflejarlo y no se guarda
+        if (generation.get() == loadedAt) {
+            cache.put(key, rows);
+        }
+        return Collections.unmodifiableList(Arrays.asList(rows));
+    }
+
+    /**
+     * Vacía la caché tras una recarga completa del catálogo (que puede incluir eliminaciones).
+     *
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void rebuild(List<Product> products) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Invalida las búsquedas afectadas por los productos modificados.
+     *
+     * @param changed Productos creados o modificados.
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void apply(List<Product> changed, List<Product> products) {
+        generation.incrementAndGet();
+        cache.asMap().entrySet().removeIf(entry -> changed.stream()
+                .anyMatch(product -> affects(entry.getKey(), entry.getValue(), product)));
+    }
+
+    private static boolean affects(Key key, ProductSummaryResponse[] rows, Product product) {
+        if (contains(product.getName(), key.keyword()) || contains(product.getPartNumber(), key.keyword())) {
+            return true;
+        }
+        // Un producto que ya no coincide (por ejemplo, renombrado) debe desaparecer del resultado
+        UUID id = product.getId();
+        for (ProductSummaryResponse row : rows) {
+            if (id.equals(row.getProductId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(String text, String keyword) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(keyword);
+    }
+
+    /**
+     * Clave de la caché.
+     *
+     * @param keyword Palabra clave normalizada.
+     * @param minStock Stock mínimo de visibilidad.
+     */
+    private record Key(String keyword, int minStock) {
+    }
+}
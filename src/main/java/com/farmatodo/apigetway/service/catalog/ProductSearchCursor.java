@@ -0,0 +1,51 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posición de paginación por conjunto de claves (keyset) sobre el orden {@code (nombre, id)}.
+ *
+ * Se entrega al cliente como un texto opaco en Base64 (URL-safe) con el ID y el nombre del
+ * último producto de la página; la siguiente página continúa estrictamente después de esa
+ * posición, sin usar OFFSET.
+ *
+ * @param name Nombre del último producto retornado.
+ * @param id ID del último producto retornado.
+ */
+public record ProductSearchCursor(String name, UUID id) {
+
+    /** Longitud de la representación textual de un UUID. */
+    private static final int UUID_LENGTH = 36;
+
+    /**
+     * Codifica el cursor como texto opaco.
+     *
+     * @return El cursor codificado.
+     */
+    public String encode() {
+        // El ID tiene longitud fija, por lo que el nombre puede contener cualquier carácter
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param encoded El cursor codificado.
+     * @return El cursor decodificado.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    public static ProductSearchCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            if (raw.length() <= UUID_LENGTH || raw.charAt(UUID_LENGTH) != ':') {
+                throw new IllegalArgumentException("El cursor de paginación no es válido.");
+            }
+            return new ProductSearchCursor(raw.substring(UUID_LENGTH + 1), UUID.fromString(raw.substring(0, UUID_LENGTH)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El cursor de paginación no es válido.");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import com.farmatodo.apigetway.model.Product;
+import com.farmatodo.apigetway.model.dto.ProductSuggestionResponse;
+import com.farmatodo.apigetway.repository.SearchKeywordStatRepository;
+import com.farmatodo.apigetway.service.searchlog.KeywordNormalizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Índice de autocompletado sobre el nombre y el número de parte de los productos.
+ *
+ * Cada producto se indexa por su nombre completo, por el sufijo que comienza en cada palabra
+ * del nombre (para sugerir "ibuprofeno 400" al escribir "400") y por su número de parte. El
+ * ranking usa la popularidad de búsqueda agregada en {@code search_keyword_stat}: la suma de
+ * los conteos de las palabras clave que coinciden con el nombre completo, con alguna de sus
+ * palabras o con el número de parte. La popularidad se recalcula en cada reconstrucción
+ * completa; los cambios incrementales reutilizan la última calculada.
+ *
+ * Los cambios incrementales no reconstruyen el trie del catálogo completo: los productos
+ * modificados se indexan en un trie delta pequeño, y sus versiones anteriores se omiten al
+ * consultar el trie base. La consulta combina ambos por ranking. Cuando el delta supera
+ * {@code catalog.suggest.max-delta-ratio} del catálogo (o el mínimo de
+ * {@value #MIN_COMPACTION_THRESHOLD} productos), se compacta en un nuevo trie base.
+ *
+ */
+@Component
+public class ProductSuggestIndex implements ProductIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    /** Tamaño del delta por debajo del cual nunca se compacta. */
+    static final int MIN_COMPACTION_THRESHOLD = 1024;
+
+    private final SearchKeywordStatRepository searchKeywordStatRepository;
+    private final int popularKeywords;
+    private final int cacheDepth;
+    private final int cacheSize;
+    private final double maxDeltaRatio;
+
+    private volatile Map<String, Long> popularity = Map.of();
+    private volatile State state;
+
+    /**
+     * Crea el índice con la configuración indicada.
+     *
+     * @param searchKeywordStatRepository Repositorio de estadísticas de búsqueda (popularidad).
+     * @param popularKeywords Número de palabras clave más buscadas consideradas para el ranking.
+     * @param cacheDepth Profundidad máxima de los nodos con top-K precalculado.
+     * @param cacheSize Número de sugerencias precalculadas por nodo.
+     * @param maxDeltaRatio Fracción del catálogo que puede acumular el delta antes de compactarse.
+     */
+    public ProductSuggestIndex(SearchKeywordStatRepository searchKeywordStatRepository,
+                               @Value("${catalog.suggest.popular-keywords:5000}") int popularKeywords,
+                               @Value("${catalog.suggest.cache-depth:3}") int cacheDepth,
+                               @Value("${catalog.suggest.cache-size:32}") int cacheSize,
+                               @Value("${catalog.suggest.max-delta-ratio:0.05}") double maxDeltaRatio) {
+        this.searchKeywordStatRepository = searchKeywordStatRepository;
+        this.popularKeywords = popularKeywords;
+        this.cacheDepth = cacheDepth;
+        this.cacheSize = Math.max(1, cacheSize);
+        this.maxDeltaRatio = Math.max(0, maxDeltaRatio);
+        this.state = State.of(ProductSuggestTrie.build(List.of(), cacheDepth, this.cacheSize));
+    }
+
+    /**
+     * Recalcula la popularidad de búsqueda y reconstruye el trie.
+     *
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void rebuild(List<Product> products) {
+        try {
+            Map<String, Long> counts = new HashMap<>();
+            for (SearchKeywordStatRepository.KeywordPopularity keyword : searchKeywordStatRepository.findMostSearchedKeywords(popularKeywords)) {
+                counts.put(keyword.getKeyword(), keyword.getSearchCount());
+            }
+            popularity = counts;
+        } catch (Exception e) {
+            // Sin popularidad las sugerencias se ordenan alfabéticamente
+            log.warn("No se pudo cargar la popularidad de búsqueda para las sugerencias: {}", e.getMessage());
+        }
+        buildTrie(products);
+    }
+
+    /**
+     * Indexa los productos modificados en el trie delta, con la última popularidad calculada,
+     * o compacta el delta en un nuevo trie base si ha crecido demasiado.
+     *
+     * @param changed Productos creados o modificados.
+     * @param products Todos los productos del catálogo.
+     */
+    @Override
+    public void apply(List<Product> changed, List<Product> products) {
+        State current = state;
+        Map<UUID, ProductSuggestTrie.Entry> delta = new HashMap<>(current.deltaEntries());
+        Map<String, Long> counts = popularity;
+        for (Product product : changed) {
+            delta.put(product.getId(), toEntry(product, counts));
+        }
+        if (delta.size() > Math.max(MIN_COMPACTION_THRESHOLD, (long) (products.size() * maxDeltaRatio))) {
+            buildTrie(products);
+            return;
+        }
+        state = new State(current.base(), ProductSuggestTrie.build(List.copyOf(delta.values()), cacheDepth, cacheSize),
+                Map.copyOf(delta));
+        log.debug("Delta de sugerencias actualizado: {} productos.", delta.size());
+    }
+
+    /**
+     * Busca las sugerencias para un prefijo.
+     *
+     * @param prefix Texto escrito por el usuario (se normaliza internamente).
+     * @param minStock Stock mínimo para que un producto sea visible.
+     * @param limit Número máximo de sugerencias.
+     * @return Las sugerencias, de la más a la menos popular.
+     */
+    public List<ProductSuggestionResponse> suggest(String prefix, int minStock, int limit) {
+        String normalized = KeywordNormalizer.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        State current = state;
+        List<ProductSuggestTrie.Entry> base = current.base().search(normalized, minStock, limit, current.deltaEntries().keySet());
+        List<ProductSuggestTrie.Entry> delta = current.delta().search(normalized, minStock, limit, Set.of());
+        return ProductSuggestTrie.merge(base, delta, limit).stream()
+                .map(entry -> new ProductSuggestionResponse(entry.productId(), entry.partNumber(), entry.name()))
+                .toList();
+    }
+
+    private void buildTrie(List<Product> products) {
+        Map<String, Long> counts = popularity;
+        List<ProductSuggestTrie.Entry> entries = new ArrayList<>(products.size());
+        for (Product product : products) {
+            entries.add(toEntry(product, counts));
+        }
+        ProductSuggestTrie trie = ProductSuggestTrie.build(entries, cacheDepth, cacheSize);
+        state = State.of(trie);
+        log.debug("Trie de sugerencias construido: {} productos, {} nodos.", entries.size(), trie.size());
+    }
+
+    private static ProductSuggestTrie.Entry toEntry(Product product, Map<String, Long> counts) {
+        String name = KeywordNormalizer.normalize(product.getName());
+        String partNumber = KeywordNormalizer.normalize(product.getPartNumber());
+
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(name);
+        keys.add(partNumber);
+        long score = counts.getOrDefault(name, 0L) + counts.getOrDefault(partNumber, 0L);
+        for (int i = 0; i < name.length(); i++) {
+            if (i > 0 && name.charAt(i - 1) == ' ') {
+                keys.add(name.substring(i));
+            }
+            if (i == 0 || name.charAt(i - 1) == ' ') {
+                int end = name.indexOf(' ', i);
+                String word = end < 0 ? name.substring(i) : name.substring(i, end);
+                if (!word.equals(name)) {
+                    score += counts.getOrDefault(word, 0L);
+                }
+            }
+        }
+        return new ProductSuggestTrie.Entry(product.getId(), product.getPartNumber(), product.getName(),
+                product.getStock() == null ? 0 : product.getStock(), score, List.copyOf(keys));
+    }
+
+    /**
+     * Estado publicado del índice.
+     *
+     * @param base Trie del catálogo en la última reconstrucción o compactación.
+     * @param delta Trie de los productos modificados desde entonces.
+     * @param deltaEntries Entradas del delta por producto; sus versiones en el trie base se omiten.
+     */
+    private record State(ProductSuggestTrie base, ProductSuggestTrie delta,
+                         Map<UUID, ProductSuggestTrie.Entry> deltaEntries) {
+
+        static State of(ProductSuggestTrie base) {
+            return new State(base, ProductSuggestTrie.build(List.of(), 0, 1), Map.of());
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Trie inmutable y compacto para el autocompletado de productos por prefijo.
+ *
+ * Los nodos se almacenan en arreglos paralelos en preorden, por lo que el subárbol de un
+ * nodo {@code i} ocupa el rango contiguo {@code [i, subtreeEnd[i])} y sus publicaciones
+ * (entradas que terminan en él o en sus descendientes) ocupan también un rango contiguo
+ * de {@code postings}. Las entradas se numeran por ranking (popularidad descendente), así
+ * que el top-K de un prefijo son los K índices distintos más pequeños de su rango. Para los
+ * nodos poco profundos, cuyo subárbol es grande, ese top-K se precalcula al construir.
+ *
+ * No depende de JPA: se construye a partir de {@link Entry} y es seguro para lecturas
+ * concurrentes.
+ *
+ */
+final class ProductSuggestTrie {
+
+    /**
+     * Entrada indexada: un producto visible en las sugerencias.
+     *
+     * @param productId ID del producto.
+     * @param partNumber Número de parte del producto.
+     * @param name Nombre del producto.
+     * @param stock Stock actual (para aplicar el filtro de visibilidad en la consulta).
+     * @param score Popularidad de búsqueda del producto.
+     * @param keys Claves normalizadas por las que se puede encontrar el producto.
+     */
+    record Entry(UUID productId, String partNumber, String name, int stock, long score, List<String> keys) {
+    }
+
+    /** Orden de ranking: mayor popularidad primero y, a igualdad, orden alfabético. */
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::name)
+            .thenComparing(Entry::productId);
+
+    private final Entry[] entries;
+    private final char[] labels;
+    private final int[] subtreeEnd;
+    private final int[] postingOffsets;
+    private final int[] postings;
+    private final int[][] topCache;
+    private final int cacheSize;
+
+    private ProductSuggestTrie(Entry[] entries, char[] labels, int[] subtreeEnd, int[] postingOffsets,
+                               int[] postings, int[][] topCache, int cacheSize) {
+        this.entries = entries;
+        this.labels = labels;
+        this.subtreeEnd = subtreeEnd;
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+        this.topCache = topCache;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Construye el trie para las entradas indicadas.
+     *
+     * @param source Entradas a indexar.
+     * @param cacheDepth Profundidad máxima de los nodos con top-K precalculado.
+     * @param cacheSize Número de entradas precalculadas por nodo.
+     * @return El trie construido.
+     */
+    static ProductSuggestTrie build(List<Entry> source, int cacheDepth, int cacheSize) {
+        Entry[] entries = source.toArray(new Entry[0]);
+        Arrays.sort(entries, RANKING);
+
+        // Claves ordenadas: en orden lexicográfico, cada hijo nuevo siempre es el último del padre
+        List<Key> keys = new ArrayList<>();
+        for (int id = 0; id < entries.length; id++) {
+            Entry entry = entries[id];
+            for (String key : entry.keys()) {
+                if (!key.isEmpty()) {
+                    keys.add(new Key(key, id));
+                }
+            }
+            // Las claves ya están representadas en los nodos; no se retienen en la entrada
+            entries[id] = new Entry(entry.productId(), entry.partNumber(), entry.name(), entry.stock(), entry.score(), List.of());
+        }
+        keys.sort(Comparator.comparing(Key::text).thenComparingInt(Key::entryId));
+
+        BuilderNode root = new BuilderNode('\0');
+        int nodeCount = 1;
+        for (Key key : keys) {
+            BuilderNode node = root;
+            for (int i = 0; i < key.text().length(); i++) {
+                char c = key.text().charAt(i);
+                BuilderNode last = node.children.isEmpty() ? null : node.children.get(node.children.size() - 1);
+                if (last == null || last.label != c) {
+                    last = new BuilderNode(c);
+                    node.children.add(last);
+                    nodeCount++;
+                }
+                node = last;
+            }
+            if (node.postings.isEmpty() || node.postings.get(node.postings.size() - 1) != key.entryId()) {
+                node.postings.add(key.entryId());
+            }
+        }
+
+        Flattener flattener = new Flattener(nodeCount, keys.size());
+        flattener.visit(root, 0);
+        flattener.postingOffsets[nodeCount] = flattener.postingCount;
+
+        int[][] topCache = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            if (flattener.depths[node] <= cacheDepth) {
+                topCache[node] = collect(flattener.postings, flattener.postingOffsets[node],
+                        flattener.postingOffsets[flattener.subtreeEnd[node]], cacheSize);
+            }
+        }
+
+        return new ProductSuggestTrie(entries, flattener.labels, flattener.subtreeEnd, flattener.postingOffsets,
+                Arrays.copyOf(flattener.postings, flattener.postingCount), topCache, cacheSize);
+    }
+
+    /**
+     * Busca las entradas mejor clasificadas cuyo alguna clave comienza por el prefijo.
+     *
+     * @param prefix Prefijo normalizado.
+     * @param minStock Stock mínimo para que una entrada sea visible.
+     * @param limit Número máximo de entradas a retornar.
+     * @param excluded Productos a omitir (por ejemplo, los reemplazados por una versión más reciente).
+     * @return Las entradas encontradas, ordenadas por ranking.
+     */
+    List<Entry> search(String prefix, int minStock, int limit, Set<UUID> excluded) {
+        int node = find(prefix);
+        if (node < 0 || limit <= 0) {
+            return List.of();
+        }
+
+        int[] cached = topCache[node];
+        if (cached != null) {
+            List<Entry> result = filter(cached, minStock, limit, excluded);
+            // La caché contiene el subárbol completo o ya alcanzó el límite tras filtrar por stock
+            if (result.size() == limit || cached.length < cacheSize) {
+                return result;
+            }
+        }
+        int[] ranked = collect(postings, postingOffsets[node], postingOffsets[subtreeEnd[node]], Integer.MAX_VALUE);
+        return filter(ranked, minStock, limit, excluded);
+    }
+
+    /**
+     * Número de nodos del trie.
+     *
+     * @return El número de nodos.
+     */
+    int size() {
+        return labels.length;
+    }
+
+    private int find(String prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            int child = node + 1;
+            int end = subtreeEnd[node];
+            while (child < end && labels[child] != c) {
+                child = subtreeEnd[child];
+            }
+            if (child >= end) {
+                return -1;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Combina dos listas ordenadas por ranking y conserva las primeras.
+     *
+     * @param first Primera lista, ordenada por ranking.
+     * @param second Segunda lista, ordenada por ranking.
+     * @param limit Número máximo de entradas a retornar.
+     * @return Las entradas mejor clasificadas de ambas listas.
+     */
+    static List<Entry> merge(List<Entry> first, List<Entry> second, int limit) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        List<Entry> merged = new ArrayList<>(first.size() + second.size());
+        merged.addAll(first);
+        merged.addAll(second);
+        merged.sort(RANKING);
+        return merged.size() > limit ? List.copyOf(merged.subList(0, limit)) : merged;
+    }
+
+    private List<Entry> filter(int[] ranked, int minStock, int limit, Set<UUID> excluded) {
+        List<Entry> result = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int id : ranked) {
+            Entry entry = entries[id];
+            if (entry.stock() >= minStock && !excluded.contains(entry.productId())) {
+                result.add(entry);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene los índices de entrada distintos más pequeños (mejor clasificados) de un rango.
+     */
+    private static int[] collect(int[] postings, int from, int to, int max) {
+        int[] ids = Arrays.copyOfRange(postings, from, to);
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length && distinct < max; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    private record Key(String text, int entryId) {
+    }
+
+    private static final class BuilderNode {
+        private final char label;
+        private final List<BuilderNode> children = new ArrayList<>(2);
+        private final List<Integer> postings = new ArrayList<>(1);
+
+        private BuilderNode(char label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Convierte el árbol de construcción en los arreglos paralelos en preorden.
+     */
+    private static final class Flattener {
+        private final char[] labels;
+        private final int[] subtreeEnd;
+        private final int[] depths;
+        private final int[] postingOffsets;
+        private final int[] postings;
+        private int nodeCount;
+        private int postingCount;
+
+        private Flattener(int nodes, int maxPostings) {
+            this.labels = new char[nodes];
+            this.subtreeEnd = new int[nodes];
+            this.depths = new int[nodes];
+            this.postingOffsets = new int[nodes + 1];
+            this.postings = new int[maxPostings];
+        }
+
+        private void visit(BuilderNode node, int depth) {
+            int index = nodeCount++;
+            labels[index] = node.label;
+            depths[index] = depth;
+            postingOffsets[index] = postingCount;
+            for (int id : node.postings) {
+                postings[postingCount++] = id;
+            }
+            for (BuilderNode child : node.children) {
+                visit(child, depth + 1);
+            }
+            subtreeEnd[index] = nodeCount;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trie inmutable sobre un vocabulario de palabras, con búsqueda por distancia de Levenshtein.
+ *
+ * La búsqueda recorre el trie calculando una fila de la matriz de Levenshtein por nodo (la
+ * fila del padre se reutiliza para todos sus hijos), lo que equivale a simular un autómata
+ * de Levenshtein sobre el vocabulario. Si el mínimo de una fila supera la distancia máxima,
+ * ningún descendiente puede coincidir y se descarta el subárbol completo, por lo que solo se
+ * visita una fracción pequeña del vocabulario. Los nodos se guardan en arreglos paralelos en
+ * preorden: el subárbol del nodo {@code i} ocupa el rango {@code [i, subtreeEnd[i])}.
+ *
+ */
+final class VocabularyTrie {
+
+    /**
+     * Palabra encontrada por una búsqueda.
+     *
+     * @param wordId ID de la palabra en el vocabulario.
+     * @param distance Distancia de edición a la consulta.
+     */
+    record Match(int wordId, int distance) {
+    }
+
+    private final String[] words;
+    private final char[] labels;
+    private final int[] depths;
+    private final int[] subtreeEnd;
+    private final int[] terminalWord;
+    private final int maxDepth;
+
+    private VocabularyTrie(String[] words, char[] labels, int[] depths, int[] subtreeEnd, int[] terminalWord, int maxDepth) {
+        this.words = words;
+        this.labels = labels;
+        this.depths = depths;
+        this.subtreeEnd = subtreeEnd;
+        this.terminalWord = terminalWord;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Construye el trie para el vocabulario indicado.
+     *
+     * @param words Vocabulario sin duplicados; la posición de cada palabra es su ID.
+     * @return El trie construido.
+     */
+    static VocabularyTrie build(String[] words) {
+        Integer[] order = new Integer[words.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> words[a].compareTo(words[b]));
+
+        // Con las palabras ordenadas, el camino compartido con la palabra anterior es su prefijo común
+        List<Character> labels = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> terminals = new ArrayList<>();
+        labels.add('\0');
+        depths.add(0);
+        terminals.add(-1);
+        int[] path = new int[64];
+        String previous = "";
+        int maxDepth = 0;
+        for (int id : order) {
+            String word = words[id];
+            int common = 0;
+            while (common < word.length() && common < previous.length() && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+            if (path.length <= word.length()) {
+                path = Arrays.copyOf(path, word.length() * 2);
+            }
+            for (int depth = common + 1; depth <= word.length(); depth++) {
+                path[depth] = labels.size();
+                labels.add(word.charAt(depth - 1));
+                depths.add(depth);
+                terminals.add(-1);
+            }
+            terminals.set(path[word.length()], id);
+            maxDepth = Math.max(maxDepth, word.length());
+            previous = word;
+        }
+
+        int n = labels.size();
+        char[] labelArray = new char[n];
+        int[] depthArray = new int[n];
+        int[] terminalArray = new int[n];
+        for (int i = 0; i < n; i++) {
+            labelArray[i] = labels.get(i);
+            depthArray[i] = depths.get(i);
+            terminalArray[i] = terminals.get(i);
+        }
+        // El subárbol de un nodo termina en el primer nodo posterior con profundidad menor o igual
+        int[] subtreeEnd = new int[n];
+        int[] open = new int[maxDepth + 2];
+        int top = 0;
+        for (int i = 0; i < n; i++) {
+            while (top > 0 && depthArray[open[top - 1]] >= depthArray[i]) {
+                subtreeEnd[open[--top]] = i;
+            }
+            open[top++] = i;
+        }
+        while (top > 0) {
+            subtreeEnd[open[--top]] = n;
+        }
+        return new VocabularyTrie(words, labelArray, depthArray, subtreeEnd, terminalArray, maxDepth);
+    }
+
+    /**
+     * Busca las palabras a una distancia de edición menor o igual que {@code maxDistance}.
+     *
+     * @param query Palabra consultada (normalizada).
+     * @param maxDistance Distancia máxima permitida.
+     * @return Las palabras encontradas con su distancia.
+     */
+    List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        int columns = query.length() + 1;
+        int[][] rows = new int[maxDepth + 1][columns];
+        for (int j = 0; j < columns; j++) {
+            rows[0][j] = j;
+        }
+
+        int node = 1;
+        while (node < labels.length) {
+            int depth = depths[node];
+            int[] parent = rows[depth - 1];
+            int[] row = rows[depth];
+            char c = labels[node];
+            row[0] = depth;
+            int rowMin = row[0];
+            for (int j = 1; j < columns; j++) {
+                int cost = query.charAt(j - 1) == c ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, parent[j] + 1), parent[j - 1] + cost);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (terminalWord[node] >= 0 && row[columns - 1] <= maxDistance) {
+                matches.add(new Match(terminalWord[node], row[columns - 1]));
+            }
+            // Si ninguna celda está dentro del límite, ningún descendiente puede coincidir
+            node = rowMin <= maxDistance ? node + 1 : subtreeEnd[node];
+        }
+        return matches;
+    }
+
+    /**
+     * Palabra del vocabulario con el ID indicado.
+     *
+     * @param wordId ID de la palabra.
+     * @return La palabra.
+     */
+    String word(int wordId) {
+        return words[wordId];
+    }
+
+    /**
+     * Número de palabras del vocabulario.
+     *
+     * @return El tamaño del vocabulario.
+     */
+    int size() {
+        return words.length;
+    }
+}
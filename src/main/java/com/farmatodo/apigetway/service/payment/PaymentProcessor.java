@@ -0,0 +1,25 @@
+package com.farmatodo.apigetway.service.payment;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Contrato (SPI) para los procesadores de pago que deciden si una transacción
+ * es aprobada, rechazada o excede el tiempo de espera del proveedor.
+ *
+ * Permite sustituir el simulador local por una integración real sin modificar
+ * la lógica de negocio de {@link com.farmatodo.apigetway.service.OrderService}.
+ *
+ */
+public interface PaymentProcessor {
+
+    /**
+     * Solicita la autorización de un pago.
+     *
+     * @param orderId ID del pedido que se intenta pagar.
+     * @param tokenizedCardId ID de la tarjeta tokenizada asociada al pedido.
+     * @param amount Monto a cobrar.
+     * @return El {@link PaymentResult} con la decisión del procesador.
+     */
+    PaymentResult authorize(UUID orderId, UUID tokenizedCardId, BigDecimal amount);
+}
@@ -0,0 +1,43 @@
+package com.farmatodo.apigetway.service.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado inmutable de una autorización de pago devuelto por un {@link PaymentProcessor}.
+ */
+@Getter
+@AllArgsConstructor
+public class PaymentResult {
+
+    /**
+     * Posibles decisiones de un procesador de pagos.
+     */
+    public enum Outcome {
+        /** El pago fue aprobado. */
+        APPROVED,
+        /** El pago fue rechazado por el proveedor. */
+        REJECTED,
+        /** El proveedor no respondió dentro del tiempo máximo configurado. */
+        TIMEOUT
+    }
+
+    /**
+     * Decisión del procesador.
+     */
+    private final Outcome outcome;
+
+    /**
+     * Latencia observada de la llamada al procesador, en milisegundos.
+     */
+    private final long latencyMs;
+
+    /**
+     * Indica si el pago fue aprobado.
+     *
+     * @return {@code true} si el resultado es {@link Outcome#APPROVED}.
+     */
+    public boolean isApproved() {
+        return outcome == Outcome.APPROVED;
+    }
+}
@@ -0,0 +1,152 @@
+package com.farmatodo.apigetway.service.payment;
+
+import com.farmatodo.apigetway.service.PreferenceService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Procesador de pagos local que simula el comportamiento de un proveedor externo.
+ *
+ * La tasa de rechazo se obtiene de la preferencia {@code payment.rejection_rate} y la
+ * latencia se modela con una distribución configurable ({@code NONE}, {@code FIXED},
+ * {@code UNIFORM}, {@code NORMAL} o {@code LOG_NORMAL}). Si la latencia muestreada supera
+ * el tiempo máximo configurado, la llamada se corta en ese límite y se reporta como
+ * {@link PaymentResult.Outcome#TIMEOUT}. Utiliza {@link ThreadLocalRandom} para evitar
+ * contención entre hilos concurrentes.
+ *
+ */
+@Component
+@RequiredArgsConstructor
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+
+    /**
+     * Distribuciones de latencia soportadas por el simulador.
+     */
+    public enum LatencyDistribution {
+        /** Sin latencia añadida. */
+        NONE,
+        /** Latencia constante igual a la media. */
+        FIXED,
+        /** Latencia uniforme entre el mínimo y el máximo. */
+        UNIFORM,
+        /** Latencia normal con la media y desviación estándar configuradas. */
+        NORMAL,
+        /** Latencia log-normal (cola larga) con la media y desviación estándar configuradas. */
+        LOG_NORMAL
+    }
+
+    private final PreferenceService preferenceService;
+    private static final Logger log = LoggerFactory.getLogger(SimulatedPaymentProcessor.class);
+
+    private static final String PAYMENT_REJECTION_RATE_KEY = PreferenceService.PAYMENT_REJECTION_RATE;
+
+    @Value("${payment.simulator.latency.distribution:NONE}")
+    private LatencyDistribution latencyDistribution;
+
+    @Value("${payment.simulator.latency.mean-ms:0}")
+    private long latencyMeanMs;
+
+    @Value("${payment.simulator.latency.stddev-ms:0}")
+    private long latencyStdDevMs;
+
+    @Value("${payment.simulator.latency.min-ms:0}")
+    private long latencyMinMs;
+
+    @Value("${payment.simulator.latency.max-ms:0}")
+    private long latencyMaxMs;
+
+    @Value("${payment.simulator.timeout-ms:5000}")
+    private long timeoutMs;
+
+    /**
+     * Simula la autorización de un pago aplicando la latencia y la tasa de rechazo configuradas.
+     *
+     * @param orderId ID del pedido que se intenta pagar.
+     * @param tokenizedCardId ID de la tarjeta tokenizada asociada al pedido.
+     * @param amount Monto a cobrar.
+     * @return El {@link PaymentResult} simulado.
+     */
+    @Override
+    public PaymentResult authorize(UUID orderId, UUID tokenizedCardId, BigDecimal amount) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = sampleLatencyMs(random);
+
+        if (timeoutMs > 0 && latency > timeoutMs) {
+            sleep(timeoutMs);
+            log.warn("⏱️ Tiempo de espera agotado simulado para el pedido {} tras {} ms", orderId, timeoutMs);
+            return new PaymentResult(PaymentResult.Outcome.TIMEOUT, timeoutMs);
+        }
+        sleep(latency);
+
+        Integer rejectionRate = preferenceService.getPreferenceValueAsInteger(PAYMENT_REJECTION_RATE_KEY);
+        int randomNumber = random.nextInt(100) + 1;
+
+        PaymentResult.Outcome outcome = randomNumber <= rejectionRate
+                ? PaymentResult.Outcome.REJECTED
+                : PaymentResult.Outcome.APPROVED;
+        return new PaymentResult(outcome, latency);
+    }
+
+    /**
+     * Obtiene una muestra de latencia (en milisegundos) según la distribución configurada.
+     *
+     * @param random Generador aleatorio del hilo actual.
+     * @return La latencia muestreada, nunca negativa.
+     */
+    private long sampleLatencyMs(ThreadLocalRandom random) {
+        double sample = switch (latencyDistribution) {
+            case NONE -> 0;
+            case FIXED -> latencyMeanMs;
+            case UNIFORM -> latencyMaxMs > latencyMinMs
+                    ? random.nextLong(latencyMinMs, latencyMaxMs + 1)
+                    : latencyMinMs;
+            case NORMAL -> latencyMeanMs + random.nextGaussian() * latencyStdDevMs;
+            case LOG_NORMAL -> sampleLogNormal(random);
+        };
+        return Math.max(0L, Math.round(sample));
+    }
+
+    /**
+     * Muestrea una distribución log-normal cuya media y desviación estándar (en la escala
+     * original) coinciden con los valores configurados.
+     *
+     * @param random Generador aleatorio del hilo actual.
+     * @return La latencia muestreada en milisegundos.
+     */
+    private double sampleLogNormal(ThreadLocalRandom random) {
+        if (latencyMeanMs <= 0) {
+            return 0;
+        }
+        double mean = latencyMeanMs;
+        double variance = (double) latencyStdDevMs * latencyStdDevMs;
+        double sigmaSquared = Math.log(1 + variance / (mean * mean));
+        double mu = Math.log(mean) - sigmaSquared / 2;
+        return Math.exp(mu + Math.sqrt(sigmaSquared) * random.nextGaussian());
+    }
+
+    /**
+     * Bloquea el hilo actual durante la latencia simulada.
+     *
+     * @param millis Milisegundos a esperar.
+     */
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
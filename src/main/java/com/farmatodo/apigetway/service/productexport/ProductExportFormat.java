@@ -0,0 +1,55 @@
+package com.farmatodo.apigetway.service.productexport;
+
+import java.util.Locale;
+
+/**
+ * Formatos de salida soportados por la exportación del catálogo.
+ */
+public enum ProductExportFormat {
+
+    /** CSV con cabecera. */
+    CSV("text/csv", "csv"),
+    /** Un objeto JSON por línea. */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ProductExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Tipo de contenido HTTP del formato.
+     *
+     * @return El tipo de contenido.
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Extensión del archivo exportado.
+     *
+     * @return La extensión, sin punto.
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Obtiene el formato a partir de su nombre (sin distinguir mayúsculas).
+     *
+     * @param name Nombre del formato ({@code csv} o {@code ndjson}).
+     * @return El formato correspondiente.
+     * @throws IllegalArgumentException Si el formato no está soportado.
+     */
+    public static ProductExportFormat fromName(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + name + ". Use csv o ndjson.");
+        }
+    }
+}
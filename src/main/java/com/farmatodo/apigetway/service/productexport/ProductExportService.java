@@ -0,0 +1,189 @@
+package com.farmatodo.apigetway.service.productexport;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Servicio de exportación del catálogo completo de productos.
+ *
+ * Recorre la tabla {@code products} con un cursor del servidor (en PostgreSQL, una consulta
+ * con {@code fetchSize} dentro de una transacción) y escribe cada fila directamente en el
+ * flujo de salida, sin materializar entidades ni acumular resultados: la memoria usada es
+ * constante con independencia del tamaño del catálogo. Las filas se entregan sin un orden
+ * garantizado.
+ *
+ */
+@Service
+public class ProductExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductExportService.class);
+
+    /** Tamaño del búfer de escritura. */
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private static final String EXPORT_SQL =
+            "SELECT id, part_number, name, category, stock, creation_date, update_date FROM products";
+
+    private static final String CSV_HEADER = "id,part_number,name,category,stock,creation_date,update_date\n";
+
+    private final JdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Crea el servicio de exportación.
+     *
+     * @param dataSource Origen de datos.
+     * @param transactionManager Gestor de transacciones; la exportación usa una transacción de solo lectura.
+     * @param objectMapper Mapeador JSON para el formato NDJSON.
+     * @param fetchSize Número de filas que el cursor trae de la base de datos en cada viaje.
+     */
+    public ProductExportService(DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                @Value("${product-export.fetch-size:5000}") int fetchSize) {
+        this.exportJdbcTemplate = new JdbcTemplate(dataSource);
+        this.exportJdbcTemplate.setFetchSize(Math.max(1, fetchSize));
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribe el catálogo completo en el flujo indicado.
+     *
+     * @param format Formato de salida.
+     * @param gzip Si es {@code true}, comprime la salida con gzip.
+     * @param output Flujo de salida (no se cierra).
+     * @return Número de productos exportados.
+     * @throws UncheckedIOException Si falla la escritura (por ejemplo, el cliente cerró la conexión).
+     */
+    public long export(ProductExportFormat format, boolean gzip, OutputStream output) {
+        long start = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        try {
+            // Los flujos intermedios no se cierran: el flujo de la respuesta pertenece al contenedor
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(output, OUTPUT_BUFFER_SIZE) : null;
+            OutputStream target = compressed != null ? compressed : output;
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                try {
+                    if (format == ProductExportFormat.CSV) {
+                        writeCsv(target, rows);
+                    } else {
+                        writeNdjson(target, rows);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (compressed != null) {
+                compressed.finish();
+            }
+            output.flush();
+        } catch (IOException e) {
+            log.warn("Exportación de productos interrumpida tras {} filas: {}", rows.get(), e.getMessage());
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            log.warn("Exportación de productos interrumpida tras {} filas: {}", rows.get(), e.getMessage());
+            throw e;
+        }
+        log.info("📤 Catálogo exportado ({}{}): {} productos en {} ms.", format, gzip ? ", gzip" : "",
+                rows.get(), (System.nanoTime() - start) / 1_000_000);
+        return rows.get();
+    }
+
+    private void writeCsv(OutputStream output, AtomicLong rows) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), OUTPUT_BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        exportJdbcTemplate.query(EXPORT_SQL, rs -> {
+            try {
+                writer.write(rs.getString("id"));
+                writer.write(',');
+                writeCsvField(writer, rs.getString("part_number"));
+                writer.write(',');
+                writeCsvField(writer, rs.getString("name"));
+                writer.write(',');
+                writeCsvField(writer, rs.getString("category"));
+                writer.write(',');
+                writer.write(Integer.toString(rs.getInt("stock")));
+                writer.write(',');
+                writer.write(timestamp(rs, "creation_date"));
+                writer.write(',');
+                writer.write(timestamp(rs, "update_date"));
+                writer.write('\n');
+                rows.incrementAndGet();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeNdjson(OutputStream output, AtomicLong rows) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        exportJdbcTemplate.query(EXPORT_SQL, rs -> {
+            try {
+                generator.writeStartObject();
+                generator.writeStringField("id", rs.getString("id"));
+                generator.writeStringField("partNumber", rs.getString("part_number"));
+                generator.writeStringField("name", rs.getString("name"));
+                generator.writeStringField("category", rs.getString("category"));
+                generator.writeNumberField("stock", rs.getInt("stock"));
+                generator.writeStringField("creationDate", nullableTimestamp(rs, "creation_date"));
+                generator.writeStringField("updateDate", nullableTimestamp(rs, "update_date"));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                rows.incrementAndGet();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        String value = nullableTimestamp(rs, column);
+        return value == null ? "" : value;
+    }
+
+    private static String nullableTimestamp(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,138 @@
+package com.farmatodo.apigetway.service.productimport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lector de archivos CSV (RFC 4180): separador coma, campos opcionalmente entre comillas dobles
+ * (que pueden contener comas, saltos de línea y comillas duplicadas) y cabecera obligatoria. Los
+ * nombres de columna se comparan sin distinguir mayúsculas ni guiones bajos, por lo que
+ * {@code part_number} y {@code partNumber} son equivalentes.
+ */
+final class CsvProductImportReader implements ProductImportReader {
+
+    private static final String[] REQUIRED_COLUMNS = {"partnumber", "name", "category", "stock"};
+
+    private final BufferedReader reader;
+    private final int[] columnIndex = new int[REQUIRED_COLUMNS.length];
+    private long line = 1;
+    private boolean unterminatedQuote;
+    private boolean oversized;
+
+    CsvProductImportReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("El archivo CSV está vacío.");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            positions.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        for (int i = 0; i < REQUIRED_COLUMNS.length; i++) {
+            Integer position = positions.get(REQUIRED_COLUMNS[i]);
+            if (position == null) {
+                throw new IllegalArgumentException("La cabecera CSV debe contener las columnas part_number, name, category y stock.");
+            }
+            columnIndex[i] = position;
+        }
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        while (true) {
+            long start = line;
+            List<String> fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+            if (oversized) {
+                return ProductImportRow.malformed(start, "La fila excede " + MAX_RECORD_LENGTH + " caracteres.");
+            }
+            if (unterminatedQuote) {
+                return ProductImportRow.malformed(start, "Comillas sin cerrar.");
+            }
+            if (fields.size() == 1 && fields.get(0).isBlank()) {
+                continue; // Línea vacía
+            }
+            for (int index : columnIndex) {
+                if (index >= fields.size()) {
+                    return ProductImportRow.malformed(start, "La fila tiene " + fields.size() + " columnas.");
+                }
+            }
+            return new ProductImportRow(start, fields.get(columnIndex[0]), fields.get(columnIndex[1]),
+                    fields.get(columnIndex[2]), fields.get(columnIndex[3]), null);
+        }
+    }
+
+    /**
+     * Lee un registro completo, que puede ocupar varias líneas si contiene campos entre comillas.
+     * Si supera {@link #MAX_RECORD_LENGTH} caracteres, descarta el resto de la línea en curso y
+     * marca el registro como demasiado largo.
+     *
+     * @return Los campos del registro, o {@code null} al final del archivo.
+     */
+    private List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int length = 0;
+        oversized = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            read = true;
+            if (++length > MAX_RECORD_LENGTH && (quoted || c != '\n')) {
+                oversized = true;
+                while (c != '\n' && c != -1) {
+                    c = reader.read();
+                }
+                if (c == '\n') {
+                    line++;
+                }
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                line++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        unterminatedQuote = quoted;
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,89 @@
+package com.farmatodo.apigetway.service.productimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lector de archivos NDJSON: un objeto JSON por línea. Una línea mal formada o de más de
+ * {@link #MAX_RECORD_LENGTH} caracteres se reporta como error de esa fila sin interrumpir la
+ * lectura de las siguientes.
+ */
+final class NdjsonProductImportReader implements ProductImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder buffer = new StringBuilder();
+    private long line;
+    private boolean oversized;
+
+    NdjsonProductImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        String text;
+        while ((text = readLine()) != null) {
+            line++;
+            if (oversized) {
+                return ProductImportRow.malformed(line, "La fila excede " + MAX_RECORD_LENGTH + " caracteres.");
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException e) {
+                return ProductImportRow.malformed(line, "JSON inválido: " + e.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return ProductImportRow.malformed(line, "Cada línea debe ser un objeto JSON.");
+            }
+            return new ProductImportRow(line, text(node, "partNumber", "part_number"), text(node, "name", null),
+                    text(node, "category", null), text(node, "stock", null), null);
+        }
+        return null;
+    }
+
+    /**
+     * Lee una línea sin su terminador ({@code \n} o {@code \r\n}). Si supera
+     * {@link #MAX_RECORD_LENGTH} caracteres, descarta el resto y la marca como demasiado larga.
+     *
+     * @return La línea, o {@code null} al final del archivo.
+     */
+    private String readLine() throws IOException {
+        buffer.setLength(0);
+        oversized = false;
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (buffer.length() < MAX_RECORD_LENGTH) {
+                buffer.append((char) c);
+            } else if (c != '\r') {
+                oversized = true;
+            }
+            c = reader.read();
+        }
+        int end = buffer.length();
+        if (end > 0 && buffer.charAt(end - 1) == '\r') {
+            buffer.setLength(end - 1);
+        }
+        return oversized ? "" : buffer.toString();
+    }
+
+    private static String text(JsonNode node, String field, String alias) {
+        JsonNode value = node.get(field);
+        if ((value == null || value.isNull()) && alias != null) {
+            value = node.get(alias);
+        }
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,48 @@
+package com.farmatodo.apigetway.service.productimport;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formatos de archivo soportados por la importación masiva de productos.
+ */
+public enum ProductImportFormat {
+
+    /** CSV con cabecera (columnas {@code part_number}, {@code name}, {@code category}, {@code stock}). */
+    CSV("text/csv"),
+    /** Un objeto JSON por línea ({@code partNumber}, {@code name}, {@code category}, {@code stock}). */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    ProductImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Tipo de contenido HTTP del formato.
+     *
+     * @return El tipo de contenido.
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Obtiene el formato correspondiente a la cabecera {@code Content-Type} de la petición.
+     *
+     * @param contentType Valor de la cabecera (puede incluir parámetros como {@code charset}).
+     * @return El formato correspondiente.
+     * @throws IllegalArgumentException Si el tipo de contenido no está soportado.
+     */
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (ProductImportFormat format : values()) {
+                if (MediaType.parseMediaType(format.mediaType).equalsTypeAndSubtype(type)) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Tipo de contenido no soportado: " + contentType + ". Use text/csv o application/x-ndjson.");
+    }
+}
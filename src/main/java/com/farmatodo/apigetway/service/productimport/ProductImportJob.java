@@ -0,0 +1,117 @@
+package com.farmatodo.apigetway.service.productimport;
+
+import com.farmatodo.apigetway.model.dto.ProductImportError;
+import com.farmatodo.apigetway.model.dto.ProductImportReport;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estado de una importación en curso o finalizada. Lo actualiza el hilo que procesa la
+ * importación y lo consultan las peticiones de progreso.
+ */
+final class ProductImportJob {
+
+    static final String STATUS_RUNNING = "RUNNING";
+    static final String STATUS_COMPLETED = "COMPLETED";
+    static final String STATUS_FAILED = "FAILED";
+
+    private final UUID id = UUID.randomUUID();
+    private final ProductImportFormat format;
+    private final ZonedDateTime startedAt = ZonedDateTime.now();
+    private final int maxReportedErrors;
+
+    private final AtomicLong processedRows = new AtomicLong();
+    private final AtomicLong rejectedRows = new AtomicLong();
+    private final ReentrantLock errorsLock = new ReentrantLock();
+    private final List<ProductImportError> errors = new ArrayList<>();
+    private volatile String status = STATUS_RUNNING;
+    private volatile ZonedDateTime finishedAt;
+    private volatile Long insertedRows;
+    private volatile String failureMessage;
+
+    ProductImportJob(ProductImportFormat format, int maxReportedErrors) {
+        this.format = format;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    /**
+     * Registra una fila leída del archivo.
+     *
+     * @return El número de filas leídas hasta el momento.
+     */
+    long rowRead() {
+        return processedRows.incrementAndGet();
+    }
+
+    /**
+     * Registra una fila rechazada. Solo se conserva el detalle de las primeras.
+     *
+     * @param line Número de línea.
+     * @param partNumber Número de parte, si se conoce.
+     * @param message Motivo del rechazo.
+     */
+    void reject(long line, String partNumber, String message) {
+        rejectedRows.incrementAndGet();
+        errorsLock.lock();
+        try {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportError(line, partNumber, message));
+            }
+        } finally {
+            errorsLock.unlock();
+        }
+    }
+
+    /**
+     * Marca la importación como completada. Las filas no insertadas que no tenían un error
+     * registrado (por ejemplo, un número de parte creado en paralelo) se cuentan como rechazadas.
+     *
+     * @param inserted Número de productos creados.
+     */
+    void complete(long inserted) {
+        insertedRows = inserted;
+        rejectedRows.set(processedRows.get() - inserted);
+        finishedAt = ZonedDateTime.now();
+        status = STATUS_COMPLETED;
+    }
+
+    /**
+     * Marca la importación como fallida; ningún producto fue creado.
+     *
+     * @param message Motivo del fallo.
+     */
+    void fail(String message) {
+        insertedRows = 0L;
+        failureMessage = message;
+        finishedAt = ZonedDateTime.now();
+        status = STATUS_FAILED;
+    }
+
+    /**
+     * Crea una copia del estado actual para la respuesta.
+     *
+     * @return El {@link ProductImportReport} con el estado actual.
+     */
+    ProductImportReport toReport() {
+        List<ProductImportError> snapshot;
+        errorsLock.lock();
+        try {
+            snapshot = new ArrayList<>(errors);
+        } finally {
+            errorsLock.unlock();
+        }
+        snapshot.sort(Comparator.comparing(ProductImportError::getLine));
+        return new ProductImportReport(id, format.name(), status, startedAt, finishedAt, processedRows.get(),
+                insertedRows, rejectedRows.get(), snapshot, failureMessage);
+    }
+}
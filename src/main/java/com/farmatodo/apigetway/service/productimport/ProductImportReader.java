@@ -0,0 +1,51 @@
+package com.farmatodo.apigetway.service.productimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Lector incremental de las filas de un archivo de importación: cada llamada a {@link #next()}
+ * consume del flujo solo lo necesario para una fila, sin cargar el archivo completo en memoria.
+ * Una fila no puede superar {@link #MAX_RECORD_LENGTH} caracteres: si lo hace (por ejemplo, por
+ * unas comillas sin cerrar), se reporta como error de esa fila y se descarta hasta el siguiente
+ * salto de línea, de modo que la memoria usada no depende del tamaño del archivo.
+ */
+interface ProductImportReader {
+
+    /** Longitud máxima de una fila, en caracteres (los campos admiten como mucho 50). */
+    int MAX_RECORD_LENGTH = 4096;
+
+    /** Marca de orden de bytes con la que algunos editores comienzan los archivos UTF-8. */
+    char BYTE_ORDER_MARK = '\uFEFF';
+
+    /**
+     * Lee la siguiente fila.
+     *
+     * @return La fila leída (posiblemente con error de formato), o {@code null} al final del archivo.
+     * @throws IOException Si falla la lectura del flujo.
+     */
+    ProductImportRow next() throws IOException;
+
+    /**
+     * Crea el lector para el formato indicado.
+     *
+     * @param format Formato del archivo.
+     * @param reader Flujo de caracteres del archivo.
+     * @param objectMapper Mapeador JSON para el formato NDJSON.
+     * @return El lector.
+     * @throws IOException Si falla la lectura de la cabecera.
+     * @throws IllegalArgumentException Si la cabecera CSV no contiene las columnas obligatorias.
+     */
+    static ProductImportReader open(ProductImportFormat format, BufferedReader reader, ObjectMapper objectMapper) throws IOException {
+        reader.mark(1);
+        if (reader.read() != BYTE_ORDER_MARK) {
+            reader.reset();
+        }
+        return switch (format) {
+            case CSV -> new CsvProductImportReader(reader);
+            case NDJSON -> new NdjsonProductImportReader(reader, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.farmatodo.apigetway.service.productimport;
+
+/**
+ * Fila leída del archivo de importación, con sus valores sin validar.
+ *
+ * @param line Número de línea donde comienza la fila.
+ * @param partNumber Número de parte.
+ * @param name Nombre del producto.
+ * @param category Categoría.
+ * @param stock Stock, como texto.
+ * @param error Error de formato de la fila, o {@code null} si pudo leerse.
+ */
+record ProductImportRow(long line, String partNumber, String name, String category, String stock, String error) {
+
+    /**
+     * Crea una fila que no pudo leerse.
+     *
+     * @param line Número de línea donde comienza la fila.
+     * @param error Motivo del error.
+     * @return La fila con error.
+     */
+    static ProductImportRow malformed(long line, String error) {
+        return new ProductImportRow(line, null, null, null, null, error);
+    }
+}
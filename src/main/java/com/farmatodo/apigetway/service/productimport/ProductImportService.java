@@ -0,0 +1,361 @@
+package com.farmatodo.apigetway.service.productimport;
+
+import com.farmatodo.apigetway.model.dto.ProductImportReport;
+import com.farmatodo.apigetway.model.id.UuidV7Generator;
+import com.farmatodo.apigetway.service.catalog.ProductChangedEvent;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.postgresql.PGConnection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Servicio de importación masiva de productos desde archivos CSV o NDJSON.
+ *
+ * El cuerpo de la petición se lee de forma incremental: cada fila se valida y, si es correcta,
+ * se escribe en un archivo temporal, sin acumular el archivo en memoria ni mantener abiertas
+ * una conexión o una transacción mientras llega el cuerpo (un cliente lento no retiene el
+ * primario). Recibido el cuerpo completo, una transacción corta carga el archivo temporal en
+ * una tabla de staging mediante {@code COPY ... FROM STDIN}, detecta los números de parte
+ * repetidos en el archivo y crea el resto con un único
+ * {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING RETURNING}. Las filas no insertadas porque
+ * el número de parte ya existía (antes de la importación o creado por otra escritura
+ * concurrente) se informan como rechazadas. Si la importación falla, no se crea ningún
+ * producto. Tras la confirmación, los índices del catálogo incorporan los productos creados
+ * fuera del hilo de la petición.
+ *
+ * El progreso de las importaciones recientes (filas leídas y rechazadas, con el detalle de
+ * los errores) puede consultarse mientras se ejecutan.
+ *
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    /** Cada cuántas filas se registra el progreso en el log. */
+    private static final long PROGRESS_LOG_INTERVAL = 50_000;
+    /** Tamaño del búfer del flujo COPY. */
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    /** Longitud máxima de las columnas de texto de la tabla {@code products}. */
+    private static final int MAX_TEXT_LENGTH = 50;
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMPORARY TABLE product_import_staging (
+                line_no BIGINT NOT NULL,
+                id UUID NOT NULL,
+                part_number VARCHAR(50) NOT NULL,
+                name VARCHAR(50) NOT NULL,
+                category VARCHAR(50) NOT NULL,
+                stock INTEGER NOT NULL
+            ) ON COMMIT DROP""";
+
+    private static final String COPY_SQL =
+            "COPY product_import_staging (line_no, id, part_number, name, category, stock) FROM STDIN (FORMAT csv)";
+
+    /** Filas del staging cuyo número de parte ya apareció en una línea anterior del archivo. */
+    private static final String DUPLICATE_ROWS_SQL = """
+            SELECT s.line_no, s.part_number, s.first_line
+            FROM (SELECT line_no, part_number, MIN(line_no) OVER (PARTITION BY part_number) AS first_line
+                  FROM product_import_staging) s
+            WHERE s.line_no > s.first_line
+            ORDER BY s.line_no""";
+
+    /**
+     * Inserta la primera aparición de cada número de parte y devuelve una fila con el número de
+     * productos creados ({@code line_no} nulo) más una por cada primera aparición no insertada
+     * porque el número de parte ya existía, antes de la importación o creado por otra escritura
+     * concurrente.
+     */
+    private static final String INSERT_SQL = """
+            WITH candidates AS (
+                SELECT DISTINCT ON (part_number) line_no, id, part_number, name, category, stock
+                FROM product_import_staging
+                ORDER BY part_number, line_no
+            ), inserted AS (
+                INSERT INTO products (id, part_number, name, category, stock, creation_date)
+                SELECT id, part_number, name, category, stock, clock_timestamp()
+                FROM candidates
+                ON CONFLICT (part_number) DO NOTHING
+                RETURNING part_number
+            )
+            SELECT NULL::bigint AS line_no, NULL::varchar AS part_number, count(*) AS inserted_rows
+            FROM inserted
+            UNION ALL
+            SELECT line_no, part_number, NULL
+            FROM (SELECT c.line_no, c.part_number
+                  FROM candidates c
+                  WHERE NOT EXISTS (SELECT 1 FROM inserted i WHERE i.part_number = c.part_number)
+                  ORDER BY c.line_no) skipped""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxReportedErrors;
+    private final int historySize;
+
+    private final ReentrantLock historyLock = new ReentrantLock();
+    private final Deque<ProductImportJob> history = new ArrayDeque<>();
+
+    /**
+     * Crea el servicio de importación.
+     *
+     * @param jdbcTemplate Plantilla JDBC.
+     * @param transactionTemplate Plantilla transaccional de la importación.
+     * @param objectMapper Mapeador JSON para el formato NDJSON.
+     * @param eventPublisher Publicador del evento de cambio del catálogo.
+     * @param maxReportedErrors Número máximo de errores detallados por importación.
+     * @param historySize Número de importaciones recientes conservadas para consulta.
+     */
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${product-import.max-reported-errors:1000}") int maxReportedErrors,
+                                @Value("${product-import.history-size:20}") int historySize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.maxReportedErrors = Math.max(0, maxReportedErrors);
+        this.historySize = Math.max(1, historySize);
+    }
+
+    /**
+     * Importa los productos del archivo recibido.
+     *
+     * @param format Formato del archivo.
+     * @param body Contenido del archivo (se lee de forma incremental).
+     * @return El {@link ProductImportReport} con el resultado.
+     * @throws IllegalArgumentException Si el archivo no tiene el formato esperado (por ejemplo, cabecera CSV incompleta).
+     */
+    public ProductImportReport importProducts(ProductImportFormat format, InputStream body) {
+        ProductImportJob job = register(format);
+        log.info("📦 Importación de productos {} iniciada ({}).", job.getId(), format);
+        Path spool = null;
+        try {
+            spool = Files.createTempFile("product-import-", ".csv");
+            long spooled = spoolRows(job, format, body, spool);
+            Path rows = spool;
+            Long inserted = spooled == 0 ? Long.valueOf(0) : transactionTemplate.execute(status -> {
+                jdbcTemplate.execute(CREATE_STAGING_SQL);
+                jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try (InputStream in = Files.newInputStream(rows)) {
+                        return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, in, COPY_BUFFER_SIZE);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Error al leer el archivo temporal de la importación.", e);
+                    }
+                });
+                jdbcTemplate.execute("ANALYZE product_import_staging");
+
+                jdbcTemplate.query(DUPLICATE_ROWS_SQL, rs -> {
+                    job.reject(rs.getLong("line_no"), rs.getString("part_number"),
+                            "Número de parte repetido en el archivo (primera aparición en la línea " + rs.getLong("first_line") + ").");
+                });
+                long[] created = {0};
+                jdbcTemplate.query(INSERT_SQL, rs -> {
+                    long line = rs.getLong("line_no");
+                    if (rs.wasNull()) {
+                        created[0] = rs.getLong("inserted_rows");
+                    } else {
+                        job.reject(line, rs.getString("part_number"), "El número de parte ya existe.");
+                    }
+                });
+                if (created[0] > 0) {
+                    // Tras la confirmación, el refrescador incorpora la carga en un hilo del planificador
+                    eventPublisher.publishEvent(new ProductChangedEvent(null));
+                }
+                return created[0];
+            });
+            job.complete(inserted == null ? 0 : inserted);
+        } catch (IOException e) {
+            job.fail("Error interno durante la importación.");
+            log.error("Importación de productos {} fallida: {}", job.getId(), e.getMessage(), e);
+            throw new UncheckedIOException("Error al crear el archivo temporal de la importación.", e);
+        } catch (RuntimeException e) {
+            job.fail(e instanceof IllegalArgumentException ? e.getMessage() : "Error interno durante la importación.");
+            log.error("Importación de productos {} fallida: {}", job.getId(), e.getMessage(), e);
+            throw e;
+        } finally {
+            deleteSpool(spool);
+        }
+
+        ProductImportReport report = job.toReport();
+        log.info("📦 Importación de productos {} completada: {} filas, {} creadas, {} rechazadas.",
+                job.getId(), report.getProcessedRows(), report.getInsertedRows(), report.getRejectedRows());
+        return report;
+    }
+
+    /**
+     * Obtiene el estado de las importaciones recientes de este nodo, de la más reciente a la más antigua.
+     *
+     * @return Los {@link ProductImportReport} de las importaciones recientes.
+     */
+    public List<ProductImportReport> getRecentImports() {
+        historyLock.lock();
+        try {
+            return history.stream().map(ProductImportJob::toReport).toList();
+        } finally {
+            historyLock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el estado de una importación reciente de este nodo.
+     *
+     * @param importId ID de la importación.
+     * @return El {@link ProductImportReport}, si la importación sigue en el historial.
+     */
+    public Optional<ProductImportReport> getImport(UUID importId) {
+        historyLock.lock();
+        try {
+            return history.stream()
+                    .filter(job -> job.getId().equals(importId))
+                    .findFirst()
+                    .map(ProductImportJob::toReport);
+        } finally {
+            historyLock.unlock();
+        }
+    }
+
+    /**
+     * Lee y valida las filas del cuerpo y escribe las válidas en el archivo temporal, en el
+     * formato CSV que espera el {@code COPY} del staging.
+     *
+     * @return El número de filas válidas escritas.
+     */
+    private long spoolRows(ProductImportJob job, ProductImportFormat format, InputStream body, Path spool) {
+        long spooled = 0;
+        BufferedReader input = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try (Writer copy = Files.newBufferedWriter(spool, StandardCharsets.UTF_8)) {
+            ProductImportReader reader = ProductImportReader.open(format, input, objectMapper);
+            ProductImportRow row;
+            while ((row = reader.next()) != null) {
+                long processed = job.rowRead();
+                if (processed % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("📦 Importación de productos {}: {} filas leídas.", job.getId(), processed);
+                }
+                String error = row.error() != null ? row.error() : validate(row);
+                if (error != null) {
+                    job.reject(row.line(), trimmed(row.partNumber()), error);
+                    continue;
+                }
+                copy.write(Long.toString(row.line()));
+                copy.write(',');
+                // Claves UUIDv7 generadas en orden de lectura: se insertan al final del índice primario
+                copy.write(UuidV7Generator.next().toString());
+                copy.write(',');
+                writeQuoted(copy, trimmed(row.partNumber()));
+                copy.write(',');
+                writeQuoted(copy, trimmed(row.name()));
+                copy.write(',');
+                writeQuoted(copy, trimmed(row.category()));
+                copy.write(',');
+                copy.write(Integer.toString(Integer.parseInt(trimmed(row.stock()))));
+                copy.write('\n');
+                spooled++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al leer el archivo de importación.", e);
+        }
+        return spooled;
+    }
+
+    private void deleteSpool(Path spool) {
+        if (spool == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal de importación {}: {}", spool, e.getMessage());
+        }
+    }
+
+    /**
+     * Valida los valores de una fila.
+     *
+     * @param row La fila leída.
+     * @return El motivo del rechazo, o {@code null} si la fila es válida.
+     */
+    private static String validate(ProductImportRow row) {
+        String error = validateText(row.partNumber(), "part_number");
+        if (error == null) {
+            error = validateText(row.name(), "name");
+        }
+        if (error == null) {
+            error = validateText(row.category(), "category");
+        }
+        if (error == null) {
+            try {
+                if (Integer.parseInt(trimmed(row.stock())) < 0) {
+                    error = "El stock no puede ser negativo.";
+                }
+            } catch (NumberFormatException e) {
+                error = "El stock debe ser un número entero.";
+            }
+        }
+        return error;
+    }
+
+    private static String validateText(String value, String field) {
+        String text = trimmed(value);
+        if (text == null || text.isEmpty()) {
+            return "El campo " + field + " es obligatorio.";
+        }
+        if (text.length() > MAX_TEXT_LENGTH) {
+            return "El campo " + field + " excede " + MAX_TEXT_LENGTH + " caracteres.";
+        }
+        return null;
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static void writeQuoted(Writer out, String value) throws IOException {
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private ProductImportJob register(ProductImportFormat format) {
+        ProductImportJob job = new ProductImportJob(format, maxReportedErrors);
+        historyLock.lock();
+        try {
+            history.addFirst(job);
+            while (history.size() > historySize) {
+                history.removeLast();
+            }
+        } finally {
+            historyLock.unlock();
+        }
+        return job;
+    }
+}
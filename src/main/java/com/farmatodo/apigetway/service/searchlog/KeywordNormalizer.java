@@ -0,0 +1,37 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidad para normalizar palabras clave de búsqueda antes de agregarlas o compararlas.
+ *
+ * Elimina espacios en los extremos, colapsa los espacios internos y convierte a
+ * minúsculas, de modo que "  Acetaminofen   500 " y "acetaminofen 500" se consideren
+ * la misma búsqueda.
+ *
+ */
+public final class KeywordNormalizer {
+
+    /** Longitud máxima de una palabra clave normalizada (coincide con las columnas de texto). */
+    public static final int MAX_LENGTH = 255;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private KeywordNormalizer() {
+    }
+
+    /**
+     * Normaliza una palabra clave.
+     *
+     * @param keyword La palabra clave original.
+     * @return La palabra clave normalizada, o una cadena vacía si es {@code null} o solo contiene espacios.
+     */
+    public static String normalize(String keyword) {
+        if (keyword == null) {
+            return "";
+        }
+        String normalized = WHITESPACE.matcher(keyword.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_LENGTH ? normalized.substring(0, MAX_LENGTH) : normalized;
+    }
+}
@@ -0,0 +1,30 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Evento inmutable de búsqueda pendiente de persistir en {@code search_log}.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchLogEvent {
+
+    /**
+     * ID del cliente que realizó la búsqueda ({@code null} si es anónima).
+     */
+    private final UUID clientId;
+
+    /**
+     * La palabra clave que se buscó.
+     */
+    private final String keyword;
+
+    /**
+     * Fecha y hora en que se realizó la búsqueda.
+     */
+    private final OffsetDateTime queryDate;
+}
@@ -0,0 +1,215 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import com.farmatodo.apigetway.service.PreferenceService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gestión del particionamiento por rango de fechas de la tabla {@code search_log}.
+ *
+ * La tabla se particiona de forma nativa en PostgreSQL por mes sobre {@code query_date}
+ * ({@code search_log_pAAAAMM}), con una partición {@code search_log_default} para las filas
+ * fuera de rango. La migración {@code V6__search_log_partitioning.sql} la convierte en
+ * particionada y crea las particiones iniciales; este componente solo crea por adelantado,
+ * en un proceso programado, las particiones de los próximos meses y separa (y opcionalmente
+ * elimina) las que superan la retención definida en la preferencia
+ * {@value PreferenceService#SEARCH_LOG_RETENTION_MONTHS}.
+ *
+ * Las operaciones se coordinan entre nodos con un advisory lock de PostgreSQL. La clave
+ * primaria física es {@code (id, query_date)}, ya que PostgreSQL exige que incluya la
+ * columna de particionamiento.
+ *
+ */
+@Component
+public class SearchLogPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchLogPartitionManager.class);
+
+    /** Clave del advisory lock que coordina el mantenimiento de particiones entre nodos. */
+    private static final long PARTITION_LOCK_KEY = 32_032L;
+    /** Retención usada si la preferencia no existe o no es válida. */
+    private static final int DEFAULT_RETENTION_MONTHS = 6;
+
+    private static final String TABLE_NAME = "search_log";
+    private static final String DEFAULT_PARTITION_NAME = "search_log_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("search_log_p(\\d{4})(\\d{2})");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssxxx");
+
+    private static final String RELKIND_SQL = "SELECT c.relkind FROM pg_class c " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE c.relname = ? AND n.nspname = current_schema()";
+    private static final String LIST_PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+            "WHERE p.relname = ? AND n.nspname = current_schema()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PreferenceService preferenceService;
+    private final int premakeMonths;
+    private final boolean dropDetached;
+
+    /**
+     * Crea el gestor con la configuración de particiones indicada.
+     *
+     * @param jdbcTemplate Plantilla JDBC para ejecutar el DDL.
+     * @param transactionTemplate Plantilla transaccional para cada operación de mantenimiento.
+     * @param preferenceService Servicio de preferencias (retención en meses).
+     * @param premakeMonths Número de meses futuros cuyas particiones se crean por adelantado.
+     * @param dropDetached Indica si las particiones separadas por retención se eliminan.
+     */
+    public SearchLogPartitionManager(JdbcTemplate jdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     PreferenceService preferenceService,
+                                     @Value("${search-log.partitions.premake-months:3}") int premakeMonths,
+                                     @Value("${search-log.partitions.drop-detached:true}") boolean dropDetached) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.preferenceService = preferenceService;
+        this.premakeMonths = Math.max(1, premakeMonths);
+        this.dropDetached = dropDetached;
+    }
+
+    /**
+     * Crea las particiones futuras y aplica la retención sobre las antiguas.
+     *
+     * Cada partición y la retención se ejecutan en su propia transacción, de modo que un fallo
+     * al crear una partición no impide crear las demás ni aplicar la retención.
+     */
+    @Scheduled(cron = "${search-log.partitions.maintenance-cron:0 15 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            runLocked("crear la partición " + partitionName(month), () -> createMonthlyPartition(month));
+        }
+        runLocked("aplicar la retención", () -> applyRetention(current.minusMonths(retentionMonths())));
+    }
+
+    /**
+     * Ejecuta una operación de mantenimiento en una transacción con el advisory lock adquirido.
+     * Si otro nodo tiene el bloqueo, la operación se omite.
+     *
+     * @param description Descripción de la operación para el registro de errores.
+     * @param operation Operación a ejecutar.
+     */
+    private void runLocked(String description, Runnable operation) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean acquired = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, PARTITION_LOCK_KEY);
+                if (Boolean.TRUE.equals(acquired) && "p".equals(relkind(TABLE_NAME))) {
+                    operation.run();
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error al {} de search_log: {}", description, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Crea la partición del mes indicado si aún no existe.
+     *
+     * La partición se crea separada, recibe las filas de ese mes que hubieran caído en la
+     * partición por defecto (por ejemplo, porque un mantenimiento anterior falló) y después se
+     * adjunta. Crearla directamente con {@code PARTITION OF} fallaría en ese caso, ya que
+     * PostgreSQL no admite que la partición por defecto contenga filas del nuevo rango.
+     *
+     * @param month Mes de la partición.
+     */
+    private void createMonthlyPartition(YearMonth month) {
+        String name = partitionName(month);
+        if (relkind(name) != null) {
+            return;
+        }
+        String from = BOUND_FORMAT.format(startOf(month));
+        String to = BOUND_FORMAT.format(startOf(month.plusMonths(1)));
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE search_log INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION_NAME +
+                " WHERE query_date >= ? AND query_date < ? RETURNING id, query_date, search_keyword, client_id) " +
+                "INSERT INTO " + name + " (id, query_date, search_keyword, client_id) " +
+                "SELECT id, query_date, search_keyword, client_id FROM moved", startOf(month), startOf(month.plusMonths(1)));
+        // La restricción evita que ATTACH recorra la partición para validar el rango
+        jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT " + name + "_range CHECK (query_date >= '" +
+                from + "' AND query_date < '" + to + "')");
+        jdbcTemplate.execute("ALTER TABLE search_log ATTACH PARTITION " + name + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+        jdbcTemplate.execute("ALTER TABLE " + name + " DROP CONSTRAINT " + name + "_range");
+        if (moved > 0) {
+            log.info("🗂️ Creada partición {} con {} filas trasladadas desde {}.", name, moved, DEFAULT_PARTITION_NAME);
+        } else {
+            log.info("🗂️ Creada partición {}.", name);
+        }
+    }
+
+    /**
+     * Separa las particiones mensuales anteriores al inicio de la retención (eliminándolas si así
+     * se configuró) y purga de la partición por defecto las filas expiradas.
+     *
+     * @param retentionStart Primer mes que se conserva.
+     */
+    private void applyRetention(YearMonth retentionStart) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class, TABLE_NAME);
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(retentionStart)) {
+                jdbcTemplate.execute("ALTER TABLE search_log DETACH PARTITION " + partition);
+                if (dropDetached) {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                }
+                log.info("🗂️ Partición {} separada por retención{}.", partition, dropDetached ? " y eliminada" : "");
+            }
+        }
+        jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION_NAME + " WHERE query_date < ?", startOf(retentionStart));
+    }
+
+    /**
+     * Obtiene la retención en meses desde las preferencias del sistema.
+     *
+     * @return Número de meses a conservar (mínimo 1).
+     */
+    private int retentionMonths() {
+        try {
+            return Math.max(1, preferenceService.getPreferenceValueAsInteger(PreferenceService.SEARCH_LOG_RETENTION_MONTHS));
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_RETENTION_MONTHS;
+        }
+    }
+
+    /**
+     * Consulta el tipo de relación de una tabla en el esquema actual.
+     *
+     * @param name Nombre de la tabla.
+     * @return {@code "p"} si es particionada, {@code "r"} si es ordinaria, o {@code null} si no existe.
+     */
+    private String relkind(String name) {
+        List<String> kinds = jdbcTemplate.queryForList(RELKIND_SQL, String.class, name);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("search_log_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static OffsetDateTime startOf(YearMonth month) {
+        return month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,111 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Búfer circular acotado y libre de bloqueos para eventos de búsqueda.
+ *
+ * Admite múltiples productores concurrentes (los hilos de las solicitudes HTTP) y un
+ * único consumidor ({@link SearchLogWriter}). Cada celda lleva un número de secuencia
+ * que indica si está libre o publicada, de modo que los productores solo compiten
+ * mediante CAS sobre la posición de escritura. Cuando el búfer está lleno,
+ * {@link #offer} devuelve {@code false} en lugar de bloquear.
+ *
+ */
+public class SearchLogRingBuffer {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<SearchLogEvent> events;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Crea un búfer con la capacidad indicada, redondeada a la siguiente potencia de dos.
+     *
+     * @param requestedCapacity Capacidad mínima deseada.
+     */
+    public SearchLogRingBuffer(int requestedCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.events = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Intenta publicar un evento sin bloquear.
+     *
+     * @param event El evento a publicar.
+     * @return {@code true} si se publicó; {@code false} si el búfer está lleno.
+     */
+    public boolean offer(SearchLogEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events.set(index, event);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Extrae hasta {@code maxEvents} eventos publicados. Solo debe invocarse desde el único consumidor.
+     *
+     * @param sink Lista donde se añaden los eventos extraídos.
+     * @param maxEvents Número máximo de eventos a extraer.
+     * @return Número de eventos extraídos.
+     */
+    public int drainTo(List<SearchLogEvent> sink, int maxEvents) {
+        int drained = 0;
+        long position = head.get();
+        while (drained < maxEvents) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            sink.add(events.get(index));
+            events.set(index, null);
+            sequences.set(index, position + capacity);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    /**
+     * Número aproximado de eventos pendientes en el búfer.
+     *
+     * @return Eventos publicados o en proceso de publicación aún no extraídos.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    /**
+     * Capacidad real del búfer.
+     *
+     * @return Número máximo de eventos que puede contener.
+     */
+    public int capacity() {
+        return capacity;
+    }
+}
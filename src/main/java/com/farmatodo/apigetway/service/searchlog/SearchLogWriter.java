@@ -0,0 +1,370 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import com.farmatodo.apigetway.model.id.UuidV7Generator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Escritor por lotes de los registros de búsqueda.
+ *
+ * Los hilos de las solicitudes publican eventos en un {@link SearchLogRingBuffer} sin
+ * bloquearse ni acceder a la base de datos. Un único hilo escritor vacía el búfer cuando
+ * se acumula un lote completo o cuando vence el intervalo de vaciado, e inserta cada lote
+ * con una sentencia {@code INSERT} multi-fila, asignando {@code client_id} directamente
+ * por ID (sin cargar la entidad {@code Client}). En la misma transacción actualiza por
+ * upsert las estadísticas agregadas de {@code search_keyword_stat}, agrupando antes el
+ * lote por cliente y palabra clave normalizada. Si el búfer se llena, los eventos nuevos
+ * se descartan y el total descartado se reporta en el log y en la métrica
+ * {@code search_log.buffer.dropped}. Si la base de datos rechaza un lote por una fila
+ * inválida, se reintenta por mitades y solo se descartan las filas rechazadas (métrica
+ * {@code search_log.writer.discarded}).
+ *
+ */
+@Component
+public class SearchLogWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchLogWriter.class);
+    private static final int MAX_KEYWORD_LENGTH = 255;
+    private static final String UPSERT_STATS_SQL_SUFFIX = " ON CONFLICT (client_id, keyword) DO UPDATE SET " +
+            "search_count = search_keyword_stat.search_count + EXCLUDED.search_count, " +
+            "last_seen = GREATEST(search_keyword_stat.last_seen, EXCLUDED.last_seen)";
+    private static final Comparator<StatKey> STAT_KEY_ORDER = Comparator
+            .comparing(StatKey::clientId)
+            .thenComparing(StatKey::keyword);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SearchLogRingBuffer ringBuffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final String fullBatchSql;
+
+    private final AtomicLong droppedSinceLastReport = new AtomicLong();
+    private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter discardedCounter;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    /**
+     * Crea el escritor con el búfer y el tamaño de lote configurados.
+     *
+     * @param jdbcTemplate Plantilla JDBC para las inserciones multi-fila.
+     * @param transactionTemplate Plantilla transaccional para agrupar cada vaciado.
+     * @param meterRegistry Registro de métricas.
+     * @param bufferCapacity Capacidad del búfer en memoria.
+     * @param batchSize Número máximo de filas por sentencia {@code INSERT}.
+     * @param flushIntervalMs Intervalo máximo entre vaciados, en milisegundos.
+     */
+    public SearchLogWriter(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${search-log.buffer.capacity:8192}") int bufferCapacity,
+                           @Value("${search-log.writer.batch-size:500}") int batchSize,
+                           @Value("${search-log.writer.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.ringBuffer = new SearchLogRingBuffer(bufferCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(10, flushIntervalMs));
+        this.fullBatchSql = buildInsertSql(this.batchSize);
+
+        this.droppedCounter = Counter.builder("search_log.buffer.dropped")
+                .description("Eventos de búsqueda descartados por búfer lleno")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("search_log.buffer.written")
+                .description("Eventos de búsqueda persistidos por el escritor por lotes")
+                .register(meterRegistry);
+        this.discardedCounter = Counter.builder("search_log.writer.discarded")
+                .description("Eventos de búsqueda descartados por error al persistirlos")
+                .register(meterRegistry);
+        Gauge.builder("search_log.buffer.size", ringBuffer, SearchLogRingBuffer::size)
+                .description("Eventos de búsqueda pendientes en el búfer")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publica una búsqueda en el búfer. Nunca bloquea ni accede a la base de datos.
+     *
+     * @param clientId ID del cliente ({@code null} si es anónimo).
+     * @param keyword La palabra clave buscada.
+     * @return {@code true} si el evento fue aceptado; {@code false} si se descartó por saturación.
+     */
+    public boolean append(UUID clientId, String keyword) {
+        SearchLogEvent event = new SearchLogEvent(clientId, keyword, OffsetDateTime.now(ZoneOffset.UTC));
+        if (!ringBuffer.offer(event)) {
+            droppedSinceLastReport.incrementAndGet();
+            droppedCounter.increment();
+            return false;
+        }
+        if (ringBuffer.size() >= batchSize && wakeupRequested.compareAndSet(false, true)) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    /**
+     * Bucle del hilo escritor: espera un lote completo o el intervalo de vaciado y persiste los eventos.
+     */
+    private void runWriter() {
+        List<SearchLogEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (ringBuffer.size() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            wakeupRequested.set(false);
+            drainAndFlush(batch);
+        }
+        // Vaciado final al detener la aplicación
+        drainAndFlush(batch);
+    }
+
+    /**
+     * Extrae todos los eventos disponibles en lotes y los persiste.
+     *
+     * @param batch Lista reutilizable para acumular cada lote.
+     */
+    private void drainAndFlush(List<SearchLogEvent> batch) {
+        while (ringBuffer.drainTo(batch, batchSize) > 0) {
+            try {
+                flushIsolatingInvalid(batch);
+            } catch (Exception e) {
+                discardedCounter.increment(batch.size());
+                log.error("Error al persistir un lote de {} búsquedas; el lote se descarta: {}", batch.size(), e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+        reportDropped();
+    }
+
+    /**
+     * Persiste los eventos; si la base de datos rechaza alguna fila (por ejemplo, por la clave
+     * foránea de un cliente eliminado), reintenta cada mitad por separado hasta aislar y
+     * descartar solo las filas inválidas. Los demás errores se propagan.
+     *
+     * @param events Los eventos a persistir.
+     */
+    private void flushIsolatingInvalid(List<SearchLogEvent> events) {
+        try {
+            flush(events);
+            writtenCounter.increment(events.size());
+        } catch (DataIntegrityViolationException e) {
+            if (events.size() == 1) {
+                discardedCounter.increment();
+                log.warn("Búsqueda descartada por datos inválidos (cliente {}): {}", events.get(0).getClientId(), e.getMessage());
+                return;
+            }
+            int half = events.size() / 2;
+            flushIsolatingInvalid(events.subList(0, half));
+            flushIsolatingInvalid(events.subList(half, events.size()));
+        }
+    }
+
+    /**
+     * Persiste un lote de eventos y sus estadísticas agregadas en una única transacción.
+     *
+     * @param batch Los eventos a persistir (como máximo {@code batchSize}).
+     */
+    private void flush(List<SearchLogEvent> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            insertSearchLogs(batch);
+            upsertKeywordStats(batch);
+        });
+    }
+
+    /**
+     * Inserta los eventos en {@code search_log} con una sola sentencia multi-fila.
+     *
+     * @param batch Los eventos a insertar.
+     */
+    private void insertSearchLogs(List<SearchLogEvent> batch) {
+        String sql = batch.size() == batchSize ? fullBatchSql : buildInsertSql(batch.size());
+        jdbcTemplate.update(sql, (PreparedStatement ps) -> {
+            int parameter = 1;
+            for (SearchLogEvent event : batch) {
+                parameter = bindEvent(ps, parameter, event);
+            }
+        });
+    }
+
+    /**
+     * Acumula el lote por (cliente, palabra clave normalizada) y aplica un único upsert
+     * multi-fila sobre {@code search_keyword_stat}. Las búsquedas anónimas no se agregan.
+     * Las filas se envían ordenadas por clave para que nodos concurrentes bloqueen en el
+     * mismo orden y no se produzcan interbloqueos.
+     *
+     * @param batch Los eventos del lote.
+     */
+    private void upsertKeywordStats(List<SearchLogEvent> batch) {
+        Map<StatKey, StatDelta> deltas = new TreeMap<>(STAT_KEY_ORDER);
+        for (SearchLogEvent event : batch) {
+            String keyword = KeywordNormalizer.normalize(event.getKeyword());
+            if (event.getClientId() == null || keyword.isEmpty()) {
+                continue;
+            }
+            deltas.computeIfAbsent(new StatKey(event.getClientId(), keyword), key -> new StatDelta())
+                    .add(event.getQueryDate());
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder("INSERT INTO search_keyword_stat (client_id, keyword, search_count, last_seen) VALUES ");
+        for (int i = 0; i < deltas.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        sql.append(UPSERT_STATS_SQL_SUFFIX);
+
+        jdbcTemplate.update(sql.toString(), (PreparedStatement ps) -> {
+            int parameter = 1;
+            for (Map.Entry<StatKey, StatDelta> entry : deltas.entrySet()) {
+                ps.setObject(parameter++, entry.getKey().clientId());
+                ps.setString(parameter++, entry.getKey().keyword());
+                ps.setLong(parameter++, entry.getValue().count);
+                ps.setObject(parameter++, entry.getValue().lastSeen);
+            }
+        });
+    }
+
+    /**
+     * Clave de agregación de estadísticas: cliente y palabra clave normalizada.
+     *
+     * @param clientId ID del cliente.
+     * @param keyword Palabra clave normalizada.
+     */
+    private record StatKey(UUID clientId, String keyword) {
+    }
+
+    /**
+     * Acumulador del número de búsquedas y la fecha más reciente de una clave dentro de un lote.
+     */
+    private static final class StatDelta {
+        private long count;
+        private OffsetDateTime lastSeen;
+
+        private void add(OffsetDateTime queryDate) {
+            count++;
+            if (lastSeen == null || queryDate.isAfter(lastSeen)) {
+                lastSeen = queryDate;
+            }
+        }
+    }
+
+    /**
+     * Asigna los parámetros de una fila de la inserción multi-fila.
+     *
+     * @param ps La sentencia preparada.
+     * @param parameter Índice del primer parámetro de la fila.
+     * @param event El evento a asignar.
+     * @return Índice del siguiente parámetro libre.
+     * @throws SQLException Si ocurre un error al asignar los parámetros.
+     */
+    private int bindEvent(PreparedStatement ps, int parameter, SearchLogEvent event) throws SQLException {
+        String keyword = event.getKeyword();
+        ps.setObject(parameter++, UuidV7Generator.next());
+        ps.setObject(parameter++, event.getQueryDate());
+        ps.setString(parameter++, keyword.length() > MAX_KEYWORD_LENGTH ? keyword.substring(0, MAX_KEYWORD_LENGTH) : keyword);
+        if (event.getClientId() != null) {
+            ps.setObject(parameter++, event.getClientId());
+        } else {
+            ps.setNull(parameter++, Types.OTHER);
+        }
+        return parameter;
+    }
+
+    /**
+     * Construye la sentencia {@code INSERT} multi-fila para el número de filas indicado.
+     *
+     * @param rows Número de filas.
+     * @return El SQL parametrizado.
+     */
+    private static String buildInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO search_log (id, query_date, search_keyword, client_id) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Registra en el log cuántos eventos se descartaron desde el último reporte.
+     */
+    private void reportDropped() {
+        long dropped = droppedSinceLastReport.getAndSet(0);
+        if (dropped > 0) {
+            log.warn("⚠️ Búfer de búsquedas saturado: {} eventos descartados desde el último vaciado (capacidad {}).",
+                    dropped, ringBuffer.capacity());
+        }
+    }
+
+    /**
+     * Inicia el hilo escritor.
+     */
+    @Override
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("search-log-writer")
+                .daemon(true)
+                .start(this::runWriter);
+        log.info("📝 Escritor de búsquedas iniciado (lote={}, capacidad={}).", batchSize, ringBuffer.capacity());
+    }
+
+    /**
+     * Detiene el hilo escritor tras vaciar los eventos pendientes.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Indica si el hilo escritor está en ejecución.
+     *
+     * @return {@code true} si el escritor está activo.
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,145 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumen de frecuencias aproximadas (algoritmo Space-Saving) para obtener las
+ * palabras clave más buscadas usando memoria acotada.
+ *
+ * Mantiene como máximo {@code capacity} contadores en un min-heap indexado. Cuando llega
+ * una clave nueva y el resumen está lleno, reemplaza al contador mínimo y hereda su valor
+ * como error máximo, por lo que los conteos reportados son cotas superiores. Cada
+ * operación cuesta O(log k). No es seguro para uso concurrente: el llamador debe sincronizar.
+ *
+ */
+public class SpaceSavingSketch {
+
+    /**
+     * Contador estimado de una clave.
+     *
+     * @param keyword La palabra clave.
+     * @param count Conteo estimado (cota superior).
+     * @param error Sobreestimación máxima del conteo.
+     */
+    public record Counter(String keyword, long count, long error) {
+    }
+
+    private final int capacity;
+    private final String[] keys;
+    private final long[] counts;
+    private final long[] errors;
+    private final Map<String, Integer> positions;
+    private int size;
+
+    /**
+     * Crea un resumen con el número máximo de contadores indicado.
+     *
+     * @param capacity Número máximo de claves monitorizadas.
+     */
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.keys = new String[this.capacity];
+        this.counts = new long[this.capacity];
+        this.errors = new long[this.capacity];
+        this.positions = new HashMap<>(this.capacity * 2);
+    }
+
+    /**
+     * Registra una ocurrencia de la clave.
+     *
+     * @param keyword La palabra clave normalizada.
+     */
+    public void offer(String keyword) {
+        Integer position = positions.get(keyword);
+        if (position != null) {
+            counts[position]++;
+            siftDown(position);
+            return;
+        }
+        if (size < capacity) {
+            keys[size] = keyword;
+            counts[size] = 1;
+            errors[size] = 0;
+            positions.put(keyword, size);
+            siftUp(size);
+            size++;
+            return;
+        }
+        // Reemplaza el contador mínimo (raíz del heap)
+        long minimum = counts[0];
+        positions.remove(keys[0]);
+        keys[0] = keyword;
+        counts[0] = minimum + 1;
+        errors[0] = minimum;
+        positions.put(keyword, 0);
+        siftDown(0);
+    }
+
+    /**
+     * Indica si el resumen no contiene contadores.
+     *
+     * @return {@code true} si no se ha registrado ninguna ocurrencia.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retorna todos los contadores ordenados de mayor a menor conteo.
+     *
+     * @return Lista de {@link Counter}.
+     */
+    public List<Counter> counters() {
+        List<Counter> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(new Counter(keys[i], counts[i], errors[i]));
+        }
+        result.sort(Comparator.comparingLong(Counter::count).reversed());
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (counts[parent] <= counts[index]) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int right = left + 1;
+            int smallest = right < size && counts[right] < counts[left] ? right : left;
+            if (counts[index] <= counts[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        String key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+        long error = errors[a];
+        errors[a] = errors[b];
+        errors[b] = error;
+        positions.put(keys[a], a);
+        positions.put(keys[b], b);
+    }
+}
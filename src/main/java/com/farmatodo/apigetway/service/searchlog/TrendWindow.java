@@ -0,0 +1,29 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import java.time.Duration;
+
+/**
+ * Ventanas de tiempo deslizantes soportadas para las palabras clave populares.
+ */
+public enum TrendWindow {
+
+    /** Última hora. */
+    HOUR(Duration.ofHours(1)),
+    /** Último día. */
+    DAY(Duration.ofDays(1));
+
+    private final Duration duration;
+
+    TrendWindow(Duration duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Duración de la ventana.
+     *
+     * @return La {@link Duration} cubierta por la ventana.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+}
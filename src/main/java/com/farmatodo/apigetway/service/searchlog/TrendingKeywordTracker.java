@@ -0,0 +1,184 @@
+package com.farmatodo.apigetway.service.searchlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Seguimiento de las palabras clave más buscadas en ventanas deslizantes de tiempo.
+ *
+ * Cada nodo acumula las búsquedas en un {@link SpaceSavingSketch} en memoria. De forma
+ * periódica, el resumen se intercambia por uno vacío y sus contadores se suman (upsert) a
+ * {@code search_trend_bucket} en el intervalo de tiempo correspondiente, lo que fusiona los
+ * resúmenes de todos los nodos. Se persiste la cota inferior garantizada de cada contador
+ * ({@code count - error}): la cota superior incluye el mínimo heredado al desalojar otra
+ * palabra, y ese error se acumularía al sumar intervalos y nodos. A continuación, un único nodo (coordinado con un advisory
+ * lock de PostgreSQL) recalcula la tabla {@code search_trend} para cada {@link TrendWindow}
+ * y elimina los intervalos que ya no pertenecen a ninguna ventana.
+ *
+ */
+@Component
+public class TrendingKeywordTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingKeywordTracker.class);
+
+    /** Clave del advisory lock que coordina el recálculo del resumen entre nodos. */
+    private static final long SUMMARY_LOCK_KEY = 31_031L;
+
+    private static final String UPSERT_BUCKET_SQL_SUFFIX = " ON CONFLICT (bucket_start, keyword) DO UPDATE SET " +
+            "search_count = search_trend_bucket.search_count + EXCLUDED.search_count";
+    private static final String DELETE_SUMMARY_SQL = "DELETE FROM search_trend WHERE window_name = ?";
+    private static final String INSERT_SUMMARY_SQL = "INSERT INTO search_trend (window_name, keyword, search_count, computed_at) " +
+            "SELECT ?, keyword, SUM(search_count), ? FROM search_trend_bucket WHERE bucket_start >= ? " +
+            "GROUP BY keyword ORDER BY SUM(search_count) DESC LIMIT ?";
+    private static final String PURGE_BUCKETS_SQL = "DELETE FROM search_trend_bucket WHERE bucket_start < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int sketchCapacity;
+    private final Duration bucketDuration;
+    private final int summarySize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private SpaceSavingSketch currentSketch;
+
+    /**
+     * Crea el seguimiento con la capacidad y el tamaño de intervalo configurados.
+     *
+     * @param jdbcTemplate Plantilla JDBC para volcar los resúmenes.
+     * @param transactionTemplate Plantilla transaccional para cada volcado.
+     * @param sketchCapacity Número máximo de contadores del resumen en memoria.
+     * @param bucketMinutes Duración de cada intervalo persistido, en minutos.
+     * @param summarySize Número de palabras clave conservadas por ventana en {@code search_trend}.
+     */
+    public TrendingKeywordTracker(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${trending.sketch.capacity:1000}") int sketchCapacity,
+                                  @Value("${trending.bucket-minutes:5}") int bucketMinutes,
+                                  @Value("${trending.summary-size:100}") int summarySize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sketchCapacity = sketchCapacity;
+        this.bucketDuration = Duration.ofMinutes(Math.max(1, bucketMinutes));
+        this.summarySize = summarySize;
+        this.currentSketch = new SpaceSavingSketch(sketchCapacity);
+    }
+
+    /**
+     * Registra una búsqueda en el resumen en memoria.
+     *
+     * @param keyword La palabra clave buscada (se normaliza internamente).
+     */
+    public void record(String keyword) {
+        String normalized = KeywordNormalizer.normalize(keyword);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            currentSketch.offer(normalized);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Vuelca el resumen acumulado en su intervalo y recalcula el top-K de cada ventana.
+     */
+    @Scheduled(fixedDelayString = "${trending.flush-interval-ms:60000}")
+    public void flush() {
+        SpaceSavingSketch sketch;
+        lock.lock();
+        try {
+            sketch = currentSketch;
+            currentSketch = new SpaceSavingSketch(sketchCapacity);
+        } finally {
+            lock.unlock();
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!sketch.isEmpty()) {
+                    upsertBucket(bucketStart(now), sketch.counters());
+                }
+                Boolean acquired = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, SUMMARY_LOCK_KEY);
+                if (Boolean.TRUE.equals(acquired)) {
+                    recomputeSummaries(now);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error al volcar el resumen de palabras clave populares: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Suma las cotas inferiores de los contadores al intervalo indicado. Las filas se envían ordenadas
+     * por palabra clave para que los nodos concurrentes bloqueen en el mismo orden.
+     *
+     * @param bucketStart Inicio del intervalo.
+     * @param counters Contadores del resumen.
+     */
+    private void upsertBucket(OffsetDateTime bucketStart, List<SpaceSavingSketch.Counter> counters) {
+        List<SpaceSavingSketch.Counter> sorted = counters.stream()
+                .sorted(Comparator.comparing(SpaceSavingSketch.Counter::keyword))
+                .toList();
+
+        StringBuilder sql = new StringBuilder("INSERT INTO search_trend_bucket (bucket_start, keyword, search_count) VALUES ");
+        for (int i = 0; i < sorted.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        sql.append(UPSERT_BUCKET_SQL_SUFFIX);
+
+        jdbcTemplate.update(sql.toString(), (PreparedStatement ps) -> {
+            int parameter = 1;
+            for (SpaceSavingSketch.Counter counter : sorted) {
+                ps.setObject(parameter++, bucketStart);
+                ps.setString(parameter++, counter.keyword());
+                ps.setLong(parameter++, counter.count() - counter.error());
+            }
+        });
+    }
+
+    /**
+     * Recalcula {@code search_trend} para cada ventana y purga los intervalos expirados.
+     *
+     * @param now Instante de referencia del recálculo.
+     */
+    private void recomputeSummaries(OffsetDateTime now) {
+        for (TrendWindow window : TrendWindow.values()) {
+            OffsetDateTime from = bucketStart(now.minus(window.getDuration()));
+            jdbcTemplate.update(DELETE_SUMMARY_SQL, window.name());
+            jdbcTemplate.update(INSERT_SUMMARY_SQL, window.name(), now, from, summarySize);
+        }
+        jdbcTemplate.update(PURGE_BUCKETS_SQL, bucketStart(now.minus(TrendWindow.DAY.getDuration())));
+    }
+
+    /**
+     * Calcula el inicio del intervalo que contiene el instante indicado.
+     *
+     * @param instant Instante de referencia.
+     * @return Inicio del intervalo (alineado a la duración configurada).
+     */
+    private OffsetDateTime bucketStart(OffsetDateTime instant) {
+        long bucketSeconds = bucketDuration.toSeconds();
+        long epochSecond = instant.toEpochSecond();
+        return OffsetDateTime.ofInstant(
+                Instant.ofEpochSecond(epochSecond - Math.floorMod(epochSecond, bucketSeconds)),
+                ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,143 @@
+-- Esquema inicial de la aplicación.
+--
+-- Reproduce exactamente el esquema que generaba Hibernate con ddl-auto=update antes de
+-- introducir las migraciones, salvo por los nombres de las restricciones. Las bases de datos
+-- creadas entonces se registran en esta versión sin ejecutarla
+-- (spring.flyway.baseline-on-migrate) y reciben los cambios posteriores desde V2.
+
+-- Clientes y roles
+CREATE TABLE roles (
+    id          uuid         NOT NULL,
+    name        varchar(50)  NOT NULL,
+    description varchar(255),
+    CONSTRAINT pk_roles PRIMARY KEY (id),
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE clients (
+    id             uuid                        NOT NULL,
+    username       varchar(100)                NOT NULL,
+    password_hash  varchar(255)                NOT NULL,
+    first_name     varchar(100)                NOT NULL,
+    middle_name    varchar(100),
+    first_surname  varchar(100)                NOT NULL,
+    second_surname varchar(100),
+    email          varchar(255)                NOT NULL,
+    phone_number   varchar(20),
+    is_active      boolean                     NOT NULL,
+    creation_date  timestamp(6) with time zone NOT NULL,
+    update_date    timestamp(6) with time zone,
+    CONSTRAINT pk_clients PRIMARY KEY (id),
+    CONSTRAINT uk_clients_username UNIQUE (username),
+    CONSTRAINT uk_clients_email UNIQUE (email),
+    CONSTRAINT uk_clients_phone_number UNIQUE (phone_number)
+);
+
+CREATE TABLE client_roles (
+    client_id uuid NOT NULL,
+    role_id   uuid NOT NULL,
+    CONSTRAINT pk_client_roles PRIMARY KEY (client_id, role_id),
+    CONSTRAINT fk_client_roles_client FOREIGN KEY (client_id) REFERENCES clients (id),
+    CONSTRAINT fk_client_roles_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+
+-- Preferencias del sistema
+CREATE TABLE system_preference (
+    id            uuid                        NOT NULL,
+    pref_key      varchar(100)                NOT NULL,
+    pref_value    varchar(255)                NOT NULL,
+    data_type     varchar(20)                 NOT NULL,
+    creation_date timestamp(6) with time zone NOT NULL,
+    update_date   timestamp(6) with time zone,
+    CONSTRAINT pk_system_preference PRIMARY KEY (id),
+    CONSTRAINT uk_system_preference_pref_key UNIQUE (pref_key)
+);
+
+-- Catálogo
+CREATE TABLE products (
+    id            uuid                        NOT NULL,
+    part_number   varchar(50)                 NOT NULL,
+    name          varchar(50)                 NOT NULL,
+    category      varchar(50)                 NOT NULL,
+    stock         integer                     NOT NULL,
+    creation_date timestamp(6) with time zone NOT NULL,
+    update_date   timestamp(6) with time zone,
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT uk_products_part_number UNIQUE (part_number)
+);
+
+-- Tarjetas tokenizadas
+CREATE TABLE tokenized_cards (
+    id                        uuid                        NOT NULL,
+    client_id                 uuid                        NOT NULL,
+    token                     varchar(255)                NOT NULL,
+    last_four_digits          varchar(4)                  NOT NULL,
+    expiration_date_encrypted oid                         NOT NULL,
+    creation_date             timestamp(6) with time zone NOT NULL,
+    update_date               timestamp(6) with time zone,
+    CONSTRAINT pk_tokenized_cards PRIMARY KEY (id),
+    CONSTRAINT uk_tokenized_cards_token UNIQUE (token),
+    CONSTRAINT fk_tokenized_cards_client FOREIGN KEY (client_id) REFERENCES clients (id)
+);
+
+-- Carrito
+CREATE TABLE cart_item (
+    id          uuid                        NOT NULL,
+    client_id   uuid                        NOT NULL,
+    product_id  uuid                        NOT NULL,
+    quantity    integer                     NOT NULL,
+    CONSTRAINT pk_cart_item PRIMARY KEY (id),
+    CONSTRAINT uk_cart_item_client_product UNIQUE (client_id, product_id),
+    CONSTRAINT fk_cart_item_client FOREIGN KEY (client_id) REFERENCES clients (id),
+    CONSTRAINT fk_cart_item_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Pedidos y pagos
+CREATE TABLE orders (
+    id                     uuid                        NOT NULL,
+    client_id              uuid                        NOT NULL,
+    total_amount           numeric(10, 2)              NOT NULL,
+    order_date             timestamp(6) with time zone NOT NULL,
+    tokenized_card_id      uuid                        NOT NULL,
+    creation_date          timestamp(6) with time zone NOT NULL,
+    is_blocked_for_payment boolean                     NOT NULL,
+    delivery_address       varchar(100)                NOT NULL,
+    CONSTRAINT pk_orders PRIMARY KEY (id),
+    CONSTRAINT fk_orders_client FOREIGN KEY (client_id) REFERENCES clients (id),
+    CONSTRAINT fk_orders_tokenized_card FOREIGN KEY (tokenized_card_id) REFERENCES tokenized_cards (id)
+);
+
+CREATE TABLE order_detail (
+    id         uuid           NOT NULL,
+    order_id   uuid           NOT NULL,
+    product_id uuid           NOT NULL,
+    quantity   integer        NOT NULL,
+    unit_price numeric(10, 2) NOT NULL,
+    CONSTRAINT pk_order_detail PRIMARY KEY (id),
+    CONSTRAINT uk_order_detail_order_product UNIQUE (order_id, product_id),
+    CONSTRAINT fk_order_detail_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_detail_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+CREATE TABLE payment_transaction (
+    id               uuid                        NOT NULL,
+    order_id         uuid                        NOT NULL,
+    transaction_uuid uuid                        NOT NULL,
+    amount           numeric(10, 2)              NOT NULL,
+    status           varchar(50)                 NOT NULL,
+    attempts         integer                     NOT NULL,
+    transaction_date timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_payment_transaction PRIMARY KEY (id),
+    CONSTRAINT fk_payment_transaction_order FOREIGN KEY (order_id) REFERENCES orders (id)
+);
+
+-- Historial de búsquedas. V6 la convierte en tabla particionada por mes; la clave primaria
+-- conserva el nombre por defecto porque pk_search_log corresponde a la de la tabla particionada.
+CREATE TABLE search_log (
+    id             uuid                        NOT NULL,
+    query_date     timestamp(6) with time zone NOT NULL,
+    search_keyword varchar(255)                NOT NULL,
+    client_id      uuid,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_search_log_client FOREIGN KEY (client_id) REFERENCES clients (id)
+);
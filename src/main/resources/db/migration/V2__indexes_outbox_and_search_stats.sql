@@ -0,0 +1,86 @@
+-- Índices de consulta, fecha de actualización del carrito, outbox de notificaciones y
+-- estadísticas de búsqueda.
+--
+-- Se aplica tanto a las bases de datos creadas con V1 como a las creadas con ddl-auto=update
+-- (registradas con baseline en la versión 1), cuyas restricciones tienen los nombres generados
+-- por Hibernate. Las sentencias son idempotentes. search_log se convierte en tabla particionada,
+-- con su índice y sus particiones, en V6.
+
+CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (name, id);
+
+CREATE INDEX IF NOT EXISTS idx_tokenized_cards_client_id ON tokenized_cards (client_id);
+
+CREATE INDEX IF NOT EXISTS idx_orders_client_id ON orders (client_id);
+
+CREATE INDEX IF NOT EXISTS idx_payment_transaction_order_attempts ON payment_transaction (order_id, attempts);
+
+-- Carrito: fecha de la última escritura de cada línea
+ALTER TABLE cart_item ADD COLUMN IF NOT EXISTS update_date timestamp(6) with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- CartStoreErrors traduce las violaciones de clave foránea del carrito por el nombre de la restricción
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN
+        SELECT c.conname,
+               CASE a.attname WHEN 'client_id' THEN 'fk_cart_item_client' ELSE 'fk_cart_item_product' END AS target
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'cart_item'::regclass
+          AND c.contype = 'f'
+          AND a.attname IN ('client_id', 'product_id')
+    LOOP
+        IF fk.conname <> fk.target THEN
+            EXECUTE format('ALTER TABLE cart_item RENAME CONSTRAINT %I TO %I', fk.conname, fk.target);
+        END IF;
+    END LOOP;
+END
+$$;
+
+-- Notificaciones pendientes (outbox)
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id              uuid                        NOT NULL,
+    event_type      varchar(50)                 NOT NULL,
+    recipient_email varchar(255)                NOT NULL,
+    recipient_name  varchar(255)                NOT NULL,
+    order_id        uuid                        NOT NULL,
+    amount          numeric(10, 2)              NOT NULL,
+    message         varchar(255)                NOT NULL,
+    status          varchar(20)                 NOT NULL,
+    attempts        integer                     NOT NULL,
+    last_error      varchar(500),
+    creation_date   timestamp(6) with time zone NOT NULL,
+    processed_date  timestamp(6) with time zone,
+    CONSTRAINT pk_notification_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_status_creation ON notification_outbox (status, creation_date);
+
+-- Estadísticas y tendencias de búsqueda
+CREATE TABLE IF NOT EXISTS search_keyword_stat (
+    client_id    uuid                        NOT NULL,
+    keyword      varchar(255)                NOT NULL,
+    search_count bigint                      NOT NULL,
+    last_seen    timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_search_keyword_stat PRIMARY KEY (client_id, keyword)
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_keyword_stat_client_last_seen ON search_keyword_stat (client_id, last_seen DESC);
+
+CREATE TABLE IF NOT EXISTS search_trend (
+    window_name  varchar(10)                 NOT NULL,
+    keyword      varchar(255)                NOT NULL,
+    search_count bigint                      NOT NULL,
+    computed_at  timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_search_trend PRIMARY KEY (window_name, keyword)
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_trend_window_count ON search_trend (window_name, search_count DESC);
+
+CREATE TABLE IF NOT EXISTS search_trend_bucket (
+    bucket_start timestamp(6) with time zone NOT NULL,
+    keyword      varchar(255)                NOT NULL,
+    search_count bigint                      NOT NULL,
+    CONSTRAINT pk_search_trend_bucket PRIMARY KEY (bucket_start, keyword)
+);
@@ -0,0 +1,34 @@
+-- Datos iniciales: roles, preferencias del sistema y estadísticas de búsqueda.
+--
+-- Las sentencias son idempotentes, por lo que también se aplican sin efectos sobre las bases
+-- de datos que ya tenían estos datos (creadas con ddl-auto=update y registradas con baseline en la
+-- versión 1).
+
+INSERT INTO roles (id, name, description) VALUES
+    (gen_random_uuid(), 'ROLE_CLIENT', 'Rol predeterminado para clientes registrados.'),
+    (gen_random_uuid(), 'ROLE_ADMIN', 'Rol para administradores del sistema.')
+ON CONFLICT (name) DO NOTHING;
+
+-- Las claves coinciden con las constantes de PreferenceService
+INSERT INTO system_preference (id, pref_key, pref_value, data_type, creation_date, update_date) VALUES
+    -- Porcentaje entero de probabilidad de rechazo simulado para transacciones de pago
+    (gen_random_uuid(), 'payment.rejection_rate', '20', 'INTEGER', CURRENT_TIMESTAMP, NULL),
+    -- Cantidad mínima de stock para que un producto sea visible al cliente
+    (gen_random_uuid(), 'product.min_stock_visibility', '5', 'INTEGER', CURRENT_TIMESTAMP, NULL),
+    -- Número máximo de reintentos permitidos para una transacción de pago fallida
+    (gen_random_uuid(), 'payment.max_attempts', '3', 'INTEGER', CURRENT_TIMESTAMP, NULL),
+    -- Porcentaje entero de probabilidad de rechazo simulado durante la generación del token
+    (gen_random_uuid(), 'tokencard.rejection_rate', '20', 'INTEGER', CURRENT_TIMESTAMP, NULL),
+    -- Número de meses de historial de búsquedas conservados antes de separar sus particiones
+    (gen_random_uuid(), 'searchlog.retention_months', '6', 'INTEGER', CURRENT_TIMESTAMP, NULL)
+ON CONFLICT (pref_key) DO NOTHING;
+
+-- Carga inicial de search_keyword_stat a partir de search_log, solo si la tabla agregada está vacía
+INSERT INTO search_keyword_stat (client_id, keyword, search_count, last_seen)
+SELECT client_id, LEFT(LOWER(REGEXP_REPLACE(TRIM(search_keyword), '\s+', ' ', 'g')), 255), COUNT(*), MAX(query_date)
+FROM search_log
+WHERE client_id IS NOT NULL
+  AND TRIM(search_keyword) <> ''
+  AND NOT EXISTS (SELECT 1 FROM search_keyword_stat)
+GROUP BY 1, 2
+ON CONFLICT (client_id, keyword) DO NOTHING;
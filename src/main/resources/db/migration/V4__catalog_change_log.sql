@@ -0,0 +1,58 @@
+-- Registro de cambios del catálogo de productos.
+--
+-- Disparadores por sentencia con tablas de transición añaden una fila por cada sentencia que
+-- crea, modifica o elimina productos, con los IDs afectados y la transacción que la escribió
+-- (una sentencia que no cambia filas, como una importación en la que todas chocan con
+-- ON CONFLICT DO NOTHING, no deja registro; un TRUNCATE deja una fila sin IDs). Solo se
+-- insertan filas, así que las escrituras del catálogo no se esperan entre sí.
+--
+-- ProductIndexRefresher lee las filas confirmadas desde su última instantánea
+-- (pg_current_snapshot), es decir, en orden de confirmación: una transacción larga cuyas
+-- fechas son anteriores a las ya indexadas no se pierde. Las filas antiguas se purgan
+-- periódicamente.
+CREATE TABLE catalog_change (
+    id          bigserial                   NOT NULL,
+    xid         xid8                        NOT NULL DEFAULT pg_current_xact_id(),
+    product_ids uuid[],
+    change_date timestamp(6) with time zone NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_catalog_change PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_catalog_change_xid ON catalog_change (xid);
+
+CREATE INDEX idx_catalog_change_change_date ON catalog_change (change_date);
+
+CREATE FUNCTION record_product_changes() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO catalog_change (product_ids)
+    SELECT array_agg(DISTINCT id) FROM changed_products HAVING count(*) > 0;
+    RETURN NULL;
+END
+$$;
+
+CREATE FUNCTION record_products_truncate() RETURNS trigger
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    INSERT INTO catalog_change (product_ids) VALUES (NULL);
+    RETURN NULL;
+END
+$$;
+
+CREATE TRIGGER trg_products_changes_insert
+    AFTER INSERT ON products REFERENCING NEW TABLE AS changed_products
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_changes();
+
+CREATE TRIGGER trg_products_changes_update
+    AFTER UPDATE ON products REFERENCING NEW TABLE AS changed_products
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_changes();
+
+CREATE TRIGGER trg_products_changes_delete
+    AFTER DELETE ON products REFERENCING OLD TABLE AS changed_products
+    FOR EACH STATEMENT EXECUTE FUNCTION record_product_changes();
+
+CREATE TRIGGER trg_products_changes_truncate
+    AFTER TRUNCATE ON products
+    FOR EACH STATEMENT EXECUTE FUNCTION record_products_truncate();
@@ -0,0 +1,7 @@
+-- Límite de la cantidad de un producto en el carrito.
+--
+-- Acota la suma de cantidades de INSERT ... ON CONFLICT DO UPDATE (que sin límite desborda
+-- el entero tras suficientes adiciones) y da nombre a la violación para traducirla a un
+-- error de negocio. NOT VALID no revisa las filas existentes, solo las nuevas y modificadas.
+ALTER TABLE cart_item
+    ADD CONSTRAINT ck_cart_item_quantity CHECK (quantity BETWEEN 1 AND 1000) NOT VALID;
@@ -0,0 +1,57 @@
+-- Particionado mensual de search_log.
+--
+-- Convierte la tabla ordinaria (creada por V1 o por Hibernate con ddl-auto=update) en una tabla
+-- particionada por rango sobre query_date: una partición search_log_pAAAAMM por mes, en UTC,
+-- desde el inicio de la retención (preferencia searchlog.retention_months) hasta tres meses
+-- por delante, más la partición search_log_default para las filas fuera de rango. Solo se
+-- copian las filas dentro de la retención. PostgreSQL exige que la clave primaria incluya la
+-- columna de particionamiento, por lo que pasa a ser (id, query_date).
+--
+-- A partir de aquí SearchLogPartitionManager solo crea por adelantado las particiones de los
+-- meses siguientes y aplica la retención.
+
+ALTER TABLE search_log RENAME TO search_log_legacy;
+
+CREATE TABLE search_log (
+    id             uuid                        NOT NULL,
+    query_date     timestamp(6) with time zone NOT NULL,
+    search_keyword varchar(255)                NOT NULL,
+    client_id      uuid,
+    CONSTRAINT pk_search_log PRIMARY KEY (id, query_date),
+    CONSTRAINT fk_search_log_client FOREIGN KEY (client_id) REFERENCES clients (id)
+) PARTITION BY RANGE (query_date);
+
+CREATE INDEX idx_search_log_client_date ON search_log (client_id, query_date DESC);
+
+CREATE TABLE search_log_default PARTITION OF search_log DEFAULT;
+
+-- Los límites se calculan sobre fechas sin zona en UTC para no depender de la zona de la sesión
+DO $$
+DECLARE
+    retention_months integer;
+    current_month    timestamp := date_trunc('month', now() AT TIME ZONE 'UTC');
+    retention_start  timestamp;
+    month_start      timestamp;
+BEGIN
+    SELECT GREATEST(1, CAST(pref_value AS integer)) INTO retention_months
+    FROM system_preference
+    WHERE pref_key = 'searchlog.retention_months' AND pref_value ~ '^[0-9]+$';
+    retention_start := current_month - make_interval(months => COALESCE(retention_months, 6));
+
+    month_start := retention_start;
+    WHILE month_start <= current_month + interval '3 months' LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF search_log FOR VALUES FROM (%L) TO (%L)',
+                'search_log_p' || to_char(month_start, 'YYYYMM'),
+                to_char(month_start, 'YYYY-MM-DD HH24:MI:SS') || '+00',
+                to_char(month_start + interval '1 month', 'YYYY-MM-DD HH24:MI:SS') || '+00');
+        month_start := month_start + interval '1 month';
+    END LOOP;
+
+    INSERT INTO search_log (id, query_date, search_keyword, client_id)
+    SELECT id, query_date, search_keyword, client_id
+    FROM search_log_legacy
+    WHERE query_date >= retention_start AT TIME ZONE 'UTC';
+END
+$$;
+
+DROP TABLE search_log_legacy;
@@ -0,0 +1,146 @@
+package com.farmatodo.apigetway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica el enrutamiento entre primario y réplica con dos instancias locales de PostgreSQL.
+ *
+ * Se ejecuta solo si están definidas {@code DB_URL} y {@code DB_REPLICA_URL} (con
+ * {@code DB_USERNAME} y {@code DB_PASSWORD} válidos en ambas). Las instancias pueden ser un
+ * primario con su réplica en streaming o dos servidores independientes en puertos distintos:
+ * cada conexión se identifica por la dirección y el puerto del servidor que la atiende. Dos
+ * enrutadores independientes sobre los mismos servidores simulan dos nodos de la aplicación.
+ */
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "DB_REPLICA_URL", matches = ".+")
+class ReadWriteRoutingDataSourceTest {
+
+    private static final String SERVER_SQL = "SELECT coalesce(host(inet_server_addr()), 'local') || ':' || current_setting('port')";
+
+    private String primaryServer;
+    private String replicaServer;
+    private Node node;
+    private Node otherNode;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = dataSource(System.getenv("DB_URL"));
+        DriverManagerDataSource replica = dataSource(System.getenv("DB_REPLICA_URL"));
+        primaryServer = new JdbcTemplate(primary).queryForObject(SERVER_SQL, String.class);
+        replicaServer = new JdbcTemplate(replica).queryForObject(SERVER_SQL, String.class);
+        assertThat(replicaServer).as("El primario y la réplica deben ser instancias distintas").isNotEqualTo(primaryServer);
+
+        node = new Node(primary, replica);
+        otherNode = new Node(primary, replica);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        startRequest();
+        assertThat(node.readOnlyServer()).isEqualTo(replicaServer);
+        assertThat(node.readWriteServer()).isEqualTo(primaryServer);
+        assertThat(node.server()).as("Fuera de una transacción").isEqualTo(primaryServer);
+    }
+
+    @Test
+    void writerReadsFromPrimaryOnAnyNode() {
+        MockHttpServletResponse response = startRequest();
+        node.readWriteServer();
+        assertThat(node.readOnlyServer()).as("En la misma petición").isEqualTo(primaryServer);
+        Cookie cookie = response.getCookie(ReadYourWritesToken.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+
+        startRequest();
+        assertThat(otherNode.readOnlyServer()).as("Otro cliente").isEqualTo(replicaServer);
+
+        startRequest(cookie);
+        assertThat(otherNode.readOnlyServer()).as("El mismo cliente en otro nodo").isEqualTo(primaryServer);
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinReads() {
+        MockHttpServletResponse response = startRequest();
+        node.readWrite.executeWithoutResult(status -> {
+            node.server();
+            status.setRollbackOnly();
+        });
+        assertThat(response.getCookie(ReadYourWritesToken.COOKIE_NAME)).isNull();
+        assertThat(node.readOnlyServer()).isEqualTo(replicaServer);
+    }
+
+    private static MockHttpServletResponse startRequest(Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (cookies.length > 0) {
+            request.setCookies(cookies);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    /**
+     * Nodo de la aplicación: su propio enrutador y sus plantillas sobre los mismos servidores.
+     */
+    private static final class Node {
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readWrite;
+        private final TransactionTemplate readOnly;
+
+        private Node(DriverManagerDataSource primary, DriverManagerDataSource replica) {
+            ReadYourWritesToken token = new ReadYourWritesToken("secreto-de-prueba", Duration.ofMinutes(1), Clock.systemUTC());
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                    primary, replica, token, new SimpleMeterRegistry());
+            routing.afterPropertiesSet();
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+            jdbcTemplate = new JdbcTemplate(proxy);
+            readWrite = new TransactionTemplate(transactionManager);
+            readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+        }
+
+        private String readOnlyServer() {
+            return readOnly.execute(status -> server());
+        }
+
+        private String readWriteServer() {
+            return readWrite.execute(status -> server());
+        }
+
+        private String server() {
+            return jdbcTemplate.queryForObject(SERVER_SQL, String.class);
+        }
+    }
+
+    private static DriverManagerDataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.farmatodo.apigetway.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica la emisión y validación de la marca de lectura de las propias escrituras.
+ */
+class ReadYourWritesTokenTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private final ReadYourWritesToken token = tokenAt(NOW);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void tokenIsValidOnAnyNodeUntilItExpires() {
+        String issued = token.issue();
+
+        assertThat(tokenAt(NOW.plusSeconds(4)).isValid(issued)).isTrue();
+        assertThat(tokenAt(NOW.plus(WINDOW)).isValid(issued)).isFalse();
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        String issued = token.issue();
+        String extended = Long.toHexString(NOW.plusSeconds(3600).toEpochMilli()) + issued.substring(issued.indexOf('.'));
+        ReadYourWritesToken otherSecret = new ReadYourWritesToken("otro-secreto", WINDOW, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThat(token.isValid(extended)).isFalse();
+        assertThat(otherSecret.isValid(issued)).isFalse();
+        assertThat(token.isValid("basura")).isFalse();
+    }
+
+    @Test
+    void committedWriteIssuesCookieAndHeader() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        assertThat(token.isPinnedToPrimary()).isFalse();
+
+        token.writeCommitted();
+
+        assertThat(token.isPinnedToPrimary()).as("En la misma petición").isTrue();
+        assertThat(response.getCookie(ReadYourWritesToken.COOKIE_NAME)).isNotNull();
+        String header = response.getHeader(ReadYourWritesToken.HEADER_NAME);
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.addHeader(ReadYourWritesToken.HEADER_NAME, header);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(next, new MockHttpServletResponse()));
+        assertThat(token.isPinnedToPrimary()).as("Petición siguiente con la cabecera").isTrue();
+    }
+
+    private static ReadYourWritesToken tokenAt(Instant now) {
+        return new ReadYourWritesToken("secreto-de-prueba", WINDOW, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,128 @@
+package com.farmatodo.apigetway.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga HTTP con muchos clientes concurrentes contra una instancia en ejecución.
+ *
+ * Cada cliente es un hilo virtual que envía peticiones {@code GET} a {@code LOAD_TEST_URL} en
+ * bucle (con {@code Authorization: Bearer LOAD_TEST_TOKEN} si está definido). Tras un
+ * calentamiento, informa del rendimiento y de los percentiles 50 y 99 de la latencia. Para
+ * comparar los modos de ejecución se lanza contra la aplicación arrancada con
+ * {@code VIRTUAL_THREADS_ENABLED=false} y con {@code true}. No forma parte de la suite habitual:
+ * {@code LOAD_TEST_URL=... mvn test -Dtest=HttpLoadBenchmarkTest -Dbenchmark=true
+ * [-Dbenchmark.clients=5000] [-Dbenchmark.seconds=60] [-Dbenchmark.warmup-seconds=15]}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIfEnvironmentVariable(named = "LOAD_TEST_URL", matches = ".+")
+class HttpLoadBenchmarkTest {
+
+    @Test
+    void concurrentClientsThroughputAndLatency() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 5_000);
+        long warmupNanos = Duration.ofSeconds(Integer.getInteger("benchmark.warmup-seconds", 15)).toNanos();
+        long measureNanos = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 60)).toNanos();
+        HttpRequest request = request();
+
+        LongAdder errors = new LongAdder();
+        List<long[]> latencies;
+        long measureStart;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .executor(executor)
+                     .build()) {
+            long start = System.nanoTime();
+            measureStart = start + warmupNanos;
+            long end = measureStart + measureNanos;
+
+            List<Future<long[]>> results = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                results.add(executor.submit(() -> runClient(client, request, measureStart, end, errors)));
+            }
+            latencies = new ArrayList<>(clients);
+            for (Future<long[]> result : results) {
+                latencies.add(result.get());
+            }
+        }
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long requests = all.length;
+        double seconds = measureNanos / 1_000_000_000.0;
+        double throughput = requests / seconds;
+        double p50 = requests == 0 ? 0 : all[(int) (requests / 2)] / 1_000_000.0;
+        double p99 = requests == 0 ? 0 : all[(int) Math.min(requests - 1, (long) (requests * 0.99))] / 1_000_000.0;
+        double errorRate = (double) errors.sum() / Math.max(1, requests + errors.sum());
+
+        System.out.printf(Locale.ROOT, "Clientes=%d peticiones=%d rendimiento=%.1f req/s p50=%.1fms p99=%.1fms errores=%.2f%%%n",
+                clients, requests, throughput, p50, p99, errorRate * 100);
+        assertThat(requests).isPositive();
+        assertThat(errorRate).isLessThan(Double.parseDouble(System.getProperty("benchmark.max-error-rate", "0.01")));
+    }
+
+    /**
+     * Envía peticiones hasta {@code end} y devuelve las latencias (en nanosegundos) de las
+     * respuestas correctas recibidas a partir de {@code measureStart}.
+     */
+    private static long[] runClient(HttpClient client, HttpRequest request, long measureStart, long end, LongAdder errors) {
+        long[] latencies = new long[64];
+        int count = 0;
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            boolean measured = now >= measureStart;
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                long latency = System.nanoTime() - now;
+                if (!measured) {
+                    continue;
+                }
+                if (response.statusCode() >= 400) {
+                    errors.increment();
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = latency;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if (measured) {
+                    errors.increment();
+                }
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private static HttpRequest request() {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(System.getenv("LOAD_TEST_URL")))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        String token = System.getenv("LOAD_TEST_TOKEN");
+        if (token != null && !token.isBlank()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
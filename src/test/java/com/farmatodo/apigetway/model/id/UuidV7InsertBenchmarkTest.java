@@ -0,0 +1,81 @@
+package com.farmatodo.apigetway.model.id;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de inserción con claves primarias UUID versión 4 frente a versión 7.
+ *
+ * Inserta el mismo número de filas en dos tablas temporales con clave primaria {@code uuid}
+ * y compara la duración y el tamaño final del índice primario. No forma parte de la suite
+ * habitual; requiere PostgreSQL ({@code DB_URL}, {@code DB_USERNAME}, {@code DB_PASSWORD}) y se
+ * ejecuta con:
+ * {@code mvn test -Dtest=UuidV7InsertBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=10000000]}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class UuidV7InsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    @Test
+    void timeOrderedKeysKeepPrimaryIndexCompact() throws SQLException {
+        int rows = Integer.getInteger("benchmark.rows", 10_000_000);
+        try (Connection connection = DriverManager.getConnection(
+                System.getenv("DB_URL"), System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"))) {
+            Result v4 = insert(connection, "uuid_v4_benchmark", rows, UUID::randomUUID);
+            Result v7 = insert(connection, "uuid_v7_benchmark", rows, UuidV7Generator::next);
+
+            System.out.printf(Locale.ROOT, "Filas=%d v4: %dms índice=%dMB | v7: %dms índice=%dMB%n",
+                    rows, v4.elapsedMs(), v4.indexBytes() >> 20, v7.elapsedMs(), v7.indexBytes() >> 20);
+            assertThat(v7.indexBytes()).isLessThanOrEqualTo(v4.indexBytes());
+        }
+    }
+
+    private static Result insert(Connection connection, String table, int rows, Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMPORARY TABLE " + table + " (id uuid PRIMARY KEY, payload int NOT NULL)");
+        }
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, payload) SELECT unnest(CAST(? AS uuid[])), 0")) {
+            for (int offset = 0; offset < rows; offset += BATCH_SIZE) {
+                Object[] batch = new Object[Math.min(BATCH_SIZE, rows - offset)];
+                for (int i = 0; i < batch.length; i++) {
+                    batch[i] = ids.get();
+                }
+                insert.setArray(1, connection.createArrayOf("uuid", batch));
+                insert.executeUpdate();
+            }
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+            rs.next();
+            return new Result(elapsedMs, rs.getLong(1));
+        }
+    }
+
+    /**
+     * Resultado de la inserción en una tabla.
+     *
+     * @param elapsedMs Duración, en milisegundos.
+     * @param indexBytes Tamaño del índice primario, en bytes.
+     */
+    private record Result(long elapsedMs, long indexBytes) {
+    }
+}
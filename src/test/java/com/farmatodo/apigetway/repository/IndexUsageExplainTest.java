@@ -0,0 +1,56 @@
+package com.farmatodo.apigetway.repository;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica con {@code EXPLAIN} que las consultas frecuentes por clave foránea usan un índice.
+ *
+ * Requiere una base de datos PostgreSQL con el esquema de la aplicación ya creado; se ejecuta
+ * solo si están definidas las variables {@code DB_URL}, {@code DB_USERNAME} y {@code DB_PASSWORD}.
+ * Se desactiva el recorrido secuencial para que el resultado no dependa del volumen de datos:
+ * si no existe un índice utilizable, el planificador recurre igualmente a un {@code Seq Scan}.
+ */
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class IndexUsageExplainTest {
+
+    private static final String ANY_ID = "'00000000-0000-0000-0000-000000000000'";
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "cart_item            | SELECT * FROM cart_item WHERE client_id = " + ANY_ID,
+            "orders               | SELECT * FROM orders WHERE client_id = " + ANY_ID,
+            "tokenized_cards      | SELECT * FROM tokenized_cards WHERE client_id = " + ANY_ID,
+            "payment_transaction  | SELECT MAX(attempts) FROM payment_transaction WHERE order_id = " + ANY_ID,
+            "search_log           | SELECT * FROM search_log WHERE client_id = " + ANY_ID + " ORDER BY query_date DESC LIMIT 20"
+    })
+    void lookupUsesIndex(String table, String query) throws Exception {
+        String plan = explain(query);
+
+        assertThat(plan).as("Plan de %s", table).doesNotContain("Seq Scan");
+        assertThat(plan).as("Plan de %s", table).contains("Index");
+    }
+
+    private static String explain(String query) throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                System.getenv("DB_URL"), System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"));
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN " + query)) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.farmatodo.apigetway.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que las migraciones llevan al esquema actual tanto una base de datos vacía como una
+ * creada con {@code ddl-auto=update} antes de introducir Flyway.
+ *
+ * La prueba trabaja en esquemas propios que elimina al terminar; se ejecuta solo si están
+ * definidas las variables {@code DB_URL}, {@code DB_USERNAME} y {@code DB_PASSWORD}.
+ */
+@EnabledIfEnvironmentVariable(named = "DB_URL", matches = ".+")
+class SchemaMigrationTest {
+
+    private static final String LEGACY_SCHEMA = "migration_test_legacy";
+    private static final String FRESH_SCHEMA = "migration_test_fresh";
+    private static final String LEGACY_DDL = "/db/legacy/hibernate_update_schema.sql";
+
+    private static final String CLIENT_ID = "'00000000-0000-0000-0000-000000000001'";
+    private static final String PRODUCT_ID = "'00000000-0000-0000-0000-000000000002'";
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + LEGACY_SCHEMA + " CASCADE");
+            statement.execute("DROP SCHEMA IF EXISTS " + FRESH_SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void legacySchemaIsBaselinedAndUpgraded() throws Exception {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA " + LEGACY_SCHEMA);
+            statement.execute("SET search_path TO " + LEGACY_SCHEMA);
+            for (String ddl : legacyStatements()) {
+                statement.execute(ddl);
+            }
+            statement.execute("INSERT INTO clients (id, username, password_hash, first_name, first_surname, email, is_active, creation_date) " +
+                    "VALUES (" + CLIENT_ID + ", 'legacy', 'x', 'Ana', 'Pérez', 'ana@example.com', true, now())");
+            statement.execute("INSERT INTO products (id, part_number, name, category, stock, creation_date) " +
+                    "VALUES (" + PRODUCT_ID + ", 'P-1', 'Gasa', 'Curas', 10, now())");
+            statement.execute("INSERT INTO cart_item (id, client_id, product_id, quantity) " +
+                    "VALUES (gen_random_uuid(), " + CLIENT_ID + ", " + PRODUCT_ID + ", 2)");
+            statement.execute("INSERT INTO search_log (id, query_date, search_keyword, client_id) " +
+                    "VALUES (gen_random_uuid(), now(), ' Gasa ', " + CLIENT_ID + ")");
+        }
+
+        migrate(LEGACY_SCHEMA);
+        migrate(FRESH_SCHEMA);
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + LEGACY_SCHEMA);
+            assertThat(single(statement, "SELECT string_agg(version, ',' ORDER BY installed_rank) FROM flyway_schema_history"))
+                    .isEqualTo("1,2,3,4,5,6");
+            assertThat(single(statement, "SELECT count(*) FROM cart_item WHERE update_date IS NOT NULL")).isEqualTo("1");
+            assertThat(single(statement, "SELECT count(*) FROM search_keyword_stat WHERE keyword = 'gasa'")).isEqualTo("1");
+            assertThat(single(statement, "SELECT count(*) FROM roles")).isEqualTo("2");
+            assertThat(single(statement, "SELECT relkind FROM pg_class WHERE oid = 'search_log'::regclass")).isEqualTo("p");
+            assertThat(single(statement, "SELECT count(*) FROM search_log")).isEqualTo("1");
+            assertThat(single(statement, "SELECT count(*) FROM catalog_change")).isEqualTo("0");
+            assertThat(single(statement, "SELECT string_agg(conname, ',' ORDER BY conname) FROM pg_constraint " +
+                    "WHERE conrelid = 'cart_item'::regclass AND contype IN ('f', 'c')"))
+                    .isEqualTo("ck_cart_item_quantity,fk_cart_item_client,fk_cart_item_product");
+
+            assertThat(columns(statement, LEGACY_SCHEMA)).isEqualTo(columns(statement, FRESH_SCHEMA));
+            assertThat(indexes(statement, LEGACY_SCHEMA)).containsAll(indexes(statement, FRESH_SCHEMA));
+        }
+    }
+
+    private static void migrate(String schema) {
+        Flyway.configure()
+                .dataSource(System.getenv("DB_URL"), System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"))
+                .schemas(schema)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private static List<String> legacyStatements() throws IOException {
+        String script;
+        try (InputStream in = SchemaMigrationTest.class.getResourceAsStream(LEGACY_DDL)) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> statements = new ArrayList<>();
+        for (String ddl : script.replaceAll("(?m)^--.*$", "").split(";")) {
+            if (!ddl.isBlank()) {
+                statements.add(ddl.strip());
+            }
+        }
+        return statements;
+    }
+
+    private static Set<String> columns(Statement statement, String schema) throws SQLException {
+        return strings(statement, "SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable " +
+                "FROM information_schema.columns WHERE table_schema = '" + schema + "' AND table_name <> 'flyway_schema_history'");
+    }
+
+    private static Set<String> indexes(Statement statement, String schema) throws SQLException {
+        return strings(statement, "SELECT indexname FROM pg_indexes WHERE schemaname = '" + schema + "' AND indexname LIKE 'idx_%'");
+    }
+
+    private static Set<String> strings(Statement statement, String query) throws SQLException {
+        Set<String> values = new TreeSet<>();
+        try (ResultSet rs = statement.executeQuery(query)) {
+            while (rs.next()) {
+                values.add(rs.getString(1));
+            }
+        }
+        return values;
+    }
+
+    private static String single(Statement statement, String query) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(query)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(System.getenv("DB_URL"), System.getenv("DB_USERNAME"), System.getenv("DB_PASSWORD"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.farmatodo.apigetway.service.catalog;
+
+import com.farmatodo.apigetway.model.Product;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de recall y latencia de {@link ProductFuzzyIndex} sobre un catálogo generado.
+ *
+ * No forma parte de la suite habitual; se ejecuta con:
+ * {@code mvn test -Dtest=ProductFuzzyIndexBenchmarkTest -Dbenchmark=true [-Dbenchmark.products=1000000]}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductFuzzyIndexBenchmarkTest {
+
+    private static final String[] SYLLABLES = {
+            "a", "ce", "ta", "mi", "no", "fen", "i", "bu", "pro", "lo", "ra", "ta", "di", "na", "me", "tro",
+            "ni", "da", "zol", "ol", "pa", "xe", "ti", "na", "cli", "ci", "lin", "am", "mox", "si", "lo", "sar",
+            "tan", "ver", "fa", "to", "rin", "ex", "zo", "pre", "gab", "vas", "ta", "tin"
+    };
+    private static final String[] FORMS = {"tabletas", "jarabe", "capsulas", "crema", "gotas", "suspension"};
+    private static final String[] DOSES = {"100mg", "200mg", "250mg", "400mg", "500mg", "1g", "5ml", "10ml"};
+
+    @Test
+    void fuzzySearchMeetsRecallAndLatencyTargets() {
+        int productCount = Integer.getInteger("benchmark.products", 1_000_000);
+        int queryCount = Integer.getInteger("benchmark.queries", 5_000);
+        int drugCount = Integer.getInteger("benchmark.drugs", 20_000);
+        Random random = new Random(42);
+
+        // Como en un catálogo real, cada principio activo aparece en varias presentaciones
+        String[] drugs = new String[drugCount];
+        for (int i = 0; i < drugCount; i++) {
+            drugs[i] = drugName(random);
+        }
+        List<Product> catalog = new ArrayList<>(productCount);
+        for (int i = 0; i < productCount; i++) {
+            Product product = new Product();
+            product.setId(UUID.randomUUID());
+            product.setPartNumber(String.format(Locale.ROOT, "SKU-%07d", i));
+            product.setName(drugs[random.nextInt(drugCount)] + " " + FORMS[random.nextInt(FORMS.length)] + " " + DOSES[random.nextInt(DOSES.length)]);
+            product.setCategory("GENERAL");
+            product.setStock(100);
+            catalog.add(product);
+        }
+
+        ProductFuzzyIndex index = new ProductFuzzyIndex();
+        long buildStart = System.nanoTime();
+        index.rebuild(catalog);
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        // Calentamiento del JIT
+        for (int i = 0; i < 2_000; i++) {
+            index.search(typo(firstWord(catalog.get(random.nextInt(productCount))), random), 0, 50);
+        }
+
+        long[] latencies = new long[queryCount];
+        int hits = 0;
+        for (int i = 0; i < queryCount; i++) {
+            Product target = catalog.get(random.nextInt(productCount));
+            String word = firstWord(target);
+            String query = typo(word, random);
+
+            long start = System.nanoTime();
+            List<Product> results = index.search(query, 0, 50).products();
+            latencies[i] = System.nanoTime() - start;
+
+            if (results.stream().anyMatch(product -> firstWord(product).equals(word))) {
+                hits++;
+            }
+        }
+        Arrays.sort(latencies);
+        double recall = (double) hits / queryCount;
+        double p50 = latencies[queryCount / 2] / 1_000_000.0;
+        double p99 = latencies[(int) (queryCount * 0.99)] / 1_000_000.0;
+
+        System.out.printf(Locale.ROOT, "Productos=%d construcción=%dms recall=%.4f p50=%.3fms p99=%.3fms%n",
+                productCount, buildMs, recall, p50, p99);
+        assertThat(recall).isGreaterThan(0.95);
+        assertThat(p99).isLessThan(Double.parseDouble(System.getProperty("benchmark.p99-ms", "5")));
+    }
+
+    private static String drugName(Random random) {
+        int syllables = 3 + random.nextInt(3);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String firstWord(Product product) {
+        return product.getName().toLowerCase(Locale.ROOT).split(" ")[0];
+    }
+
+    /**
+     * Introduce un error tipográfico (sustitución, omisión o inserción) dentro del
+     * presupuesto de edición del índice para la longitud de la palabra.
+     */
+    private static String typo(String word, Random random) {
+        if (ProductFuzzyIndex.maxDistance(word) == 0) {
+            return word;
+        }
+        int position = 1 + random.nextInt(word.length() - 2);
+        char[] chars = word.toCharArray();
+        return switch (random.nextInt(3)) {
+            case 0 -> {
+                chars[position] = (char) ('a' + random.nextInt(26));
+                yield new String(chars);
+            }
+            case 1 -> word.substring(0, position) + word.substring(position + 1);
+            default -> word.substring(0, position) + (char) ('a' + random.nextInt(26)) + word.substring(position);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.farmatodo.apigetway.service.productimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Verifica la lectura incremental de los archivos de importación CSV y NDJSON.
+ */
+class ProductImportReaderTest {
+
+    private static final String HEADER = "part_number,name,category,stock\n";
+
+    @Test
+    void csvQuotedFieldsMayContainCommasNewlinesAndDoubledQuotes() throws IOException {
+        List<ProductImportRow> rows = readAll(ProductImportFormat.CSV,
+                HEADER + "P-1,\"Acetaminofén, 500 mg\",\"Analgésicos\",10\n"
+                        + "P-2,\"Crema \"\"Hidratante\"\"\nfrasco\",Cuidado,5\n"
+                        + "P-3,Gasa,Curas,7\n");
+
+        assertThat(rows).extracting(ProductImportRow::line).containsExactly(2L, 3L, 5L);
+        assertThat(rows.get(0).name()).isEqualTo("Acetaminofén, 500 mg");
+        assertThat(rows.get(1).name()).isEqualTo("Crema \"Hidratante\"\nfrasco");
+        assertThat(rows.get(2).partNumber()).isEqualTo("P-3");
+        assertThat(rows).allSatisfy(row -> assertThat(row.error()).isNull());
+    }
+
+    @Test
+    void csvAcceptsCrlfAndByteOrderMark() throws IOException {
+        List<ProductImportRow> rows = readAll(ProductImportFormat.CSV,
+                "\uFEFFPART_NUMBER,Name,Category,Stock\r\nP-1,Gasa,Curas,7\r\n\r\nP-2,Venda,Curas,3\r\n");
+
+        assertThat(rows).extracting(ProductImportRow::partNumber).containsExactly("P-1", "P-2");
+        assertThat(rows).extracting(ProductImportRow::stock).containsExactly("7", "3");
+        assertThat(rows).extracting(ProductImportRow::line).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void csvUnterminatedQuoteIsRowErrorWithBoundedRecord() throws IOException {
+        String longTail = "x".repeat(ProductImportReader.MAX_RECORD_LENGTH) + "\n";
+        List<ProductImportRow> rows = readAll(ProductImportFormat.CSV,
+                HEADER + "P-1,\"Sin cerrar,Curas,7\n" + longTail + "P-2,Gasa,Curas,7\n");
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).error()).contains("excede");
+        assertThat(rows.get(1).partNumber()).isEqualTo("P-2");
+        assertThat(rows.get(1).line()).isEqualTo(4);
+
+        List<ProductImportRow> atEnd = readAll(ProductImportFormat.CSV, HEADER + "P-1,\"Sin cerrar,Curas,7\n");
+        assertThat(atEnd).singleElement().satisfies(row -> assertThat(row.error()).isEqualTo("Comillas sin cerrar."));
+    }
+
+    @Test
+    void csvRejectsHeaderWithoutRequiredColumns() {
+        assertThatThrownBy(() -> readAll(ProductImportFormat.CSV, "part_number,name\nP-1,Gasa\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void ndjsonReportsMalformedAndOversizedLines() throws IOException {
+        String oversized = "{\"name\":\"" + "x".repeat(ProductImportReader.MAX_RECORD_LENGTH) + "\"}\n";
+        List<ProductImportRow> rows = readAll(ProductImportFormat.NDJSON,
+                "\uFEFF{\"part_number\":\"P-1\",\"name\":\"Gasa\",\"category\":\"Curas\",\"stock\":7}\r\n"
+                        + "{no es json\n"
+                        + oversized
+                        + "{\"partNumber\":\"P-2\",\"name\":\"Venda\",\"category\":\"Curas\",\"stock\":\"3\"}\n");
+
+        assertThat(rows).hasSize(4);
+        assertThat(rows.get(0).partNumber()).isEqualTo("P-1");
+        assertThat(rows.get(0).stock()).isEqualTo("7");
+        assertThat(rows.get(1).error()).startsWith("JSON inválido");
+        assertThat(rows.get(2).error()).contains("excede");
+        assertThat(rows.get(3).partNumber()).isEqualTo("P-2");
+        assertThat(rows.get(3).line()).isEqualTo(4);
+    }
+
+    private static List<ProductImportRow> readAll(ProductImportFormat format, String content) throws IOException {
+        ProductImportReader reader = ProductImportReader.open(
+                format, new BufferedReader(new StringReader(content)), new ObjectMapper());
+        List<ProductImportRow> rows = new ArrayList<>();
+        ProductImportRow row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,24 @@
+-- Esquema generado por Hibernate con ddl-auto=update antes de introducir las migraciones,
+-- con los nombres de restricciones que generaba.
+create table roles (id uuid not null, description varchar(255), name varchar(50) not null unique, primary key (id));
+create table clients (creation_date timestamp(6) with time zone not null, is_active boolean not null, update_date timestamp(6) with time zone, id uuid not null, phone_number varchar(20), first_name varchar(100) not null, first_surname varchar(100) not null, middle_name varchar(100), second_surname varchar(100), username varchar(100) not null, email varchar(255) not null, password_hash varchar(255) not null, primary key (id), constraint UKmyunjo3ssay2pkv9ofpsx40dy unique (username), constraint UKsrv16ica2c1csub334bxjjb59 unique (email), constraint UKqqupmm9tyeeqjrugw8bfyq9mi unique (phone_number));
+create table client_roles (client_id uuid not null, role_id uuid not null, primary key (client_id, role_id));
+create table system_preference (creation_date timestamp(6) with time zone not null, update_date timestamp(6) with time zone, id uuid not null, data_type varchar(20) not null, pref_key varchar(100) not null unique, pref_value varchar(255) not null, primary key (id));
+create table products (stock integer not null, creation_date timestamp(6) with time zone not null, update_date timestamp(6) with time zone, id uuid not null, category varchar(50) not null, name varchar(50) not null, part_number varchar(50) not null unique, primary key (id));
+create table tokenized_cards (last_four_digits varchar(4) not null, creation_date timestamp(6) with time zone not null, expiration_date_encrypted oid not null, update_date timestamp(6) with time zone, client_id uuid not null, id uuid not null, token varchar(255) not null unique, primary key (id));
+create table cart_item (quantity integer not null, client_id uuid not null, id uuid not null, product_id uuid not null, primary key (id), constraint UK7n1vwa7fqv0gpwh4g5ns8fgcy unique (client_id, product_id));
+create table orders (is_blocked_for_payment boolean not null, total_amount numeric(10,2) not null, creation_date timestamp(6) with time zone not null, order_date timestamp(6) with time zone not null, client_id uuid not null, id uuid not null, tokenized_card_id uuid not null, delivery_address varchar(100) not null, primary key (id));
+create table order_detail (quantity integer not null, unit_price numeric(10,2) not null, id uuid not null, order_id uuid not null, product_id uuid not null, primary key (id), constraint UKa5e2dbd6h04tnjy8hpy2lsgbe unique (order_id, product_id));
+create table payment_transaction (amount numeric(10,2) not null, attempts integer not null, transaction_date timestamp(6) with time zone not null, id uuid not null, order_id uuid not null, transaction_uuid uuid not null, status varchar(50) not null, primary key (id));
+create table search_log (query_date timestamp(6) with time zone not null, client_id uuid, id uuid not null, search_keyword varchar(255) not null, primary key (id));
+alter table if exists client_roles add constraint FKadi5bkqfppjdwdtwepdjh5ohv foreign key (role_id) references roles;
+alter table if exists client_roles add constraint FKbwe0h5h6d0eeq2ck1vb4bnjo6 foreign key (client_id) references clients;
+alter table if exists tokenized_cards add constraint FKrkqb0b4uw3ftdjq1w3kqx8n5m foreign key (client_id) references clients;
+alter table if exists cart_item add constraint FKqnh8oxu1mvn0pchnuvqekjpwe foreign key (client_id) references clients;
+alter table if exists cart_item add constraint FKjcyd5wv4igqnw413rgxbfu4nv foreign key (product_id) references products;
+alter table if exists orders add constraint FKm2dep9derpoaehshbkkatam3v foreign key (client_id) references clients;
+alter table if exists orders add constraint FK4u1ysc4ip0p5r1eunqgbyy6f6 foreign key (tokenized_card_id) references tokenized_cards;
+alter table if exists order_detail add constraint FKrws2q0si6oyd6il8gqe2aennc foreign key (order_id) references orders;
+alter table if exists order_detail add constraint FKb8bg2bkty0oksa3wiq5mp5qnc foreign key (product_id) references products;
+alter table if exists payment_transaction add constraint FKlv3cwm8yqmftcs3tpuql1rwx0 foreign key (order_id) references orders;
+alter table if exists search_log add constraint FK6k0b5a5bm6rpfp1aa0ktlbj1d foreign key (client_id) references clients;